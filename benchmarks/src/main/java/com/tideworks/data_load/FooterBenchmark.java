@@ -0,0 +1,97 @@
+/* FooterBenchmark.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.io.InputFile.nioPathToPositionalInputFile;
+
+/**
+ * The cost of a footer as the column count grows: read and decoded on opening a reader,
+ * decoded alone from bytes already in memory, and taken from the ParquetFooterCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FooterBenchmark {
+  @Param({ "10", "100", "1000" })
+  public int columns;
+
+  @Param({ "4000" })
+  public int rows;
+
+  private Path dir;
+  private Path file;
+  private byte[] encodedFooter;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = SyntheticDataset.createTempDir();
+    final Schema schema = SyntheticDataset.schema(columns);
+    // small row groups, so the file has several and each adds its column chunks to the footer
+    file = SyntheticDataset.write(schema, SyntheticDataset.records(schema, rows), dir.resolve("footer.parquet"),
+            new WriterSettings(WriterSettings.DEFAULT.codec, false, 64 * 1024, 8 * 1024));
+    final byte[] bytes = Files.readAllBytes(file);
+    final int tailLength = 4 + ParquetFileWriter.MAGIC.length;
+    final int footerLength = BytesUtils.readIntLittleEndian(bytes, bytes.length - tailLength);
+    encodedFooter = Arrays.copyOfRange(bytes, bytes.length - tailLength - footerLength, bytes.length - tailLength);
+    System.out.printf("%n%d columns: footer of %d bytes, %d row groups%n", columns, footerLength,
+            ParquetFooterCache.getFooter(file).getBlocks().size());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ParquetFooterCache.invalidate(file);
+    SyntheticDataset.deleteTempDir(dir);
+  }
+
+  @Benchmark
+  public ParquetMetadata openReader() throws IOException {
+    try (final ParquetFileReader reader = ParquetFileReader.open(nioPathToPositionalInputFile(file))) {
+      return reader.getFooter();
+    }
+  }
+
+  @Benchmark
+  public ParquetMetadata decodeOnly() throws IOException {
+    return new ParquetMetadataConverter()
+            .readParquetMetadata(new ByteArrayInputStream(encodedFooter), ParquetMetadataConverter.NO_FILTER);
+  }
+
+  @Benchmark
+  public ParquetMetadata cached() throws IOException {
+    return ParquetFooterCache.getFooter(file);
+  }
+}
@@ -0,0 +1,98 @@
+/* InputFileBenchmark.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.io.InputFile.nioPathToInputFile;
+import static com.tideworks.data_load.io.InputFile.nioPathToMappedInputFile;
+import static com.tideworks.data_load.io.InputFile.nioPathToPositionalInputFile;
+
+/**
+ * Reads every column chunk of an uncompressed file (so the I/O is what is measured)
+ * through each of the InputFile adapters and through Hadoop's LocalFileSystem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InputFileBenchmark {
+  @Param({ "nio", "positional", "mapped", "hadoop" })
+  public String adapter;
+
+  @Param({ "200000" })
+  public int rows;
+
+  private Path dir;
+  private Path file;
+  private Configuration conf;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = SyntheticDataset.createTempDir();
+    final Schema schema = SyntheticDataset.schema(10);
+    file = SyntheticDataset.write(schema, SyntheticDataset.records(schema, rows), dir.resolve("input.parquet"),
+            WriterSettings.DEFAULT.withEncoding(CompressionCodecName.UNCOMPRESSED, false));
+    conf = new Configuration();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticDataset.deleteTempDir(dir);
+  }
+
+  @Benchmark
+  public long readAllRowGroups() throws IOException {
+    long rowsRead = 0;
+    try (final ParquetFileReader reader = ParquetFileReader.open(inputFile())) {
+      for (PageReadStore rowGroup; (rowGroup = reader.readNextRowGroup()) != null; ) {
+        rowsRead += rowGroup.getRowCount();
+      }
+    }
+    return rowsRead;
+  }
+
+  private InputFile inputFile() throws IOException {
+    switch (adapter) {
+      case "nio":
+        return nioPathToInputFile(file);
+      case "positional":
+        return nioPathToPositionalInputFile(file);
+      case "mapped":
+        return nioPathToMappedInputFile(file);
+      case "hadoop":
+        return HadoopInputFile.fromPath(new org.apache.hadoop.fs.Path(file.toUri()), conf);
+      default:
+        throw new IllegalArgumentException("unknown adapter: " + adapter);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/* OutputFileBenchmark.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import com.tideworks.data_load.io.Durability;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.OutputFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.DataLoad.createParquetWriterInstance;
+import static com.tideworks.data_load.io.OutputFile.nioPathToChannelOutputFile;
+import static com.tideworks.data_load.io.OutputFile.nioPathToOutputFile;
+
+/**
+ * Writes an uncompressed file (so the I/O is what is measured) through each of the
+ * OutputFile adapters and through Hadoop's LocalFileSystem, which also writes a checksum
+ * file alongside.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OutputFileBenchmark {
+  @Param({ "nio", "channel", "hadoop" })
+  public String adapter;
+
+  @Param({ "200000" })
+  public int rows;
+
+  private Path dir;
+  private Path file;
+  private Schema schema;
+  private List<GenericData.Record> records;
+  private Configuration conf;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = SyntheticDataset.createTempDir();
+    file = dir.resolve("output.parquet");
+    schema = SyntheticDataset.schema(10);
+    records = SyntheticDataset.records(schema, rows);
+    conf = new Configuration();
+  }
+
+  // the writers create their file, and some fail if it exists
+  @Setup(Level.Invocation)
+  public void deleteOutput() throws IOException {
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(file.resolveSibling("." + file.getFileName() + ".crc"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticDataset.deleteTempDir(dir);
+  }
+
+  @Benchmark
+  public long write() throws IOException {
+    final WriterSettings settings = WriterSettings.DEFAULT.withEncoding(CompressionCodecName.UNCOMPRESSED, false);
+    try (final ParquetWriter<GenericData.Record> writer = createParquetWriterInstance(schema, outputFile(),
+            settings))
+    {
+      for (final GenericData.Record record : records) {
+        writer.write(record);
+      }
+    }
+    return Files.size(file);
+  }
+
+  private OutputFile outputFile() throws IOException {
+    switch (adapter) {
+      case "nio":
+        return nioPathToOutputFile(file);
+      case "channel":
+        return nioPathToChannelOutputFile(file, Durability.NONE);
+      case "hadoop":
+        return HadoopOutputFile.fromPath(new org.apache.hadoop.fs.Path(file.toUri()), conf);
+      default:
+        throw new IllegalArgumentException("unknown adapter: " + adapter);
+    }
+  }
+}
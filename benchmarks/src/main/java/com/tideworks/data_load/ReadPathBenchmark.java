@@ -0,0 +1,103 @@
+/* ReadPathBenchmark.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a 16 column file as whole Avro records, as Avro records projected to two of its
+ * columns, and as those two columns in columnar batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReadPathBenchmark {
+  private static final int COLUMNS = 16;
+
+  @Param({ "200000" })
+  public int rows;
+
+  private Path dir;
+  private Path file;
+  private Schema projection;
+  private List<String> projectedColumns;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = SyntheticDataset.createTempDir();
+    final Schema schema = SyntheticDataset.schema(COLUMNS);
+    file = SyntheticDataset.write(schema, SyntheticDataset.records(schema, rows), dir.resolve("read.parquet"),
+            WriterSettings.DEFAULT);
+    // a long and a double column
+    projectedColumns = SyntheticDataset.columnNames(2);
+    final List<Schema.Field> fields = new ArrayList<>();
+    for (final String column : projectedColumns) {
+      final Schema.Field field = schema.getField(column);
+      fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()));
+    }
+    projection = Schema.createRecord(schema.getName(), null, schema.getNamespace(), false, fields);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticDataset.deleteTempDir(dir);
+  }
+
+  @Benchmark
+  public void recordRead(Blackhole blackhole) throws IOException {
+    try (final AvroRecordReader reader = AvroRecordReader.open(file)) {
+      for (GenericData.Record record; (record = reader.read()) != null; ) {
+        blackhole.consume(record);
+      }
+    }
+  }
+
+  @Benchmark
+  public void projectedRecordRead(Blackhole blackhole) throws IOException {
+    try (final AvroRecordReader reader = AvroRecordReader.open(file, projection, null)) {
+      for (GenericData.Record record; (record = reader.read()) != null; ) {
+        blackhole.consume(record);
+      }
+    }
+  }
+
+  @Benchmark
+  public void projectedColumnarRead(Blackhole blackhole) throws IOException {
+    try (final ColumnarBatchReader reader = ColumnarBatchReader.open(file, projectedColumns,
+            ColumnarBatchReader.DEFAULT_BATCH_SIZE))
+    {
+      for (int rowsRead; (rowsRead = reader.nextBatch()) > 0; ) {
+        blackhole.consume(rowsRead);
+        blackhole.consume(reader.getVectors());
+      }
+    }
+  }
+}
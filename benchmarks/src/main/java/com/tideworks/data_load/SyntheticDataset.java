@@ -0,0 +1,123 @@
+/* SyntheticDataset.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.ParquetWriter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.tideworks.data_load.DataLoad.createParquetWriterInstance;
+
+/**
+ * Reproducible datasets for the benchmarks: a flat schema of any number of nullable
+ * columns, named c0, c1, ..., whose types cycle through a sequential long, a double, a
+ * low-cardinality string, a random string and an int with nulls - and records for it
+ * drawn from a fixed seed, so every run (and every fork) measures the same bytes.
+ */
+final class SyntheticDataset {
+  static final long SEED = 20181017L;
+  private static final String[] TYPES = { "long", "double", "string", "string", "int" };
+  private static final String[] CATEGORIES = {
+          "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+          "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa"
+  };
+  private static final char[] ALPHANUM = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+  private SyntheticDataset() {}
+
+  static Schema schema(int columns) {
+    final StringBuilder json = new StringBuilder("{\"type\":\"record\",\"name\":\"synthetic\",")
+            .append("\"namespace\":\"com.tideworks.data_load\",\"fields\":[");
+    for (int i = 0; i < columns; i++) {
+      json.append(i > 0 ? "," : "")
+              .append(String.format("{\"name\":\"c%d\",\"type\":[\"null\",\"%s\"],\"default\":null}", i,
+                      TYPES[i % TYPES.length]));
+    }
+    return new Schema.Parser().parse(json.append("]}").toString());
+  }
+
+  static List<GenericData.Record> records(@Nonnull Schema schema, int count) {
+    final Random random = new Random(SEED);
+    final List<GenericData.Record> records = new ArrayList<>(count);
+    for (int row = 0; row < count; row++) {
+      final GenericData.Record record = new GenericData.Record(schema);
+      for (int i = 0; i < schema.getFields().size(); i++) {
+        switch (i % TYPES.length) {
+          case 0:
+            record.put(i, (long) row);
+            break;
+          case 1:
+            record.put(i, random.nextGaussian() * 1000);
+            break;
+          case 2:
+            record.put(i, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            break;
+          case 3:
+            record.put(i, randomString(random, 32));
+            break;
+          default:
+            record.put(i, random.nextInt(10) == 0 ? null : random.nextInt());
+        }
+      }
+      records.add(record);
+    }
+    return records;
+  }
+
+  /**
+   * Writes the records to a new Parquet file with the given settings.
+   */
+  static Path write(@Nonnull Schema schema, @Nonnull List<GenericData.Record> records, @Nonnull Path file,
+                    @Nonnull WriterSettings settings) throws IOException
+  {
+    Files.deleteIfExists(file);
+    try (final ParquetWriter<GenericData.Record> writer = createParquetWriterInstance(schema, file, settings)) {
+      for (final GenericData.Record record : records) {
+        writer.write(record);
+      }
+    }
+    return file;
+  }
+
+  static Path createTempDir() throws IOException {
+    return Files.createTempDirectory("avro2parquet-bench-");
+  }
+
+  static void deleteTempDir(Path dir) throws IOException {
+    if (dir == null || !Files.exists(dir)) return;
+    try (final Stream<Path> paths = Files.walk(dir)) {
+      for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    final char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = ALPHANUM[random.nextInt(ALPHANUM.length)];
+    }
+    return new String(chars);
+  }
+
+  static List<String> columnNames(int columns) {
+    final String[] names = new String[columns];
+    Arrays.setAll(names, i -> "c" + i);
+    return Arrays.asList(names);
+  }
+}
@@ -0,0 +1,86 @@
+/* WriterSettingsBenchmark.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput by codec, page size, row group size and dictionary encoding, through
+ * the same writer factory the conversions use. The size of the file each combination
+ * produces is printed at the end of its trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class WriterSettingsBenchmark {
+  @Param({ "UNCOMPRESSED", "SNAPPY", "GZIP" })
+  public CompressionCodecName codec;
+
+  @Param({ "65536", "1048576" })
+  public int pageSize;
+
+  @Param({ "8388608", "134217728" })
+  public int rowGroupSize;
+
+  @Param({ "false", "true" })
+  public boolean dictionary;
+
+  @Param({ "200000" })
+  public int rows;
+
+  private Path dir;
+  private Path file;
+  private Schema schema;
+  private List<GenericData.Record> records;
+  private WriterSettings settings;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = SyntheticDataset.createTempDir();
+    file = dir.resolve("settings.parquet");
+    schema = SyntheticDataset.schema(10);
+    records = SyntheticDataset.records(schema, rows);
+    settings = new WriterSettings(codec, dictionary, rowGroupSize, pageSize);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (Files.exists(file)) {
+      System.out.printf("%n%s: %d bytes%n", settings, Files.size(file));
+    }
+    SyntheticDataset.deleteTempDir(dir);
+  }
+
+  @Benchmark
+  public Path write() throws IOException {
+    return SyntheticDataset.write(schema, records, file, settings);
+  }
+}
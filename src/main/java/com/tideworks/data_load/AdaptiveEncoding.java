@@ -0,0 +1,271 @@
+/* AdaptiveEncoding.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.PositionOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.DataLoad.createParquetWriterInstance;
+
+/**
+ * Picks the codec and dictionary encoding of a dataset from a sample of its records:
+ * the sample is encoded in memory with each codec (UNCOMPRESSED, SNAPPY, GZIP), with
+ * dictionary encoding on and off, and the smallest output that was encoded at no less
+ * than a minimum throughput wins (the fastest, if none was). The measured sizes,
+ * ratios and throughputs are logged with the decision, as are the per-column sizes with
+ * and without dictionaries - the writer applies dictionary encoding file-wide, so the
+ * latter show which columns gain or lose by the choice.
+ * <p>
+ * A codec that cannot be loaded (e.g. SNAPPY without its native library) is skipped.
+ */
+final class AdaptiveEncoding {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveEncoding.class.getSimpleName());
+  static final int DEFAULT_SAMPLE_RECORDS = 10000;
+  private static final CompressionCodecName[] CODECS = {
+          CompressionCodecName.UNCOMPRESSED, CompressionCodecName.SNAPPY, CompressionCodecName.GZIP
+  };
+
+  /**
+   * How many records to sample and the encoding throughput the choice must reach.
+   */
+  static final class Target {
+    final int sampleRecords;
+    final double minMBPerSec;
+
+    /**
+     * @param minMBPerSec the least throughput, in MB of plain encoded data per second, or
+     *                    zero for the smallest output regardless of speed
+     */
+    Target(int sampleRecords, double minMBPerSec) {
+      if (sampleRecords <= 0 || minMBPerSec < 0) {
+        throw new IllegalArgumentException("sample size must be positive, minimum throughput not negative");
+      }
+      this.sampleRecords = sampleRecords;
+      this.minMBPerSec = minMBPerSec;
+    }
+  }
+
+  /**
+   * The outcome of encoding the sample with one combination of settings.
+   */
+  private static final class Trial {
+    final WriterSettings settings;
+    final long nanos;
+    final Map<String, Long> columnBytes = new LinkedHashMap<>();
+    long bytes = 0;
+    long plainBytes = 0; // uncompressed, as encoded without dictionaries
+
+    Trial(WriterSettings settings, long nanos, List<BlockMetaData> blocks) {
+      this.settings = settings;
+      this.nanos = nanos;
+      for (final BlockMetaData block : blocks) {
+        for (final ColumnChunkMetaData column : block.getColumns()) {
+          columnBytes.merge(column.getPath().toDotString(), column.getTotalSize(), Long::sum);
+          bytes += column.getTotalSize();
+        }
+      }
+    }
+
+    double mbPerSec() {
+      return nanos > 0 ? plainBytes * 1e9 / nanos / (1024 * 1024) : Double.MAX_VALUE;
+    }
+
+    double ratio() {
+      return bytes > 0 ? (double) plainBytes / bytes : 1;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s, dictionary %s: %d bytes, ratio %.2f, %.1f MB/s", settings.codec,
+              settings.dictionaryEncoding ? "on" : "off", bytes, ratio(), mbPerSec());
+    }
+  }
+
+  /**
+   * Hands on the records sampled from a source, then the rest of that source.
+   */
+  static final class SampledSink implements DataLoad.GenericDataRecordSink {
+    private final List<GenericData.Record> sample;
+    private final DataLoad.GenericDataRecordSink source;
+    private final boolean sourceEnded;
+    private boolean sampleDone = false;
+
+    private SampledSink(List<GenericData.Record> sample, DataLoad.GenericDataRecordSink source, boolean sourceEnded) {
+      this.sample = sample;
+      this.source = source;
+      this.sourceEnded = sourceEnded;
+    }
+
+    List<GenericData.Record> getSample() {
+      return sample;
+    }
+
+    @Override
+    public boolean accept(DataLoad.WriteGenericDataRecord writer) throws IOException {
+      if (sampleDone) return source.accept(writer);
+      sampleDone = true;
+      for (final GenericData.Record record : sample) {
+        writer.write(record);
+      }
+      return !sourceEnded;
+    }
+  }
+
+  private AdaptiveEncoding() {}
+
+  /**
+   * Takes (copies of) at least sampleRecords records from source, or all of them if it
+   * has fewer.
+   */
+  static SampledSink sample(@Nonnull Schema schema, @Nonnull DataLoad.GenericDataRecordSink source,
+                            int sampleRecords) throws IOException
+  {
+    final List<GenericData.Record> sample = new ArrayList<>(sampleRecords);
+    boolean more = true;
+    while (more && sample.size() < sampleRecords) {
+      more = source.accept(record -> sample.add(GenericData.get().deepCopy(schema, record)));
+    }
+    return new SampledSink(sample, source, !more);
+  }
+
+  /**
+   * @return base with the codec and dictionary encoding that best meet the target on the
+   * sample, or base as is if the sample is empty
+   */
+  static WriterSettings choose(@Nonnull Schema schema, @Nonnull List<GenericData.Record> sample,
+                               @Nonnull WriterSettings base, @Nonnull Target target) throws IOException
+  {
+    if (sample.isEmpty()) return base;
+    final long startTime = System.nanoTime();
+    // a first run to warm up the encoders, so the first trial timed is not also the slowest
+    encode(schema, sample, base.withEncoding(CompressionCodecName.UNCOMPRESSED, false));
+
+    final List<Trial> trials = new ArrayList<>();
+    for (final CompressionCodecName codec : CODECS) {
+      for (final boolean dictionary : new boolean[] { false, true }) {
+        try {
+          trials.add(encode(schema, sample, base.withEncoding(codec, dictionary)));
+        } catch (IOException|RuntimeException|LinkageError e) {
+          LOGGER.warn("{} skipped: {}", codec, e.toString());
+          break;
+        }
+      }
+    }
+    final Trial plain = find(trials, CompressionCodecName.UNCOMPRESSED, false);
+    trials.forEach(trial -> trial.plainBytes = plain != null ? plain.bytes : 0);
+
+    Trial chosen = null;
+    for (final Trial trial : trials) {
+      if (trial.mbPerSec() >= target.minMBPerSec && (chosen == null || trial.bytes < chosen.bytes)) {
+        chosen = trial;
+      }
+    }
+    if (chosen == null) {
+      for (final Trial trial : trials) {
+        if (chosen == null || trial.nanos < chosen.nanos) chosen = trial;
+      }
+      LOGGER.warn("no encoding reached {} MB/s on the sample - the fastest is used", target.minMBPerSec);
+    }
+    if (chosen == null) return base;
+
+    for (final Trial trial : trials) {
+      LOGGER.info("{}{}", trial == chosen ? "* " : "  ", trial);
+    }
+    final Trial withoutDictionary = find(trials, chosen.settings.codec, false);
+    final Trial withDictionary = find(trials, chosen.settings.codec, true);
+    if (withoutDictionary != null && withDictionary != null) {
+      withoutDictionary.columnBytes.forEach((column, bytes) -> {
+        final long dictionaryBytes = withDictionary.columnBytes.getOrDefault(column, 0L);
+        LOGGER.info("  column {}: {} bytes with dictionary, {} without{}", column, dictionaryBytes, bytes,
+                dictionaryBytes < bytes ? " - dictionary helps" : "");
+      });
+    }
+    final WriterSettings settings = chosen.settings;
+    LOGGER.info("chose {} from a sample of {} records in {} ms", settings, sample.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return settings;
+  }
+
+  private static Trial find(List<Trial> trials, CompressionCodecName codec, boolean dictionaryEncoding) {
+    return trials.stream()
+            .filter(trial -> trial.settings.codec == codec && trial.settings.dictionaryEncoding == dictionaryEncoding)
+            .findFirst().orElse(null);
+  }
+
+  private static Trial encode(Schema schema, List<GenericData.Record> sample, WriterSettings settings)
+          throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final ParquetWriter<GenericData.Record> writer = createParquetWriterInstance(schema, new DiscardingOutputFile(),
+            settings);
+    try {
+      for (final GenericData.Record record : sample) {
+        writer.write(record);
+      }
+    } finally {
+      writer.close();
+    }
+    return new Trial(settings, System.nanoTime() - startTime, writer.getFooter().getBlocks());
+  }
+
+  /**
+   * Counts the bytes written to it, and keeps none of them.
+   */
+  private static final class DiscardingOutputFile implements org.apache.parquet.io.OutputFile {
+    @Override
+    public PositionOutputStream create(long blockSizeHint) {
+      return new PositionOutputStream() {
+        private long position = 0;
+
+        @Override
+        public void write(int b) {
+          position++;
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) {
+          position += len;
+        }
+
+        @Override
+        public long getPos() {
+          return position;
+        }
+      };
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+      return create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+      return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/* AvroContainerReader.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.Codec;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an Avro object container file (.avro), decompressing and decoding its blocks on
+ * a pool of worker threads. A container file is a header followed by independent blocks,
+ * each framed by a record count, a byte size and the file's sync marker, so the blocks
+ * can be split off sequentially and handed out - which is all the reading thread does
+ * (see ParallelRecordDecoder). The decoded blocks are delivered in file order.
+ * <p>
+ * Avro's own DataFileStream decompresses on the reading thread and does not expose raw
+ * blocks, hence the container framing is parsed here.
+ */
+final class AvroContainerReader implements DataLoad.GenericDataRecordSink, Closeable {
+  private static final int IO_BUF_SIZE = 1024 * 1024;
+
+  private final Path avroFile;
+  private final InputStream input;
+  private final BinaryDecoder in;
+  private final Schema schema;
+  private final CodecFactory codecFactory;
+  private final byte[] sync = new byte[DataFileConstants.SYNC_SIZE];
+  private final byte[] blockSync = new byte[DataFileConstants.SYNC_SIZE];
+  private final ParallelRecordDecoder<RawBlock> decoder;
+  private long blockNo = 0;
+
+  private AvroContainerReader(Path avroFile, int decodeThreads) throws IOException {
+    this.avroFile = avroFile;
+    this.input = Files.newInputStream(avroFile);
+    try {
+      // buffered decoder - it reads ahead, but everything is read through it
+      this.in = new DecoderFactory().configureDecoderBufferSize(IO_BUF_SIZE).binaryDecoder(input, null);
+      final Map<String, byte[]> meta = readHeader();
+      final byte[] schemaBytes = meta.get(DataFileConstants.SCHEMA);
+      if (schemaBytes == null) {
+        throw new IOException("Avro container file has no schema: " + avroFile);
+      }
+      this.schema = new Schema.Parser().parse(new String(schemaBytes, StandardCharsets.UTF_8));
+      final byte[] codecBytes = meta.get(DataFileConstants.CODEC);
+      this.codecFactory = CodecFactory.fromString(codecBytes == null
+              ? DataFileConstants.NULL_CODEC
+              : new String(codecBytes, StandardCharsets.UTF_8));
+    } catch (IOException|RuntimeException e) {
+      input.close();
+      throw e;
+    }
+    this.decoder = new ParallelRecordDecoder<>(avroFile.getFileName().toString(), decodeThreads, this::readBlock,
+            () -> new BlockDecoder(schema, newCodec(codecFactory)));
+  }
+
+  static AvroContainerReader open(@Nonnull Path avroFile, int decodeThreads) throws IOException {
+    if (decodeThreads <= 0) {
+      throw new IllegalArgumentException("decode thread count must be positive: " + decodeThreads);
+    }
+    return new AvroContainerReader(avroFile, decodeThreads);
+  }
+
+  /**
+   * @return the writer's schema, as recorded in the container file header
+   */
+  Schema getSchema() {
+    return schema;
+  }
+
+  long getRecordCount() {
+    return decoder.getRecordCount();
+  }
+
+  /**
+   * Writes all of the records of the next block.
+   *
+   * @return false once every block has been delivered
+   */
+  @Override
+  public boolean accept(DataLoad.WriteGenericDataRecord writer) throws IOException {
+    return decoder.accept(writer);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      decoder.close();
+    } finally {
+      input.close();
+    }
+  }
+
+  private Map<String, byte[]> readHeader() throws IOException {
+    final byte[] magic = new byte[DataFileConstants.MAGIC.length];
+    in.readFixed(magic);
+    if (!Arrays.equals(magic, DataFileConstants.MAGIC)) {
+      throw new IOException("Not an Avro container file: " + avroFile);
+    }
+    final Map<String, byte[]> meta = new HashMap<>();
+    for (long count = in.readMapStart(); count > 0; count = in.mapNext()) {
+      for (long i = 0; i < count; i++) {
+        final String key = in.readString();
+        final ByteBuffer value = in.readBytes(null);
+        final byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        meta.put(key, bytes);
+      }
+    }
+    in.readFixed(sync);
+    return meta;
+  }
+
+  // runs on the reader thread: splits off the next raw block
+  private RawBlock readBlock() throws IOException {
+    if (in.isEnd()) return null;
+    final long count = in.readLong();
+    final long size = in.readLong();
+    if (count < 0 || size < 0 || size > Integer.MAX_VALUE) {
+      throw new IOException(String.format("%s: corrupt block %d (count=%d, size=%d)", avroFile, blockNo, count, size));
+    }
+    final byte[] block = new byte[(int) size];
+    in.readFixed(block);
+    in.readFixed(blockSync);
+    if (!Arrays.equals(sync, blockSync)) {
+      throw new IOException(String.format("%s: invalid sync marker after block %d", avroFile, blockNo));
+    }
+    blockNo++;
+    return new RawBlock(block, (int) count);
+  }
+
+  private static final class RawBlock {
+    final byte[] data;
+    final int count;
+
+    RawBlock(byte[] data, int count) {
+      this.data = data;
+      this.count = count;
+    }
+  }
+
+  private static final class BlockDecoder implements ParallelRecordDecoder.BatchDecoder<RawBlock> {
+    private final GenericDatumReader<GenericData.Record> datumReader;
+    private final Codec codec;
+    private BinaryDecoder decoder;
+
+    BlockDecoder(Schema schema, Codec codec) {
+      this.datumReader = new GenericDatumReader<>(schema);
+      this.codec = codec;
+    }
+
+    @Override
+    public List<GenericData.Record> decode(RawBlock block) throws IOException {
+      ByteBuffer data = codec.decompress(ByteBuffer.wrap(block.data));
+      if (!data.hasArray()) {
+        final ByteBuffer heapCopy = ByteBuffer.allocate(data.remaining());
+        heapCopy.put(data).flip();
+        data = heapCopy;
+      }
+      decoder = DecoderFactory.get().binaryDecoder(data.array(), data.arrayOffset() + data.position(),
+              data.remaining(), decoder);
+      final List<GenericData.Record> records = new ArrayList<>(block.count);
+      for (int i = 0; i < block.count; i++) {
+        records.add(datumReader.read(null, decoder));
+      }
+      return records;
+    }
+  }
+
+  // CodecFactory.createInstance() is protected, and a Codec instance is not thread-safe
+  private static Codec newCodec(CodecFactory codecFactory) {
+    try {
+      final Method createInstance = CodecFactory.class.getDeclaredMethod("createInstance");
+      createInstance.setAccessible(true);
+      return (Codec) createInstance.invoke(codecFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("cannot instantiate Avro codec " + codecFactory, e);
+    }
+  }
+}
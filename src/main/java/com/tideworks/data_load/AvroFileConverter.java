@@ -0,0 +1,65 @@
+/* AvroFileConverter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.DataLoad.writeRecordsToParquet;
+
+/**
+ * Converts Avro object container files (.avro) to Parquet, using the schema recorded in
+ * the Avro file. Blocks are decompressed and decoded on a pool of threads while the
+ * calling thread encodes Parquet (or, given more than one writer thread, hands records
+ * on to a ParallelParquetWriter).
+ */
+final class AvroFileConverter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AvroFileConverter.class.getSimpleName());
+  static final String USAGE = "avro <input.avro> <output.parquet | output-dir> [decode-threads [writer-threads]]";
+
+  /**
+   * Command line entry: input file, output file (or directory when more than one
+   * writer thread), decode thread count (default: available processors) and writer
+   * thread count (default: 1).
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final int decodeThreads = args.length > 2 ? Integer.parseUnsignedInt(args[2]) : cores;
+    final int writerThreads = args.length > 3 ? Integer.parseUnsignedInt(args[3]) : 1;
+    convert(Paths.get(args[0]), Paths.get(args[1]), decodeThreads, writerThreads);
+  }
+
+  /**
+   * @return the number of records converted
+   */
+  static long convert(@Nonnull final Path avroFile, @Nonnull final Path parquetPath, final int decodeThreads,
+                      final int writerThreads) throws IOException
+  {
+    final long startTime = System.nanoTime();
+    try (final AvroContainerReader reader = AvroContainerReader.open(avroFile, decodeThreads)) {
+      final Schema schema = reader.getSchema();
+      if (schema.getType() != Schema.Type.RECORD) {
+        throw new IOException(String.format("%s: top level schema must be a record, not %s", avroFile, schema.getType()));
+      }
+      final String baseName = avroFile.getFileName().toString().replaceFirst("\\.avro$", "");
+      writeRecordsToParquet(schema, parquetPath, baseName, writerThreads, reader);
+      LOGGER.info("converted {} records from \"{}\" to \"{}\" in {} ms", reader.getRecordCount(), avroFile,
+              parquetPath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      return reader.getRecordCount();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/* AvroRecordReader.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a Parquet file as Avro GenericData.Records, as AvroParquetReader does, but over
+ * a ParquetFileReader of an io.InputFile rather than a Hadoop file system. Optionally
+ * reads only a projection of the file's Avro schema and only the records matching a
+ * predicate - row groups the predicate rules out by their statistics or dictionaries
+ * are skipped.
+ */
+final class AvroRecordReader implements Closeable {
+  private final ParquetFileReader reader;
+  private final MessageType requestedSchema;
+  private final MessageColumnIO columnIO;
+  private final RecordMaterializer<GenericData.Record> materializer;
+  private final FilterCompat.Filter filter;
+  private RecordReader<GenericData.Record> records;
+  private long recordsLeftInGroup = 0;
+
+  private AvroRecordReader(ParquetFileReader reader, Configuration conf, FilterCompat.Filter filter) {
+    this.reader = reader;
+    this.filter = filter;
+    final FileMetaData fileMetaData = reader.getFooter().getFileMetaData();
+    final Map<String, Set<String>> keyValues = new HashMap<>();
+    fileMetaData.getKeyValueMetaData().forEach((key, value) -> keyValues.put(key, Collections.singleton(value)));
+    final ReadSupport<GenericData.Record> readSupport = new AvroReadSupport<>();
+    final ReadSupport.ReadContext context = readSupport.init(new InitContext(conf, keyValues, fileMetaData.getSchema()));
+    this.materializer = readSupport.prepareForRead(conf, fileMetaData.getKeyValueMetaData(), fileMetaData.getSchema(),
+            context);
+    this.requestedSchema = context.getRequestedSchema();
+    reader.setRequestedSchema(requestedSchema);
+    this.columnIO = new ColumnIOFactory(fileMetaData.getCreatedBy())
+            .getColumnIO(requestedSchema, fileMetaData.getSchema(), true);
+  }
+
+  static AvroRecordReader open(@Nonnull Path parquetFile) throws IOException {
+    return open(parquetFile, null, null);
+  }
+
+  /**
+   * @param projection the fields to read, or null for all of them
+   * @param predicate the records to read, or null for all of them
+   */
+  static AvroRecordReader open(@Nonnull Path parquetFile, @Nullable Schema projection,
+                               @Nullable FilterPredicate predicate) throws IOException
+  {
+    final Configuration conf = ParquetFooterCache.newConfiguration();
+    if (projection != null) {
+      AvroReadSupport.setRequestedProjection(conf, projection);
+      AvroReadSupport.setAvroReadSchema(conf, projection);
+    }
+    final FilterCompat.Filter filter = predicate != null ? FilterCompat.get(predicate) : FilterCompat.NOOP;
+    final InputFile input = RowGroupPrefetch.inputFile(parquetFile);
+    final ParquetFileReader reader = ParquetFileReader.open(input,
+            ParquetReadOptions.builder().withRecordFilter(filter).build());
+    try {
+      final AvroRecordReader recordReader = new AvroRecordReader(reader, conf, filter);
+      RowGroupPrefetch.start(input, reader, recordReader.requestedSchema);
+      return recordReader;
+    } catch (IOException|RuntimeException e) {
+      reader.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the row groups that will be read, those the predicate rules out excluded
+   */
+  List<BlockMetaData> getRowGroups() {
+    return reader.getRowGroups();
+  }
+
+  /**
+   * @return the next (matching) record, or null at the end of the file
+   */
+  GenericData.Record read() throws IOException {
+    for (;;) {
+      if (recordsLeftInGroup == 0) {
+        final PageReadStore rowGroup = reader.readNextRowGroup();
+        if (rowGroup == null) return null;
+        recordsLeftInGroup = rowGroup.getRowCount();
+        records = columnIO.getRecordReader(rowGroup, materializer, filter);
+        continue;
+      }
+      recordsLeftInGroup--;
+      final GenericData.Record record = records.read();
+      // a record the filter drops is read as null
+      if (record != null && !records.shouldSkipCurrentRecord()) {
+        PipelineMetrics.recordsRead(1);
+        return record;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,214 @@
+/* CheckpointedWriter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes a stream of records as a sequence of part files that a restart can resume
+ * from. Each part file is completed at a row group boundary once it reaches the part
+ * size (by default a row group's worth, so each part is one row group), forced to disk,
+ * and then recorded in a manifest along with the count of input records written so
+ * far. The manifest is the hidden file .baseName.checkpoint in the output directory, and
+ * is itself forced to disk and renamed into place, so it only ever names complete parts.
+ * <p>
+ * Run again after a failure, the records the manifest counts are read but dropped rather
+ * than encoded and written again, and writing carries on into new part files; parts
+ * left in progress by the failed run are deleted. A run that completed is not repeated.
+ * The checkpoint is a count of records rather than an offset into the input - the
+ * readers decode in parallel batches, so there is no one offset up to which records are
+ * written - and so resuming re-reads and re-decodes the whole converted prefix. It
+ * relies on the source producing the same records in the same order, so the same sort
+ * order (if any) must be given, and a source that relaxes its order is refused.
+ */
+final class CheckpointedWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointedWriter.class.getSimpleName());
+  static final String USAGE = "--checkpoint-mb=n writes resumable part files of about n MB. A rerun skips the"
+          + " records already written by count, not by input offset: it re-reads and re-decodes all of them,"
+          + " so the input must yield the same records in the same order (csv: ordered only; not with watch or stream)";
+  static final String MANIFEST_SUFFIX = ".checkpoint";
+  static final long DEFAULT_PART_BYTES = WriterSettings.DEFAULT.rowGroupSize;
+
+  /**
+   * The state of a conversion as of its last checkpoint.
+   */
+  static final class Manifest {
+    long records = 0;
+    final List<String> files = new ArrayList<>();
+    boolean complete = false;
+
+    static Manifest load(@Nonnull Path manifestFile) throws IOException {
+      final Manifest manifest = new Manifest();
+      if (!Files.exists(manifestFile)) return manifest;
+      final Properties properties = new Properties();
+      try (final InputStream in = Files.newInputStream(manifestFile)) {
+        properties.load(in);
+      }
+      manifest.records = Long.parseLong(properties.getProperty("records", "0"));
+      final String files = properties.getProperty("files", "");
+      for (final String file : files.split(",")) {
+        if (!file.isEmpty()) manifest.files.add(file);
+      }
+      manifest.complete = Boolean.parseBoolean(properties.getProperty("complete", "false"));
+      return manifest;
+    }
+
+    // written aside, forced to disk and renamed into place, so a crash leaves either
+    // the previous checkpoint or this one
+    void store(@Nonnull Path manifestFile) throws IOException {
+      final Properties properties = new Properties();
+      properties.setProperty("records", Long.toString(records));
+      properties.setProperty("files", String.join(",", files));
+      properties.setProperty("complete", Boolean.toString(complete));
+      final Path tempFile = manifestFile.resolveSibling(manifestFile.getFileName()
+              + RollingParquetWriter.IN_PROGRESS_SUFFIX);
+      try (final FileChannel channel = FileChannel.open(tempFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+        final OutputStream out = Channels.newOutputStream(channel);
+        properties.store(out, "conversion checkpoint");
+        out.flush();
+        channel.force(true);
+      }
+      try {
+        Files.move(tempFile, manifestFile, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+      forceDirectory(manifestFile.getParent());
+    }
+  }
+
+  /**
+   * Writes the records produced by sink to part files in outDir named after baseName,
+   * resuming from the checkpoint of an earlier run, if any. The parts are added to the
+   * _metadata summary of outDir as they are completed.
+   *
+   * @return the manifest of the completed conversion
+   */
+  static Manifest writeToParquet(@Nonnull final Schema schema,
+                                 @Nonnull final Path outDir,
+                                 @Nonnull final String baseName,
+                                 final long partBytes,
+                                 @Nonnull final WriterSettings settings,
+                                 @Nonnull final DataLoad.GenericDataRecordSink sink) throws IOException
+  {
+    if (partBytes <= 0) {
+      throw new IllegalArgumentException("part size must be positive: " + partBytes);
+    }
+    Files.createDirectories(outDir);
+    final Path manifestFile = outDir.resolve("." + baseName + MANIFEST_SUFFIX);
+    final Manifest manifest = Manifest.load(manifestFile);
+    if (manifest.complete) {
+      LOGGER.info("{}: already converted to {} files - delete \"{}\" to convert it again", baseName,
+              manifest.files.size(), manifestFile);
+      return manifest;
+    }
+    if (Files.exists(manifestFile)) {
+      deleteAbandonedParts(outDir, baseName, manifest);
+      DatasetSummary.update(outDir); // may have missed the last part recorded, or count one deleted
+    } else {
+      manifest.store(manifestFile); // from here on, a part not in the manifest is abandoned
+    }
+    final long recordsToSkip = manifest.records;
+    if (recordsToSkip > 0) {
+      LOGGER.info("{}: resuming after {} records already written to {} files", baseName, recordsToSkip,
+              manifest.files.size());
+    }
+
+    final RollingParquetWriter.PublishListener checkpoint = (file, footer) -> {
+      forceFile(file);
+      manifest.records += rowCount(footer);
+      manifest.files.add(file.getFileName().toString());
+      manifest.store(manifestFile);
+      DatasetSummary.add(file, footer);
+      LOGGER.debug("{}: checkpoint at {} records", baseName, manifest.records);
+    };
+    final RollingParquetWriter.Policy policy = new RollingParquetWriter.Policy().bySize(partBytes);
+    final long[] skipped = { 0 };
+    try (final RollingParquetWriter writer = new RollingParquetWriter(schema, outDir, baseName, policy, settings,
+            checkpoint))
+    {
+      final DataLoad.WriteGenericDataRecord resume = record -> {
+        if (skipped[0] < recordsToSkip) {
+          skipped[0]++;
+        } else {
+          writer.write(record);
+        }
+      };
+      //noinspection StatementWithEmptyBody
+      do ; while(sink.accept(resume));
+    }
+    if (skipped[0] < recordsToSkip) {
+      throw new IOException(String.format("%s: the input has %d records, the checkpoint counts %d written already",
+              baseName, skipped[0], recordsToSkip));
+    }
+    manifest.complete = true;
+    manifest.store(manifestFile);
+    LOGGER.info("{}: converted {} records to {} files", baseName, manifest.records, manifest.files.size());
+    return manifest;
+  }
+
+  private static long rowCount(ParquetMetadata footer) {
+    return footer.getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum();
+  }
+
+  // parts a failed run had in progress, or had completed but not yet recorded
+  private static void deleteAbandonedParts(Path outDir, String baseName, Manifest manifest) throws IOException {
+    // the names RollingParquetWriter gives: [.]baseName-millis-NNNNN.parquet[.inprogress]
+    final Pattern partName = Pattern.compile("\\.?" + Pattern.quote(baseName) + "-\\d+-\\d{5,}\\.parquet("
+            + Pattern.quote(RollingParquetWriter.IN_PROGRESS_SUFFIX) + ")?");
+    try (final DirectoryStream<Path> files = Files.newDirectoryStream(outDir)) {
+      for (final Path file : files) {
+        final String name = file.getFileName().toString();
+        if (partName.matcher(name).matches() && !manifest.files.contains(name)) {
+          LOGGER.info("deleting \"{}\", left by an earlier run after its last checkpoint", file);
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  private static void forceFile(Path file) throws IOException {
+    try (final FileChannel channel = FileChannel.open(file, WRITE)) {
+      channel.force(true);
+    }
+    forceDirectory(file.getParent()); // makes the rename into place durable too
+  }
+
+  // not possible on every platform (Windows), where the rename is left to the OS
+  private static void forceDirectory(Path dir) {
+    try (final FileChannel channel = FileChannel.open(dir, READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      LOGGER.debug("cannot force directory \"{}\": {}", dir, e.toString());
+    }
+  }
+}
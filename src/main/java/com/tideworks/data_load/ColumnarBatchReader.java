@@ -0,0 +1,639 @@
+/* ColumnarBatchReader.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.bytes.ByteBufferInputStream;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ValuesType;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the columns of a flat Parquet file in batches of rows, each column decoded
+ * straight from its pages into a reusable vector of primitive arrays - no record objects,
+ * no boxing and, for PLAIN and dictionary encoded pages, no allocation per value:
+ * <pre>
+ *   try (final ColumnarBatchReader reader = ColumnarBatchReader.open(file, Arrays.asList("c1"), 4096)) {
+ *     final ColumnarBatchReader.ColumnVector c1 = reader.getVector("c1");
+ *     for (int rows; (rows = reader.nextBatch()) &gt; 0; ) {
+ *       for (int i = 0; i &lt; rows; i++) if (!c1.isNull(i)) sum += c1.ints[i];
+ *     }
+ *   }
+ * </pre>
+ * PLAIN fixed width values are bulk copied from the page, dictionaries are decoded once
+ * per column chunk into arrays indexed by the dictionary ids of the page, and other
+ * encodings fall back to the Parquet values readers. Only the projected columns are read
+ * from the file. A batch does not span row groups, so it may hold fewer rows than the
+ * batch size. Nested and repeated columns are not supported.
+ */
+final class ColumnarBatchReader implements Closeable {
+  static final int DEFAULT_BATCH_SIZE = 4096;
+
+  enum Kind { INT, LONG, FLOAT, DOUBLE, BOOLEAN, BINARY }
+
+  /**
+   * The values of one column for the rows of the current batch, in the array of its
+   * kind: ints for INT32, longs for INT64, floats, doubles, booleans, and for binary
+   * columns (strings, enums, fixed) bytes, with value i at bytes[offsets[i]] up to
+   * bytes[offsets[i + 1]]. The value of a null row is undefined (an empty binary).
+   * Arrays are reused, and binary arrays may be replaced, from batch to batch.
+   */
+  static final class ColumnVector {
+    final String name;
+    final Kind kind;
+    int[] ints;
+    long[] longs;
+    float[] floats;
+    double[] doubles;
+    boolean[] booleans;
+    int[] offsets;
+    byte[] bytes;
+    private final long[] nulls;
+    private boolean noNulls = true;
+
+    private ColumnVector(String name, Kind kind, int batchSize) {
+      this.name = name;
+      this.kind = kind;
+      this.nulls = new long[(batchSize + 63) >>> 6];
+      switch (kind) {
+        case INT:     ints = new int[batchSize]; break;
+        case LONG:    longs = new long[batchSize]; break;
+        case FLOAT:   floats = new float[batchSize]; break;
+        case DOUBLE:  doubles = new double[batchSize]; break;
+        case BOOLEAN: booleans = new boolean[batchSize]; break;
+        default:
+          offsets = new int[batchSize + 1];
+          bytes = new byte[batchSize * 16];
+          break;
+      }
+    }
+
+    boolean isNull(int row) {
+      return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * @return whether no row of the batch is null, so a scan can skip isNull()
+     */
+    boolean noNulls() {
+      return noNulls;
+    }
+
+    /**
+     * @return the value of a binary column as a (newly allocated) UTF-8 decoded String
+     */
+    String getString(int row) {
+      return isNull(row) ? null : new String(bytes, offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+    }
+
+    private void reset() {
+      if (!noNulls) {
+        Arrays.fill(nulls, 0L);
+        noNulls = true;
+      }
+      if (offsets != null) offsets[0] = 0;
+    }
+
+    private void setNull(int row) {
+      nulls[row >>> 6] |= 1L << row;
+      noNulls = false;
+    }
+
+    private void ensureBytes(int capacity) {
+      if (capacity > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+      }
+    }
+  }
+
+  private final ParquetFileReader reader;
+  private final int batchSize;
+  private final List<ColumnVector> vectors;
+  private final ColumnCursor[] cursors;
+  private long rowsLeftInGroup = 0;
+
+  private ColumnarBatchReader(ParquetFileReader reader, MessageType projection, int batchSize) {
+    this.reader = reader;
+    this.batchSize = batchSize;
+    final List<ColumnDescriptor> columns = projection.getColumns();
+    this.vectors = new ArrayList<>(columns.size());
+    this.cursors = new ColumnCursor[columns.size()];
+    for (int i = 0; i < cursors.length; i++) {
+      final ColumnDescriptor column = columns.get(i);
+      final ColumnVector vector = new ColumnVector(String.join(".", column.getPath()), kindOf(column), batchSize);
+      vectors.add(vector);
+      cursors[i] = new ColumnCursor(column, vector);
+    }
+  }
+
+  /**
+   * @param columns the top-level fields to read, or null for all of them
+   */
+  static ColumnarBatchReader open(@Nonnull Path parquetFile, @Nullable List<String> columns, int batchSize)
+          throws IOException
+  {
+    return open(parquetFile, columns, batchSize, ParquetReadOptions.builder().build());
+  }
+
+  /**
+   * As open(Path, List, int), with the options of the underlying ParquetFileReader - e.g.
+   * to read only the row groups at certain offsets, or those a filter does not rule out.
+   */
+  static ColumnarBatchReader open(@Nonnull Path parquetFile, @Nullable List<String> columns, int batchSize,
+                                  @Nonnull ParquetReadOptions options) throws IOException
+  {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batch size must be positive: " + batchSize);
+    }
+    final InputFile input = RowGroupPrefetch.inputFile(parquetFile);
+    final ParquetFileReader reader = ParquetFileReader.open(input, options);
+    try {
+      final MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+      final MessageType projection;
+      if (columns != null) {
+        final List<Type> fields = new ArrayList<>(columns.size());
+        for (final String column : columns) {
+          if (!schema.containsField(column)) {
+            throw new IllegalArgumentException(String.format("%s has no column \"%s\"", parquetFile, column));
+          }
+          fields.add(schema.getType(column));
+        }
+        projection = new MessageType(schema.getName(), fields);
+      } else {
+        projection = schema;
+      }
+      for (final Type field : projection.getFields()) {
+        if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+          throw new UnsupportedOperationException(
+                  String.format("column \"%s\" of %s is not a flat primitive column", field.getName(), parquetFile));
+        }
+      }
+      reader.setRequestedSchema(projection);
+      RowGroupPrefetch.start(input, reader, projection);
+      return new ColumnarBatchReader(reader, projection, batchSize);
+    } catch (IOException|RuntimeException e) {
+      reader.close();
+      throw e;
+    }
+  }
+
+  List<ColumnVector> getVectors() {
+    return vectors;
+  }
+
+  ColumnVector getVector(@Nonnull String column) {
+    for (final ColumnVector vector : vectors) {
+      if (vector.name.equals(column)) return vector;
+    }
+    throw new IllegalArgumentException("no column \"" + column + "\" is read");
+  }
+
+  long getRecordCount() {
+    return reader.getRecordCount();
+  }
+
+  /**
+   * Decodes the next batch of rows into the column vectors.
+   *
+   * @return the number of rows in the batch, 0 at the end of the file
+   */
+  int nextBatch() throws IOException {
+    while (rowsLeftInGroup == 0) {
+      final PageReadStore rowGroup = reader.readNextRowGroup();
+      if (rowGroup == null) return 0;
+      rowsLeftInGroup = rowGroup.getRowCount();
+      for (final ColumnCursor cursor : cursors) {
+        cursor.startRowGroup(rowGroup.getPageReader(cursor.column));
+      }
+    }
+    final int rows = (int) Math.min(batchSize, rowsLeftInGroup);
+    for (final ColumnCursor cursor : cursors) {
+      cursor.read(rows);
+    }
+    rowsLeftInGroup -= rows;
+    PipelineMetrics.recordsRead(rows);
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private static Kind kindOf(ColumnDescriptor column) {
+    switch (column.getType()) {
+      case INT32:   return Kind.INT;
+      case INT64:   return Kind.LONG;
+      case FLOAT:   return Kind.FLOAT;
+      case DOUBLE:  return Kind.DOUBLE;
+      case BOOLEAN: return Kind.BOOLEAN;
+      default:      return Kind.BINARY;
+    }
+  }
+
+  /**
+   * The decoding state of one column: the page being read and the dictionary of its
+   * column chunk.
+   */
+  private static final class ColumnCursor {
+    private enum Mode { PLAIN, DICTIONARY, VALUES_READER }
+
+    private final ColumnDescriptor column;
+    private final ColumnVector vector;
+    private final int maxDefinitionLevel;
+    private final int fixedLength; // of a PLAIN binary value, or -1 when length prefixed
+    private PageReader pages;
+    private Dictionary dictionary;
+    // the dictionary decoded to the array of the column's kind
+    private int[] dictInts;
+    private long[] dictLongs;
+    private float[] dictFloats;
+    private double[] dictDoubles;
+    private boolean[] dictBooleans;
+    private int[] dictOffsets;
+    private byte[] dictBytes;
+    // the page being read
+    private int valuesLeftInPage = 0;
+    private final LevelDecoder levelDecoder;
+    private ValuesReader levels; // of a V1 page with BIT_PACKED levels
+    private Mode mode;
+    private ValuesReader values;
+    private ByteBuffer plain;
+    private IntBuffer plainInts;
+    private LongBuffer plainLongs;
+    private FloatBuffer plainFloats;
+    private DoubleBuffer plainDoubles;
+
+    private ColumnCursor(ColumnDescriptor column, ColumnVector vector) {
+      this.column = column;
+      this.vector = vector;
+      this.maxDefinitionLevel = column.getMaxDefinitionLevel();
+      this.levelDecoder = new LevelDecoder(maxDefinitionLevel);
+      switch (column.getType()) {
+        case FIXED_LEN_BYTE_ARRAY: fixedLength = column.getTypeLength(); break;
+        case INT96:                fixedLength = 12; break;
+        default:                   fixedLength = -1; break;
+      }
+    }
+
+    private void startRowGroup(PageReader pageReader) throws IOException {
+      pages = pageReader;
+      valuesLeftInPage = 0;
+      final DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+      dictionary = dictionaryPage != null ? dictionaryPage.getEncoding().initDictionary(column, dictionaryPage) : null;
+      if (dictionary == null) return;
+      final int size = dictionary.getMaxId() + 1;
+      switch (vector.kind) {
+        case INT:
+          dictInts = new int[size];
+          for (int id = 0; id < size; id++) dictInts[id] = dictionary.decodeToInt(id);
+          break;
+        case LONG:
+          dictLongs = new long[size];
+          for (int id = 0; id < size; id++) dictLongs[id] = dictionary.decodeToLong(id);
+          break;
+        case FLOAT:
+          dictFloats = new float[size];
+          for (int id = 0; id < size; id++) dictFloats[id] = dictionary.decodeToFloat(id);
+          break;
+        case DOUBLE:
+          dictDoubles = new double[size];
+          for (int id = 0; id < size; id++) dictDoubles[id] = dictionary.decodeToDouble(id);
+          break;
+        case BOOLEAN:
+          dictBooleans = new boolean[size];
+          for (int id = 0; id < size; id++) dictBooleans[id] = dictionary.decodeToBoolean(id);
+          break;
+        default:
+          dictOffsets = new int[size + 1];
+          int length = 0;
+          for (int id = 0; id < size; id++) length += dictionary.decodeToBinary(id).length();
+          dictBytes = new byte[length];
+          for (int id = 0; id < size; id++) {
+            final Binary value = dictionary.decodeToBinary(id);
+            value.toByteBuffer().get(dictBytes, dictOffsets[id], value.length());
+            dictOffsets[id + 1] = dictOffsets[id] + value.length();
+          }
+          break;
+      }
+    }
+
+    private void nextPage() throws IOException {
+      final DataPage page = pages.readPage();
+      if (page == null) {
+        throw new IOException(String.format("column chunk \"%s\" ended before its row group", vector.name));
+      }
+      final int valueCount = page.getValueCount();
+      valuesLeftInPage = valueCount;
+      if (page instanceof DataPageV1) {
+        final DataPageV1 pageV1 = (DataPageV1) page;
+        final ByteBufferInputStream in = pageV1.getBytes().toInputStream();
+        pageV1.getRlEncoding().getValuesReader(column, ValuesType.REPETITION_LEVEL).initFromPage(valueCount, in);
+        if (maxDefinitionLevel == 0) {
+          levels = null;
+        } else if (pageV1.getDlEncoding() == Encoding.RLE) {
+          levels = null;
+          levelDecoder.start(in.slice(BytesUtils.readIntLittleEndian(in)));
+        } else {
+          levels = pageV1.getDlEncoding().getValuesReader(column, ValuesType.DEFINITION_LEVEL);
+          levels.initFromPage(valueCount, in);
+        }
+        startValues(pageV1.getValueEncoding(), valueCount, in);
+      } else {
+        final DataPageV2 pageV2 = (DataPageV2) page;
+        levels = null;
+        if (maxDefinitionLevel > 0) {
+          final ByteBufferInputStream in = pageV2.getDefinitionLevels().toInputStream();
+          levelDecoder.start(in.slice(in.available()));
+        }
+        startValues(pageV2.getDataEncoding(), valueCount, pageV2.getData().toInputStream());
+      }
+    }
+
+    private void startValues(Encoding encoding, int valueCount, ByteBufferInputStream in) throws IOException {
+      if (encoding.usesDictionary()) {
+        if (dictionary == null) {
+          throw new IOException(String.format("column chunk \"%s\" has dictionary encoded pages but no dictionary",
+                  vector.name));
+        }
+        mode = Mode.DICTIONARY;
+        values = encoding.getDictionaryBasedValuesReader(column, ValuesType.VALUES, dictionary);
+        values.initFromPage(valueCount, in);
+      } else if (encoding == Encoding.PLAIN && vector.kind != Kind.BOOLEAN) {
+        mode = Mode.PLAIN;
+        plain = in.slice(in.available()).order(ByteOrder.LITTLE_ENDIAN);
+        switch (vector.kind) {
+          case INT:    plainInts = plain.asIntBuffer(); break;
+          case LONG:   plainLongs = plain.asLongBuffer(); break;
+          case FLOAT:  plainFloats = plain.asFloatBuffer(); break;
+          case DOUBLE: plainDoubles = plain.asDoubleBuffer(); break;
+          default:     break;
+        }
+      } else {
+        mode = Mode.VALUES_READER;
+        values = encoding.getValuesReader(column, ValuesType.VALUES);
+        values.initFromPage(valueCount, in);
+      }
+    }
+
+    /**
+     * Marks the rows whose definition level is below the maximum as null.
+     *
+     * @return the number of rows that are not null
+     */
+    private int readLevels(int row, int count) throws IOException {
+      if (maxDefinitionLevel == 0) return count;
+      if (levels == null) return levelDecoder.readNulls(vector, row, count);
+      int defined = count;
+      for (int i = row; i < row + count; i++) {
+        if (levels.readInteger() != maxDefinitionLevel) {
+          vector.setNull(i);
+          defined--;
+        }
+      }
+      return defined;
+    }
+
+    private void read(int rows) throws IOException {
+      vector.reset();
+      int row = 0;
+      while (row < rows) {
+        if (valuesLeftInPage == 0) nextPage();
+        final int count = Math.min(valuesLeftInPage, rows - row);
+        if (vector.kind == Kind.BINARY || vector.kind == Kind.BOOLEAN) {
+          readRows(row, count);
+        } else {
+          readFixedWidth(row, count);
+        }
+        valuesLeftInPage -= count;
+        row += count;
+      }
+    }
+
+    /**
+     * Decodes the non-null values of the rows densely, then spreads them out over the
+     * null rows.
+     */
+    private void readFixedWidth(int row, int count) throws IOException {
+      final int defined = readLevels(row, count);
+      switch (vector.kind) {
+        case INT: {
+          final int[] dst = vector.ints;
+          if (mode == Mode.PLAIN) {
+            plainInts.get(dst, row, defined);
+          } else if (mode == Mode.DICTIONARY) {
+            for (int i = row; i < row + defined; i++) dst[i] = dictInts[values.readValueDictionaryId()];
+          } else {
+            for (int i = row; i < row + defined; i++) dst[i] = values.readInteger();
+          }
+          if (defined < count) {
+            for (int i = row + count - 1, j = row + defined - 1; j < i; i--) {
+              if (!vector.isNull(i)) dst[i] = dst[j--];
+            }
+          }
+          break;
+        }
+        case LONG: {
+          final long[] dst = vector.longs;
+          if (mode == Mode.PLAIN) {
+            plainLongs.get(dst, row, defined);
+          } else if (mode == Mode.DICTIONARY) {
+            for (int i = row; i < row + defined; i++) dst[i] = dictLongs[values.readValueDictionaryId()];
+          } else {
+            for (int i = row; i < row + defined; i++) dst[i] = values.readLong();
+          }
+          if (defined < count) {
+            for (int i = row + count - 1, j = row + defined - 1; j < i; i--) {
+              if (!vector.isNull(i)) dst[i] = dst[j--];
+            }
+          }
+          break;
+        }
+        case FLOAT: {
+          final float[] dst = vector.floats;
+          if (mode == Mode.PLAIN) {
+            plainFloats.get(dst, row, defined);
+          } else if (mode == Mode.DICTIONARY) {
+            for (int i = row; i < row + defined; i++) dst[i] = dictFloats[values.readValueDictionaryId()];
+          } else {
+            for (int i = row; i < row + defined; i++) dst[i] = values.readFloat();
+          }
+          if (defined < count) {
+            for (int i = row + count - 1, j = row + defined - 1; j < i; i--) {
+              if (!vector.isNull(i)) dst[i] = dst[j--];
+            }
+          }
+          break;
+        }
+        default: {
+          final double[] dst = vector.doubles;
+          if (mode == Mode.PLAIN) {
+            plainDoubles.get(dst, row, defined);
+          } else if (mode == Mode.DICTIONARY) {
+            for (int i = row; i < row + defined; i++) dst[i] = dictDoubles[values.readValueDictionaryId()];
+          } else {
+            for (int i = row; i < row + defined; i++) dst[i] = values.readDouble();
+          }
+          if (defined < count) {
+            for (int i = row + count - 1, j = row + defined - 1; j < i; i--) {
+              if (!vector.isNull(i)) dst[i] = dst[j--];
+            }
+          }
+          break;
+        }
+      }
+    }
+
+    /**
+     * Decodes binary and boolean values row by row.
+     */
+    private void readRows(int row, int count) throws IOException {
+      readLevels(row, count);
+      for (int i = row; i < row + count; i++) {
+        final boolean isNull = vector.isNull(i);
+        if (vector.kind == Kind.BOOLEAN) {
+          if (!isNull) {
+            vector.booleans[i] = mode == Mode.DICTIONARY
+                    ? dictBooleans[values.readValueDictionaryId()]
+                    : values.readBoolean();
+          }
+          continue;
+        }
+        final int start = vector.offsets[i];
+        if (isNull) {
+          vector.offsets[i + 1] = start;
+        } else if (mode == Mode.PLAIN) {
+          final int length = fixedLength >= 0 ? fixedLength : plain.getInt();
+          vector.ensureBytes(start + length);
+          plain.get(vector.bytes, start, length);
+          vector.offsets[i + 1] = start + length;
+        } else if (mode == Mode.DICTIONARY) {
+          final int id = values.readValueDictionaryId();
+          final int length = dictOffsets[id + 1] - dictOffsets[id];
+          vector.ensureBytes(start + length);
+          System.arraycopy(dictBytes, dictOffsets[id], vector.bytes, start, length);
+          vector.offsets[i + 1] = start + length;
+        } else {
+          final Binary value = values.readBytes();
+          vector.ensureBytes(start + value.length());
+          value.toByteBuffer().get(vector.bytes, start, value.length());
+          vector.offsets[i + 1] = start + value.length();
+        }
+      }
+    }
+  }
+
+  /**
+   * Decodes RLE / bit-packed hybrid encoded definition levels a run at a time, so the
+   * long runs of non-null (or null) rows typical of real data cost next to nothing.
+   */
+  private static final class LevelDecoder {
+    private final int maxLevel;
+    private final int bitWidth;
+    private final int mask;
+    private ByteBuffer in;
+    private int runLeft = 0;
+    private boolean packed;
+    private int runLevel;
+    private int bits;
+    private int bitCount;
+
+    private LevelDecoder(int maxLevel) {
+      this.maxLevel = maxLevel;
+      this.bitWidth = BytesUtils.getWidthFromMaxInt(maxLevel);
+      this.mask = (1 << bitWidth) - 1;
+    }
+
+    private void start(ByteBuffer levels) {
+      in = levels;
+      runLeft = 0;
+    }
+
+    private int readNulls(ColumnVector vector, int row, int count) throws IOException {
+      int defined = count;
+      final int end = row + count;
+      while (row < end) {
+        if (runLeft == 0) nextRun();
+        final int n = Math.min(runLeft, end - row);
+        if (!packed) {
+          if (runLevel != maxLevel) {
+            for (int i = row; i < row + n; i++) vector.setNull(i);
+            defined -= n;
+          }
+        } else {
+          for (int i = row; i < row + n; i++) {
+            while (bitCount < bitWidth) {
+              bits |= (in.get() & 0xFF) << bitCount;
+              bitCount += 8;
+            }
+            if ((bits & mask) != maxLevel) {
+              vector.setNull(i);
+              defined--;
+            }
+            bits >>>= bitWidth;
+            bitCount -= bitWidth;
+          }
+        }
+        runLeft -= n;
+        row += n;
+      }
+      return defined;
+    }
+
+    private void nextRun() throws IOException {
+      if (!in.hasRemaining()) {
+        throw new IOException("definition levels ended before the values of their page");
+      }
+      int header = 0;
+      for (int shift = 0; ; shift += 7) {
+        final int b = in.get();
+        header |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) break;
+      }
+      packed = (header & 1) != 0;
+      if (packed) {
+        runLeft = (header >>> 1) * 8;
+        bits = 0;
+        bitCount = 0;
+      } else {
+        runLeft = header >>> 1;
+        runLevel = 0;
+        for (int i = 0; i < (bitWidth + 7) / 8; i++) runLevel |= (in.get() & 0xFF) << (i * 8);
+      }
+    }
+  }
+}
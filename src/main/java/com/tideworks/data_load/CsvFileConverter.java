@@ -0,0 +1,80 @@
+/* CsvFileConverter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.DataLoad.writeRecordsToParquet;
+
+/**
+ * Converts CSV files to Parquet, typing the values by an Avro schema. The file is cut
+ * into line aligned byte ranges that are parsed on a pool of threads (see CsvReader),
+ * while the calling thread encodes Parquet (or, given more than one writer thread, hands
+ * records on to a ParallelParquetWriter).
+ */
+final class CsvFileConverter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CsvFileConverter.class.getSimpleName());
+  static final String USAGE =
+          "csv <input.csv> <output.parquet | output-dir> [schema [parse-threads [writer-threads [ordered|unordered]]]]";
+
+  /**
+   * Command line entry: input file, output file (or directory when more than one
+   * writer thread), schema - an .avsc file, else a resource as loaded by
+   * DataLoad.loadSchema() (default: the sample schema) - parse thread count (default:
+   * available processors), writer thread count (default: 1) and whether the file order
+   * of the records is kept (default: ordered).
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final Schema schema = DataLoad.loadSchema(args.length > 2 ? args[2] : DataLoad.SCHEMA_FILE_NAME);
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final int parseThreads = args.length > 3 ? Integer.parseUnsignedInt(args[3]) : cores;
+    final int writerThreads = args.length > 4 ? Integer.parseUnsignedInt(args[4]) : 1;
+    final boolean ordered;
+    switch (args.length > 5 ? args[5] : "ordered") {
+      case "ordered":
+        ordered = true;
+        break;
+      case "unordered":
+        ordered = false;
+        break;
+      default:
+        throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    if (!ordered && DataLoad.isCheckpointing()) {
+      // a resumed run skips records by count, which only works if they come in the same order
+      throw new IllegalArgumentException("--checkpoint-mb cannot resume an unordered conversion - use ordered");
+    }
+    convert(Paths.get(args[0]), Paths.get(args[1]), schema, parseThreads, writerThreads, ordered);
+  }
+
+  /**
+   * @return the number of records converted
+   */
+  static long convert(@Nonnull final Path csvFile, @Nonnull final Path parquetPath, @Nonnull final Schema schema,
+                      final int parseThreads, final int writerThreads, final boolean ordered) throws IOException
+  {
+    final long startTime = System.nanoTime();
+    try (final CsvReader reader = CsvReader.open(csvFile, schema, parseThreads, ordered)) {
+      final String baseName = csvFile.getFileName().toString().replaceFirst("\\.csv$", "");
+      writeRecordsToParquet(schema, parquetPath, baseName, writerThreads, reader);
+      LOGGER.info("converted {} records from \"{}\" to \"{}\" in {} ms", reader.getRecordCount(), csvFile,
+              parquetPath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      return reader.getRecordCount();
+    }
+  }
+}
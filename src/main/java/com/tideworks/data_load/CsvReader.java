@@ -0,0 +1,433 @@
+/* CsvReader.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.util.Utf8;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads a CSV file into records of a given Avro schema, parsing on a pool of threads.
+ * The reading thread merely cuts the file into byte ranges ending on line boundaries;
+ * each decoder thread reads its range with positional reads on a shared channel and
+ * parses it straight from the bytes - numbers are converted without an intermediate
+ * String and strings become Avro Utf8 (which the Parquet writer takes as is, without
+ * re-encoding). Records are delivered in file order, or as ranges complete when order
+ * is relaxed (see ParallelRecordDecoder).
+ * <p>
+ * Values are comma separated and may be quoted ("" for a quote within); a quoted value
+ * cannot span lines. If every column of the first line names a field of the schema, the
+ * line is a header and columns map to fields by name, otherwise by position. Missing and
+ * empty (unquoted) values are null; the field types supported are the primitive types
+ * other than bytes, plus enums, and their unions with null.
+ */
+final class CsvReader implements DataLoad.GenericDataRecordSink, Closeable {
+  static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+  private static final int SCAN_SIZE = 8 * 1024; // read size when looking for a line boundary
+  private static final byte DELIMITER = ',';
+  private static final byte QUOTE = '"';
+
+  private final Path csvFile;
+  private final FileChannel channel;
+  private final long length;
+  private final int chunkSize;
+  private final Schema schema;
+  private final Schema[] fieldTypes;   // non-null type of each field
+  private final boolean[] nullable;
+  private final int[] columnFields;    // field position of each column
+  private final ParallelRecordDecoder<Range> decoder;
+  private long nextRangeStart;
+
+  private CsvReader(Path csvFile, Schema schema, int parseThreads, boolean ordered, int chunkSize) throws IOException {
+    this.csvFile = csvFile;
+    this.channel = FileChannel.open(csvFile, READ);
+    try {
+      this.length = channel.size();
+      this.chunkSize = chunkSize;
+      this.schema = schema;
+      final List<Schema.Field> fields = schema.getFields();
+      this.fieldTypes = new Schema[fields.size()];
+      this.nullable = new boolean[fields.size()];
+      for (final Schema.Field field : fields) {
+        resolveType(field);
+      }
+      final int[] headerFields = readHeader();
+      if (headerFields != null) {
+        this.columnFields = headerFields;
+      } else {
+        this.columnFields = new int[fields.size()];
+        Arrays.setAll(columnFields, i -> i);
+      }
+      for (final Schema.Field field : fields) {
+        if (!nullable[field.pos()] && Arrays.stream(columnFields).noneMatch(column -> column == field.pos())) {
+          throw new IllegalArgumentException(String.format("%s: no column for non-null field \"%s\"", csvFile,
+                  field.name()));
+        }
+      }
+    } catch (IOException|RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    this.decoder = new ParallelRecordDecoder<>(csvFile.getFileName().toString(), parseThreads, ordered,
+            this::nextRange, RangeParser::new);
+  }
+
+  static CsvReader open(@Nonnull Path csvFile, @Nonnull Schema schema, int parseThreads, boolean ordered)
+          throws IOException
+  {
+    return open(csvFile, schema, parseThreads, ordered, DEFAULT_CHUNK_SIZE);
+  }
+
+  static CsvReader open(@Nonnull Path csvFile, @Nonnull Schema schema, int parseThreads, boolean ordered,
+                        int chunkSize) throws IOException
+  {
+    if (parseThreads <= 0 || chunkSize <= 0) {
+      throw new IllegalArgumentException("parse thread count and chunk size must be positive");
+    }
+    if (schema.getType() != Schema.Type.RECORD) {
+      throw new IllegalArgumentException("schema must be a record, not " + schema.getType());
+    }
+    return new CsvReader(csvFile, schema, parseThreads, ordered, chunkSize);
+  }
+
+  long getRecordCount() {
+    return decoder.getRecordCount();
+  }
+
+  /**
+   * Writes all of the records of the next range of lines.
+   *
+   * @return false once every line has been delivered
+   */
+  @Override
+  public boolean accept(DataLoad.WriteGenericDataRecord writer) throws IOException {
+    return decoder.accept(writer);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      decoder.close();
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void resolveType(Schema.Field field) {
+    Schema type = field.schema();
+    if (type.getType() == Schema.Type.UNION) {
+      final List<Schema> types = type.getTypes();
+      if (types.size() != 2 || !types.contains(Schema.create(Schema.Type.NULL))) {
+        throw new IllegalArgumentException(String.format("field \"%s\": only unions with null are supported", field.name()));
+      }
+      type = types.get(types.get(0).getType() == Schema.Type.NULL ? 1 : 0);
+      nullable[field.pos()] = true;
+    }
+    switch (type.getType()) {
+      case STRING: case ENUM: case INT: case LONG: case FLOAT: case DOUBLE: case BOOLEAN:
+        fieldTypes[field.pos()] = type;
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("field \"%s\": type %s is not supported", field.name(),
+                type.getType()));
+    }
+  }
+
+  // a header maps each column to the (case insensitively) same named field
+  private int[] readHeader() throws IOException {
+    final long end = lineEnd(0);
+    final byte[] line = new byte[(int) Math.min(end, Integer.MAX_VALUE)];
+    readFully(ByteBuffer.wrap(line), 0);
+    final List<String> columns = new ArrayList<>();
+    final LineScanner scanner = new LineScanner().reset(line, 0, trimLineBreak(line, 0, line.length));
+    while (scanner.nextValue()) {
+      columns.add(new String(scanner.value(), scanner.valueStart, scanner.valueLength, StandardCharsets.UTF_8).trim());
+    }
+    final int[] header = new int[columns.size()];
+    for (int i = 0; i < header.length; i++) {
+      final int column = i;
+      header[i] = schema.getFields().stream()
+              .filter(field -> field.name().equalsIgnoreCase(columns.get(column)))
+              .mapToInt(Schema.Field::pos)
+              .findFirst().orElse(-1);
+      if (header[i] < 0) return null;
+    }
+    nextRangeStart = end;
+    return header;
+  }
+
+  // runs on the reader thread: the next range of whole lines, about chunkSize long
+  private Range nextRange() throws IOException {
+    if (nextRangeStart >= length) return null;
+    final long start = nextRangeStart;
+    final long end = start + chunkSize >= length ? length : lineEnd(start + chunkSize - 1);
+    if (end - start > Integer.MAX_VALUE) {
+      throw new IOException(String.format("%s: line at offset %d is too long", csvFile, start));
+    }
+    nextRangeStart = end;
+    return new Range(start, (int) (end - start));
+  }
+
+  // offset just past the line break at or after from, or the file length
+  private long lineEnd(long from) throws IOException {
+    final ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+    for (long pos = from; pos < length; pos += scan.limit()) {
+      scan.clear();
+      if (channel.read(scan, pos) < 0) break;
+      scan.flip();
+      for (int i = 0; i < scan.limit(); i++) {
+        if (scan.get(i) == '\n') return pos + i + 1;
+      }
+    }
+    return length;
+  }
+
+  private void readFully(ByteBuffer buf, long position) throws IOException {
+    while (buf.hasRemaining()) {
+      final int n = channel.read(buf, position);
+      if (n < 0) throw new EOFException(csvFile + ": unexpected end of file");
+      position += n;
+    }
+  }
+
+  private static int trimLineBreak(byte[] data, int from, int end) {
+    if (end > from && data[end - 1] == '\n') end--;
+    if (end > from && data[end - 1] == '\r') end--;
+    return end;
+  }
+
+  private static final class Range {
+    final long start;
+    final int length;
+
+    Range(long start, int length) {
+      this.start = start;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Splits a line into values, unquoting in place. A quoted value is copied to a scratch
+   * buffer only when it contains escaped quotes. A scanner is reset for each line, so its
+   * scratch buffer is allocated once per thread, not per line.
+   */
+  private static final class LineScanner {
+    private byte[] data;
+    private int end;
+    private int pos;
+    private boolean pastLastValue;
+    private byte[] scratch = new byte[64];
+    private byte[] valueData;
+    int valueStart;
+    int valueLength;
+    boolean quoted;
+
+    LineScanner reset(byte[] data, int from, int end) {
+      this.data = data;
+      this.pos = from;
+      this.end = end;
+      this.pastLastValue = false;
+      this.valueData = null;
+      return this;
+    }
+
+    byte[] value() {
+      return valueData;
+    }
+
+    boolean nextValue() throws IOException {
+      if (pastLastValue) return false;
+      quoted = pos < end && data[pos] == QUOTE;
+      if (!quoted) {
+        valueData = data;
+        valueStart = pos;
+        while (pos < end && data[pos] != DELIMITER) pos++;
+        valueLength = pos - valueStart;
+      } else {
+        scanQuoted();
+      }
+      if (pos < end) {
+        pos++; // past the delimiter
+      } else {
+        pastLastValue = true;
+      }
+      return true;
+    }
+
+    private void scanQuoted() throws IOException {
+      final int start = ++pos;   // past the opening quote
+      int len = 0;               // of the unquoted value
+      boolean escaped = false;   // once a "" is seen the value is gathered in scratch
+      for(;;) {
+        if (pos >= end) throw new IOException("unterminated quoted value");
+        final byte b = data[pos++];
+        if (b == QUOTE) {
+          if (pos == end || data[pos] != QUOTE) break; // the closing quote
+          if (!escaped) {
+            escaped = true;
+            ensureScratch(len + 1);
+            System.arraycopy(data, start, scratch, 0, len);
+          }
+          pos++;
+        }
+        if (escaped) {
+          ensureScratch(len + 1);
+          scratch[len] = b;
+        }
+        len++;
+      }
+      if (pos < end && data[pos] != DELIMITER) throw new IOException("unexpected text after quoted value");
+      valueData = escaped ? scratch : data;
+      valueStart = escaped ? 0 : start;
+      valueLength = len;
+    }
+
+    private void ensureScratch(int size) {
+      if (scratch.length < size) scratch = Arrays.copyOf(scratch, Math.max(size, 2 * scratch.length));
+    }
+  }
+
+  // one per decoder thread, reusing its read buffer from range to range and its line
+  // scanner from line to line
+  private final class RangeParser implements ParallelRecordDecoder.BatchDecoder<Range> {
+    private final LineScanner lineScanner = new LineScanner();
+    private byte[] buf = new byte[0];
+
+    @Override
+    public List<GenericData.Record> decode(Range range) throws IOException {
+      if (buf.length < range.length) {
+        buf = new byte[Math.max(range.length, chunkSize)];
+      }
+      readFully(ByteBuffer.wrap(buf, 0, range.length), range.start);
+      final List<GenericData.Record> records = new ArrayList<>();
+      int lineStart = 0;
+      while (lineStart < range.length) {
+        int lineEnd = lineStart;
+        while (lineEnd < range.length && buf[lineEnd] != '\n') lineEnd++;
+        final int next = Math.min(lineEnd + 1, range.length);
+        final int end = trimLineBreak(buf, lineStart, lineEnd);
+        if (end > lineStart) {
+          try {
+            records.add(parseLine(lineStart, end));
+          } catch (IOException|RuntimeException e) {
+            throw new IOException(String.format("%s: line at offset %d: %s", csvFile, range.start + lineStart,
+                    e.getMessage()), e);
+          }
+        }
+        lineStart = next;
+      }
+      return records;
+    }
+
+    private GenericData.Record parseLine(int from, int end) throws IOException {
+      final GenericData.Record record = new GenericData.Record(schema);
+      final LineScanner scanner = lineScanner.reset(buf, from, end);
+      int column = 0;
+      while (scanner.nextValue()) {
+        if (column == columnFields.length) {
+          throw new IOException("more values than the " + columnFields.length + " columns expected");
+        }
+        final int field = columnFields[column++];
+        record.put(field, toValue(field, scanner));
+      }
+      for (; column < columnFields.length; column++) {
+        if (!nullable[columnFields[column]]) {
+          throw new IOException(String.format("no value for non-null field \"%s\"",
+                  schema.getFields().get(columnFields[column]).name()));
+        }
+      }
+      return record;
+    }
+
+    private Object toValue(int field, LineScanner scanner) throws IOException {
+      final byte[] data = scanner.value();
+      final int from = scanner.valueStart;
+      final int len = scanner.valueLength;
+      final Schema type = fieldTypes[field];
+      if (len == 0) {
+        // "" is an empty string, an empty unquoted value null - where the field allows
+        if (type.getType() == Schema.Type.STRING && (scanner.quoted || !nullable[field])) return new Utf8();
+        if (nullable[field]) return null;
+        throw new IOException(String.format("empty value for non-null field \"%s\"", schema.getFields().get(field).name()));
+      }
+      switch (type.getType()) {
+        case STRING:
+          return new Utf8(Arrays.copyOfRange(data, from, from + len));
+        case INT: {
+          final long value = parseLong(data, from, len);
+          if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw numberFormat(data, from, len);
+          return (int) value;
+        }
+        case LONG:
+          return parseLong(data, from, len);
+        case FLOAT:
+          return Float.parseFloat(ascii(data, from, len));
+        case DOUBLE:
+          return Double.parseDouble(ascii(data, from, len));
+        case BOOLEAN:
+          return parseBoolean(data, from, len);
+        case ENUM:
+          final String symbol = new String(data, from, len, StandardCharsets.UTF_8);
+          if (!type.hasEnumSymbol(symbol)) throw new IOException("not a symbol of enum " + type.getName() + ": " + symbol);
+          return new GenericData.EnumSymbol(type, symbol);
+        default:
+          throw new IllegalStateException(type.getType().toString());
+      }
+    }
+  }
+
+  // decimal digits with an optional sign, accumulated negatively (as Long.parseLong()
+  // does) so that Long.MIN_VALUE parses
+  private static long parseLong(byte[] data, int from, int len) {
+    int i = from;
+    final int end = from + len;
+    final boolean negative = data[i] == '-';
+    if (negative || data[i] == '+') i++;
+    if (i == end) throw numberFormat(data, from, len);
+    final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    final long multiplyMin = limit / 10;
+    long value = 0;
+    for (; i < end; i++) {
+      final int digit = data[i] - '0';
+      if (digit < 0 || digit > 9 || value < multiplyMin) throw numberFormat(data, from, len);
+      value *= 10;
+      if (value < limit + digit) throw numberFormat(data, from, len);
+      value -= digit;
+    }
+    return negative ? value : -value;
+  }
+
+  private static boolean parseBoolean(byte[] data, int from, int len) {
+    if (len == 1 && (data[from] == '1' || data[from] == '0')) return data[from] == '1';
+    final String text = ascii(data, from, len);
+    if (text.equalsIgnoreCase("true")) return true;
+    if (text.equalsIgnoreCase("false")) return false;
+    throw new IllegalArgumentException("not a boolean: " + text);
+  }
+
+  private static String ascii(byte[] data, int from, int len) {
+    return new String(data, from, len, StandardCharsets.ISO_8859_1); // numbers are ASCII - no UTF-8 decoding needed
+  }
+
+  private static NumberFormatException numberFormat(byte[] data, int from, int len) {
+    return new NumberFormatException("not a valid integer: " + new String(data, from, len, StandardCharsets.UTF_8));
+  }
+}
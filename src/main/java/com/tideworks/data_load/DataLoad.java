@@ -55,8 +55,28 @@
  * adjusted to modify verbosity level of logging. The defaults are set to INFO level. The
  * intent is to allow, say, setting file appender to DEBUG while console is set to INFO.
  *
- * The only command line argument accepted is the specification of how many iterations
- * of writing Avro records; the default is 10.
+ * The first command line argument is the specification of how many iterations
+ * of writing Avro records; the default is 10. An optional second argument gives the
+ * number of writer threads; when more than one, the records are fanned out to that
+ * many part files (sample-part-NNNNN.parquet) plus a _metadata summary of them all.
+ * The single file is written through a SpecializedRecord - a record class generated
+ * for the schema with Byte Buddy that writes itself to Parquet without boxing or
+ * per-record allocation. The sample file is then read back with an AvroRecordReader,
+ * and its footer extracted by way of the process-wide ParquetFooterCache.
+ *
+ * Alternatively the first argument names a mode (see runMode()), e.g. avro to convert
+ * an Avro object container file to Parquet, json to convert a JSON-lines file, csv to
+ * convert a CSV file, query to read a Parquet file with a column projection and a
+ * predicate pushed down to skip row groups by their statistics, scan to aggregate the
+ * columns of many Parquet files in parallel, summary to bring the _metadata summary of a
+ * directory of Parquet files up to date, stats to report row counts, null counts and
+ * min/max per column from that summary alone, compact to merge small Parquet files by
+ * copying their row groups as raw bytes, watch to run as a service converting the
+ * files dropped into inbox directories, or stream to convert a file and stream the
+ * Parquet to stdout, a socket or a pipe. Options ahead of the mode (see parseOptions())
+ * apply to it; --sort-by=key[,key...] has the converters write their records sorted,
+ * and --metrics=seconds reports throughput, I/O calls and flush latencies over JMX and
+ * to the log.
  *
  * Can use the shell script run.sh to invoke the program from the Maven target/ directory.
  * Logging will go into a logs/ directory as the file avro2parquet.log.
@@ -64,21 +84,20 @@
 package com.tideworks.data_load;
 
 import com.tideworks.annotation.InvokeByteCodePatching;
+import com.tideworks.data_load.io.Durability;
+import com.tideworks.data_load.io.ReadAhead;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.parquet.avro.AvroParquetReader;
 import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.format.Util;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
-import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetFileWriter;
-import org.apache.parquet.hadoop.ParquetReader;
 import org.apache.parquet.hadoop.ParquetWriter;
-import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,14 +107,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-import static com.tideworks.data_load.io.InputFile.nioPathToInputFile;
+import static com.tideworks.data_load.io.OutputFile.nioPathToChannelOutputFile;
 import static com.tideworks.data_load.io.OutputFile.nioPathToOutputFile;
 
 /*
@@ -104,12 +128,26 @@ import static com.tideworks.data_load.io.OutputFile.nioPathToOutputFile;
 @InvokeByteCodePatching
 public class DataLoad {
   private static final Logger LOGGER;
-  private static final String SCHEMA_FILE_NAME = "avroToParquet.avsc";
+  static final String SCHEMA_FILE_NAME = "avroToParquet.avsc";
   private static final String loadSchemaRsrcErrMsgFmt = "Can't read SCHEMA file from: \"{}\"";
   private static final File progDirPathFile;
 
+  private static ExternalSorter.SortOrder sortOrder = null; // records written in arrival order
+  private static AdaptiveEncoding.Target adaptiveEncoding = null; // WriterSettings.DEFAULT used as is
+  // the encoding chosen for a schema is reused for the later files of that schema
+  private static final Map<Schema, WriterSettings> adaptiveSettings = new ConcurrentHashMap<>();
+  private static long checkpointPartBytes = 0; // no checkpoints
+  private static Durability durability = Durability.NONE; // flushing left to the OS
+  private static RollingParquetWriter.Policy rollPolicy = null; // no rolling over to new files
+
   static File getProgDirPath() { return progDirPathFile; }
 
+  static boolean isCheckpointing() { return checkpointPartBytes > 0; }
+
+  static Durability durability() { return durability; }
+
+  static boolean isRolling() { return rollPolicy != null; }
+
   static {
     final Predicate<String> existsAndIsDir = dirPath -> {
       final File dirPathFile = new File(dirPath);
@@ -122,7 +160,7 @@ public class DataLoad {
     LOGGER = LoggingLevel.effectLoggingLevel(() -> LoggerFactory.getLogger(DataLoad.class.getSimpleName()));
   }
 
-  private static Schema getSchema(String schemaRsrcPath) {
+  static Schema getSchema(String schemaRsrcPath) {
 
     final Function<String, String> get_schema_rsrc = rsrcPath -> {
       try (final InputStream is = ClassLoader.getSystemResourceAsStream(rsrcPath)) {
@@ -141,10 +179,39 @@ public class DataLoad {
     return new Schema.Parser().parse(get_schema_rsrc.apply(schemaRsrcPath));
   }
 
+  /**
+   * Loads the Avro schema schemaName names: an .avsc file at that path, else a resource
+   * of that name. Unlike getSchema(), which ends the program, a schema that cannot be
+   * found or parsed is an exception to the caller - a mistyped argument must not take
+   * down a long running service.
+   */
+  static Schema loadSchema(@Nonnull String schemaName) throws IOException {
+    final Path schemaFile = Paths.get(schemaName);
+    if (Files.isRegularFile(schemaFile)) {
+      return new Schema.Parser().parse(schemaFile.toFile());
+    }
+    try (final InputStream is = ClassLoader.getSystemResourceAsStream(schemaName)) {
+      if (is == null) {
+        throw new NoSuchFileException(schemaName, null, "neither a schema file nor a resource");
+      }
+      return new Schema.Parser().parse(is);
+    }
+  }
+
   public static void main(String[] args) {
     try {
+      args = parseOptions(args);
+      if (args.length > 0 && !args[0].chars().allMatch(Character::isDigit)) {
+        runMode(args[0], Arrays.copyOfRange(args, 1, args.length));
+        return;
+      }
       final int maxRecords = args.length > 0 ? Integer.parseUnsignedInt(args[0]) : 10;
+      final int writerThreads = args.length > 1 ? Integer.parseUnsignedInt(args[1]) : 1;
       final Schema schema = getSchema(SCHEMA_FILE_NAME);
+      if (writerThreads > 1) {
+        doTestParallelParquet(schema, maxRecords, writerThreads, FileSystems.getDefault().getPath("."));
+        return;
+      }
       final Path parquetFilePath = FileSystems.getDefault().getPath("sample.parquet");
       Files.deleteIfExists(parquetFilePath);
       doTestParquet(schema, maxRecords, parquetFilePath);
@@ -154,17 +221,162 @@ public class DataLoad {
     }
   }
 
+  /**
+   * Takes the leading --option=value arguments, which apply to whichever mode follows:
+   * --sort-by=key[,key...] sorts the records written to Parquet by the given fields
+   * (see ExternalSorter), within --sort-memory-mb of buffered records; --adaptive-sample=n
+   * has the codec and dictionary encoding chosen from the first n records (see
+   * AdaptiveEncoding), the smallest encoding of at least --min-encode-mb-per-sec;
+   * --writer-memory-mb bounds the row groups all writers buffer at once (see
+   * ParquetWriterPool); --metrics=seconds turns on the PipelineMetrics, published over
+   * JMX and logged at that interval (or, given 0, only published); --checkpoint-mb=n
+   * writes the output as resumable part files of about n MB (0: a row group's worth),
+   * see CheckpointedWriter; --prefetch-depth=n has Parquet readers keep n reads of the
+   * column chunks ahead of decoding (see RowGroupPrefetch), all within --prefetch-mb;
+   * --durability=none|fsync-on-close|fsync-per-row-group is when the Parquet files
+   * written are forced to disk (see io.Durability); --roll-mb, --roll-records and
+   * --roll-seconds write the output as a directory of files rolled over at that size,
+   * record count or age, whichever comes first (see RollingParquetWriter).
+   *
+   * @return the remaining arguments
+   */
+  private static String[] parseOptions(final String[] args) {
+    String sortBy = null;
+    long sortMemoryBytes = ExternalSorter.DEFAULT_MAX_MEMORY_BYTES;
+    int sampleRecords = 0;
+    double minEncodeMBPerSec = 0;
+    int prefetchDepth = 0;
+    long prefetchBytes = ReadAhead.DEFAULT_MAX_BYTES;
+    int i = 0;
+    for (; i < args.length && args[i].startsWith("--"); i++) {
+      final String[] option = args[i].split("=", 2);
+      if (option.length < 2) {
+        throw new IllegalArgumentException(String.format("option \"%s\" needs a value", option[0]));
+      }
+      switch (option[0]) {
+        case "--sort-by":
+          sortBy = option[1];
+          break;
+        case "--sort-memory-mb":
+          sortMemoryBytes = Long.parseUnsignedLong(option[1]) * 1024 * 1024;
+          break;
+        case "--adaptive-sample":
+          sampleRecords = Integer.parseUnsignedInt(option[1]);
+          break;
+        case "--writer-memory-mb":
+          ParquetWriterPool.shared().setBudgetBytes(Long.parseUnsignedLong(option[1]) * 1024 * 1024);
+          break;
+        case "--checkpoint-mb":
+          checkpointPartBytes = Long.parseUnsignedLong(option[1]) * 1024 * 1024;
+          if (checkpointPartBytes == 0) checkpointPartBytes = CheckpointedWriter.DEFAULT_PART_BYTES;
+          break;
+        case "--metrics":
+          PipelineMetrics.enable(Integer.parseUnsignedInt(option[1]));
+          break;
+        case "--prefetch-depth":
+          prefetchDepth = Integer.parseUnsignedInt(option[1]);
+          break;
+        case "--prefetch-mb":
+          prefetchBytes = Long.parseUnsignedLong(option[1]) * 1024 * 1024;
+          break;
+        case "--roll-mb":
+          rollPolicy = (rollPolicy != null ? rollPolicy : new RollingParquetWriter.Policy())
+                  .bySize(Long.parseUnsignedLong(option[1]) * 1024 * 1024);
+          break;
+        case "--roll-records":
+          rollPolicy = (rollPolicy != null ? rollPolicy : new RollingParquetWriter.Policy())
+                  .byRecordCount(Long.parseUnsignedLong(option[1]));
+          break;
+        case "--roll-seconds":
+          rollPolicy = (rollPolicy != null ? rollPolicy : new RollingParquetWriter.Policy())
+                  .byInterval(Long.parseUnsignedLong(option[1]), TimeUnit.SECONDS);
+          break;
+        case "--durability":
+          try {
+            durability = Durability.valueOf(option[1].toUpperCase().replace('-', '_'));
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(
+                    "--durability must be none, fsync-on-close or fsync-per-row-group, not \"%s\"", option[1]));
+          }
+          break;
+        case "--min-encode-mb-per-sec":
+          minEncodeMBPerSec = Double.parseDouble(option[1]);
+          if (sampleRecords == 0) sampleRecords = AdaptiveEncoding.DEFAULT_SAMPLE_RECORDS;
+          break;
+        default:
+          throw new IllegalArgumentException(String.format("unknown option \"%s\"", option[0]));
+      }
+    }
+    if (rollPolicy != null && checkpointPartBytes > 0) {
+      // checkpointed parts are rolled by size already, and resume by their count of records
+      throw new IllegalArgumentException("--roll-mb, --roll-records and --roll-seconds do not go with --checkpoint-mb");
+    }
+    if (prefetchDepth > 0) {
+      RowGroupPrefetch.enable(prefetchDepth, prefetchBytes);
+    }
+    if (sortBy != null) {
+      sortOrder = ExternalSorter.SortOrder.parse(sortBy, sortMemoryBytes);
+    }
+    if (sampleRecords > 0) {
+      adaptiveEncoding = new AdaptiveEncoding.Target(sampleRecords, minEncodeMBPerSec);
+    }
+    return Arrays.copyOfRange(args, i, args.length);
+  }
+
+  private static void runMode(final String mode, final String[] modeArgs) throws IOException {
+    switch (mode) {
+      case "avro":
+        AvroFileConverter.run(modeArgs);
+        break;
+      case "json":
+        JsonFileConverter.run(modeArgs);
+        break;
+      case "csv":
+        CsvFileConverter.run(modeArgs);
+        break;
+      case "query":
+        ParquetQuery.run(modeArgs);
+        break;
+      case "scan":
+        ParallelScan.run(modeArgs);
+        break;
+      case "summary":
+        DatasetSummary.runUpdate(modeArgs);
+        break;
+      case "stats":
+        DatasetSummary.runStats(modeArgs);
+        break;
+      case "compact":
+        ParquetCompactor.run(modeArgs);
+        break;
+      case "watch":
+        IngestionService.run(modeArgs);
+        break;
+      case "stream":
+        StreamingConverter.run(modeArgs);
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("unknown mode \"%s\" - usage: [--sort-by=key[,key...] [--sort-memory-mb=n]] [--adaptive-sample=n] [--min-encode-mb-per-sec=n] [--writer-memory-mb=n] [--metrics=seconds] [--checkpoint-mb=n] [--prefetch-depth=n [--prefetch-mb=n]] [--durability=none|fsync-on-close|fsync-per-row-group] [--roll-mb=n] [--roll-records=n] [--roll-seconds=n] <mode>%n\t[count [writer-threads]]%n\t%s%n\t%s%n\t%s%n\t%s%n\t%s%n\t%s%n\t%s%n\t%s%n\t%s%n\t%s%n%s",
+                mode, AvroFileConverter.USAGE, JsonFileConverter.USAGE, CsvFileConverter.USAGE, ParquetQuery.USAGE,
+                ParallelScan.USAGE, DatasetSummary.SUMMARY_USAGE, DatasetSummary.STATS_USAGE,
+                ParquetCompactor.USAGE, IngestionService.USAGE, StreamingConverter.USAGE,
+                CheckpointedWriter.USAGE));
+    }
+  }
+
   private static void doTestParquet(final Schema schema, final int maxRecords, final Path parquetFilePath)
           throws IOException
   {
     final RandomString session = new RandomString(64);
-    final GenericData.Record record = new GenericData.Record(schema);
+    final SpecializedRecord record = SpecializedRecord.newInstance(schema);
+    final int c1 = record.fieldIndex("c1");
+    final int c2 = record.fieldIndex("c2");
     final int[] count = { 1 };
     final int[] iterations = { maxRecords };
 
     writeToParquet(schema, parquetFilePath, writer -> {
-      record.put("c1", count[0]++);
-      record.put("c2", session.nextString());
+      record.setInt(c1, count[0]++);
+      record.setBinary(c2, Binary.fromString(session.nextString()));
       writer.write(record);
       return (--iterations[0]) > 0;
     });
@@ -178,41 +390,225 @@ public class DataLoad {
       parentDirPath = FileSystems.getDefault().getPath(".");
     }
     final Path emptyParquetFilePath = Paths.get(parentDirPath.toString(), "empty.parquet");
+    Files.deleteIfExists(emptyParquetFilePath);
     //noinspection EmptyTryBlock
     try (final ParquetWriter<GenericData.Record> ignored = createParquetWriterInstance(schema, emptyParquetFilePath)) {}
   }
 
+  private static void doTestParallelParquet(final Schema schema, final int maxRecords, final int writerThreads,
+                                            final Path outDirPath) throws IOException
+  {
+    final RandomString session = new RandomString(64);
+    final GenericData.Record record = new GenericData.Record(schema);
+    final int[] count = { 1 };
+    final int[] iterations = { maxRecords };
+
+    ParallelParquetWriter.writeToParquet(schema, outDirPath, "sample", writerThreads, writer -> {
+      record.put("c1", count[0]++);
+      record.put("c2", session.nextString());
+      writer.write(record);
+      return (--iterations[0]) > 0;
+    });
+  }
+
   @FunctionalInterface
-  private interface WriteGenericDataRecord {
+  interface WriteGenericDataRecord {
     void write(GenericData.Record record) throws IOException;
   }
 
   @FunctionalInterface
-  private interface GenericDataRecordSink {
+  interface GenericDataRecordSink {
     boolean accept(WriteGenericDataRecord writer) throws IOException;
   }
 
-  private static ParquetWriter<GenericData.Record> createParquetWriterInstance(@Nonnull final Schema schema,
-                                                                               @Nonnull final Path fileToWrite)
+  @FunctionalInterface
+  interface WriteSpecializedRecord {
+    void write(SpecializedRecord record) throws IOException;
+  }
+
+  @FunctionalInterface
+  interface SpecializedRecordSink {
+    boolean accept(WriteSpecializedRecord writer) throws IOException;
+  }
+
+  static ParquetWriter<GenericData.Record> createParquetWriterInstance(@Nonnull final Schema schema,
+                                                                       @Nonnull final Path fileToWrite)
           throws IOException
+  {
+    return createParquetWriterInstance(schema, fileToWrite, WriterSettings.DEFAULT);
+  }
+
+  /**
+   * Writes a new fileToWrite through a FileChannel with write-behind buffers, forced to
+   * disk as --durability says.
+   */
+  static ParquetWriter<GenericData.Record> createParquetWriterInstance(@Nonnull final Schema schema,
+                                                                       @Nonnull final Path fileToWrite,
+                                                                       @Nonnull final WriterSettings settings)
+          throws IOException
+  {
+    return createParquetWriterInstance(schema, channelOutputFile(fileToWrite), settings);
+  }
+
+  // with FSYNC_PER_ROW_GROUP, a ParquetWriterPool.PooledWriter tells the stream where
+  // each row group ends; a writer made here forces only on close
+  static org.apache.parquet.io.OutputFile channelOutputFile(@Nonnull final Path fileToWrite) {
+    return nioPathToChannelOutputFile(fileToWrite, durability);
+  }
+
+  static ParquetWriter<GenericData.Record> createParquetWriterInstance(
+          @Nonnull final Schema schema,
+          @Nonnull final org.apache.parquet.io.OutputFile fileToWrite,
+          @Nonnull final WriterSettings settings) throws IOException
   {
     return AvroParquetWriter
-            .<GenericData.Record>builder(nioPathToOutputFile(fileToWrite))
-            .withRowGroupSize(256 * 1024 * 1024)
-            .withPageSize(128 * 1024)
+            .<GenericData.Record>builder(fileToWrite)
+            .withRowGroupSize(settings.rowGroupSize)
+            .withMaxPaddingSize(0) // a local file has no blocks to align row groups to
+            .withPageSize(settings.pageSize)
             .withSchema(schema)
             .withConf(new Configuration())
-            .withCompressionCodec(CompressionCodecName.GZIP)
+            .withCompressionCodec(settings.codec)
             .withValidation(false)
-            .withDictionaryEncoding(false)
+            .withDictionaryEncoding(settings.dictionaryEncoding)
             .build();
   }
 
+  /**
+   * Same settings as createParquetWriterInstance(), for records of the class generated
+   * for the schema (see SpecializedRecord).
+   */
+  static ParquetWriter<SpecializedRecord> createSpecializedParquetWriterInstance(@Nonnull final Schema schema,
+                                                                                 @Nonnull final Path fileToWrite)
+          throws IOException
+  {
+    final WriterSettings settings = WriterSettings.DEFAULT;
+    return SpecializedWriteSupport
+            .builder(channelOutputFile(fileToWrite), schema)
+            .withRowGroupSize(settings.rowGroupSize)
+            .withMaxPaddingSize(0)
+            .withPageSize(settings.pageSize)
+            .withConf(new Configuration())
+            .withCompressionCodec(settings.codec)
+            .withValidation(false)
+            .withDictionaryEncoding(settings.dictionaryEncoding)
+            .build();
+  }
+
+  /**
+   * Writes the records produced by sink to parquetPath: a single file, or given more than
+   * one writer thread, a directory of part files named after baseName (see
+   * ParallelParquetWriter) - or with checkpoints on, a directory of resumable part files
+   * (see CheckpointedWriter), or with a roll policy, a directory of files written one
+   * after another by a single writer (see RollingParquetWriter). Given a sort order on the command line, the records are first
+   * sorted by it (see ExternalSorter); given an adaptive sample size, the codec and
+   * dictionary encoding are chosen from that many of the (sorted) records.
+   */
+  static void writeRecordsToParquet(@Nonnull final Schema schema,
+                                    @Nonnull final Path parquetPath,
+                                    @Nonnull final String baseName,
+                                    final int writerThreads,
+                                    @Nonnull final GenericDataRecordSink sink) throws IOException
+  {
+    if (sortOrder != null) {
+      try (final ExternalSorter sorted = ExternalSorter.sort(schema, sortOrder, sink)) {
+        writeRecordsInOrderToParquet(schema, parquetPath, baseName, writerThreads, sorted);
+      }
+      return;
+    }
+    writeRecordsInOrderToParquet(schema, parquetPath, baseName, writerThreads, sink);
+  }
+
+  /**
+   * As writeRecordsToParquet(), to a single Parquet file written to outputFile - such as a
+   * stream (see StreamingConverter) - which name describes in messages.
+   */
+  static void writeRecordsToParquet(@Nonnull final Schema schema,
+                                    @Nonnull final org.apache.parquet.io.OutputFile outputFile,
+                                    @Nonnull final String name,
+                                    @Nonnull final GenericDataRecordSink sink) throws IOException
+  {
+    if (sortOrder != null) {
+      try (final ExternalSorter sorted = ExternalSorter.sort(schema, sortOrder, sink)) {
+        writeRecordsInOrderToParquet(schema, outputFile, name, sorted);
+      }
+      return;
+    }
+    writeRecordsInOrderToParquet(schema, outputFile, name, sink);
+  }
+
+  /**
+   * As writeRecordsToParquet(), the records written in the order sink produces them.
+   */
+  private static void writeRecordsInOrderToParquet(@Nonnull final Schema schema,
+                                                  @Nonnull final Path parquetPath,
+                                                  @Nonnull final String baseName,
+                                                  final int writerThreads,
+                                                  @Nonnull final GenericDataRecordSink sink) throws IOException
+  {
+    final GenericDataRecordSink records = sampledIfAdaptive(schema, sink);
+    final WriterSettings settings = settingsFor(schema, records);
+    if (checkpointPartBytes > 0) {
+      CheckpointedWriter.writeToParquet(schema, parquetPath, baseName, checkpointPartBytes, settings, records);
+      return;
+    }
+    if (rollPolicy != null) {
+      LOGGER.info("{}: writing to \"{}\" with one writer, {}", baseName, parquetPath, rollPolicy);
+      RollingParquetWriter.writeToParquet(schema, parquetPath, baseName, rollPolicy, settings, records);
+      return;
+    }
+    if (writerThreads > 1) {
+      ParallelParquetWriter.writeToParquet(schema, parquetPath, baseName, writerThreads, settings, records);
+      return;
+    }
+    Files.deleteIfExists(parquetPath);
+    try (final ParquetWriterPool.PooledWriter writer = ParquetWriterPool.shared().open(schema, parquetPath, settings)) {
+      //noinspection StatementWithEmptyBody
+      do ; while(records.accept(writer::write));
+    }
+  }
+
+  private static void writeRecordsInOrderToParquet(@Nonnull final Schema schema,
+                                                  @Nonnull final org.apache.parquet.io.OutputFile outputFile,
+                                                  @Nonnull final String name,
+                                                  @Nonnull final GenericDataRecordSink sink) throws IOException
+  {
+    final GenericDataRecordSink records = sampledIfAdaptive(schema, sink);
+    final WriterSettings settings = settingsFor(schema, records);
+    try (final ParquetWriterPool.PooledWriter writer = ParquetWriterPool.shared().open(schema, outputFile, name,
+            settings))
+    {
+      //noinspection StatementWithEmptyBody
+      do ; while(records.accept(writer::write));
+    }
+  }
+
+  // given an adaptive sample size, the records of a schema not seen before are sampled,
+  // for settingsFor() to choose the encoding from
+  private static GenericDataRecordSink sampledIfAdaptive(final Schema schema, final GenericDataRecordSink sink)
+          throws IOException
+  {
+    if (adaptiveEncoding == null || adaptiveSettings.containsKey(schema)) return sink;
+    return AdaptiveEncoding.sample(schema, sink, adaptiveEncoding.sampleRecords);
+  }
+
+  private static WriterSettings settingsFor(final Schema schema, final GenericDataRecordSink records)
+          throws IOException
+  {
+    if (records instanceof AdaptiveEncoding.SampledSink) {
+      final WriterSettings chosen = AdaptiveEncoding.choose(schema,
+              ((AdaptiveEncoding.SampledSink) records).getSample(), WriterSettings.DEFAULT, adaptiveEncoding);
+      adaptiveSettings.putIfAbsent(schema, chosen);
+      return chosen;
+    }
+    return adaptiveSettings.getOrDefault(schema, WriterSettings.DEFAULT);
+  }
+
   private static void writeToParquet(@Nonnull final Schema schema,
                                      @Nonnull final Path fileToWrite,
-                                     @Nonnull final GenericDataRecordSink sink) throws IOException
+                                     @Nonnull final SpecializedRecordSink sink) throws IOException
   {
-    try (final ParquetWriter<GenericData.Record> writer = createParquetWriterInstance(schema, fileToWrite)) {
+    try (final ParquetWriter<SpecializedRecord> writer = createSpecializedParquetWriterInstance(schema, fileToWrite)) {
       //noinspection StatementWithEmptyBody
       do ; while(sink.accept(writer::write));
       writer.close();
@@ -225,10 +621,17 @@ public class DataLoad {
   }
 
   private static void serializeFooter(ParquetMetadata footer, final PositionOutputStream out) throws IOException {
+    //noinspection unchecked
+    serializeMetadata(new ParquetMetadata(footer.getFileMetaData(), Collections.EMPTY_LIST), out);
+  }
+
+  /**
+   * Writes a footer-only Parquet file holding the given metadata as is - row groups
+   * included (for a dataset summary these carry the path of the file they live in).
+   */
+  static void serializeMetadata(final ParquetMetadata footer, final PositionOutputStream out) throws IOException {
     out.write(ParquetFileWriter.MAGIC);
     final long footerIndex = out.getPos();
-    //noinspection unchecked
-    footer = new ParquetMetadata(footer.getFileMetaData(), Collections.EMPTY_LIST);
     final ParquetMetadataConverter metadataConverter = new ParquetMetadataConverter();
     final org.apache.parquet.format.FileMetaData parquetMetadata =
             metadataConverter.toParquetMetadata(ParquetFileWriter.CURRENT_VERSION, footer);
@@ -239,11 +642,7 @@ public class DataLoad {
   }
 
   private static void readFromParquet(@Nonnull final Path filePathToRead) throws IOException {
-    try (final ParquetReader<GenericData.Record> reader = AvroParquetReader
-            .<GenericData.Record>builder(nioPathToInputFile(filePathToRead))
-            .withConf(new Configuration())
-            .build())
-    {
+    try (final AvroRecordReader reader = AvroRecordReader.open(filePathToRead)) {
       GenericData.Record record;
       while ((record = reader.read()) != null) {
         System.out.println(record);
@@ -252,13 +651,11 @@ public class DataLoad {
   }
 
   private static void extractMetaDataFooter(final Path parquetFilePath) throws IOException {
-    try (final ParquetFileReader rdr = ParquetFileReader.open(nioPathToInputFile(parquetFilePath))) {
-      final ParquetMetadata footer = rdr.getFooter();
-      final Path metaDataOutPath = Paths.get(ParquetFileWriter.PARQUET_METADATA_FILE + "_dup.parquet");
-      Files.deleteIfExists(metaDataOutPath);
-      try (final PositionOutputStream out = nioPathToOutputFile(metaDataOutPath).createOrOverwrite(0)) {
-        serializeFooter(footer, out);
-      }
+    final ParquetMetadata footer = ParquetFooterCache.getFooter(parquetFilePath);
+    final Path metaDataOutPath = Paths.get(ParquetFileWriter.PARQUET_METADATA_FILE + "_dup.parquet");
+    Files.deleteIfExists(metaDataOutPath);
+    try (final PositionOutputStream out = nioPathToOutputFile(metaDataOutPath).createOrOverwrite(0)) {
+      serializeFooter(footer, out);
     }
   }
 }
\ No newline at end of file
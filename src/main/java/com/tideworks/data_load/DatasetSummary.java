@@ -0,0 +1,416 @@
+/* DatasetSummary.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.schema.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.tideworks.data_load.DataLoad.serializeMetadata;
+import static com.tideworks.data_load.io.OutputFile.nioPathToOutputFile;
+
+/**
+ * Maintains the _metadata summary of a directory of Parquet files: one footer-only file
+ * holding the schema and the row groups (with their offsets and column statistics) of
+ * every file, each row group carrying the path of its file relative to the directory.
+ * <p>
+ * The summary also records the length and last-modified time of each file it covers, so
+ * it can be brought up to date incrementally: update() reads the footers of only those
+ * files that are new or changed, and add() merges in the footer of a file just written
+ * without reading anything but the summary (it fits RollingParquetWriter.PublishListener).
+ * A file whose schema differs from that of the summary is left out of it, with a warning.
+ * <p>
+ * Row counts, null counts and min/max per column can then be had from the summary alone
+ * (see stats()), as can the row groups a predicate could match - one file read rather
+ * than one per data file.
+ */
+final class DatasetSummary {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DatasetSummary.class.getSimpleName());
+  private static final String FILES_KEY = "tideworks.summary.files";
+  static final String SUMMARY_USAGE = "summary <dataset-dir>";
+  static final String STATS_USAGE = "stats <dataset-dir> [columns|* [predicate]]";
+
+  /**
+   * A data file as the summary last saw it.
+   */
+  private static final class FileEntry {
+    final long length;
+    final long lastModified;
+    final List<BlockMetaData> blocks;
+
+    FileEntry(long length, long lastModified, List<BlockMetaData> blocks) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.blocks = blocks;
+    }
+  }
+
+  /**
+   * The summary of a directory as loaded, and as it is to be written back.
+   */
+  private static final class Summary {
+    final Path dir;
+    final LinkedHashMap<String, FileEntry> files = new LinkedHashMap<>();
+    FileMetaData fileMetaData;
+
+    Summary(Path dir) {
+      this.dir = dir;
+    }
+
+    /**
+     * @return false if the footer's schema does not match that of the summary
+     */
+    boolean merge(String fileName, long length, long lastModified, ParquetMetadata footer) {
+      final FileMetaData metaData = footer.getFileMetaData();
+      files.remove(fileName);
+      if (fileMetaData == null || files.isEmpty()) {
+        final Map<String, String> keyValues = new HashMap<>(metaData.getKeyValueMetaData());
+        keyValues.remove(FILES_KEY);
+        fileMetaData = new FileMetaData(metaData.getSchema(), keyValues, metaData.getCreatedBy());
+      } else if (!fileMetaData.getSchema().equals(metaData.getSchema())) {
+        LOGGER.warn("\"{}\" left out of the summary of \"{}\": its schema differs", fileName, dir);
+        return false;
+      }
+      // copies, as the footer may be shared (e.g. from ParquetFooterCache)
+      final List<BlockMetaData> blocks = new ArrayList<>(footer.getBlocks().size());
+      for (final BlockMetaData block : footer.getBlocks()) {
+        final BlockMetaData copy = new BlockMetaData();
+        copy.setRowCount(block.getRowCount());
+        copy.setTotalByteSize(block.getTotalByteSize());
+        copy.setPath(fileName);
+        block.getColumns().forEach(copy::addColumn);
+        blocks.add(copy);
+      }
+      files.put(fileName, new FileEntry(length, lastModified, blocks));
+      return true;
+    }
+
+    ParquetMetadata toFooter() {
+      final Map<String, String> keyValues = new HashMap<>(fileMetaData.getKeyValueMetaData());
+      keyValues.put(FILES_KEY, files.entrySet().stream()
+              .map(file -> String.format("%d\t%d\t%s", file.getValue().length, file.getValue().lastModified,
+                      file.getKey()))
+              .collect(Collectors.joining("\n")));
+      final List<BlockMetaData> blocks = new ArrayList<>();
+      files.values().forEach(file -> blocks.addAll(file.blocks));
+      return new ParquetMetadata(new FileMetaData(fileMetaData.getSchema(), keyValues, fileMetaData.getCreatedBy()),
+              blocks);
+    }
+  }
+
+  /**
+   * Row counts, null counts, min/max and sizes of the columns of a dataset, or of the row
+   * groups of it a predicate could match.
+   */
+  static final class Stats {
+    final int files;
+    final int filesMatched;
+    final int rowGroups;
+    final int rowGroupsMatched;
+    final long rows;
+    final Map<String, ColumnStats> columns = new LinkedHashMap<>();
+
+    private Stats(int files, int filesMatched, int rowGroups, int rowGroupsMatched, long rows) {
+      this.files = files;
+      this.filesMatched = filesMatched;
+      this.rowGroups = rowGroups;
+      this.rowGroupsMatched = rowGroupsMatched;
+      this.rows = rows;
+    }
+  }
+
+  static final class ColumnStats {
+    final String name;
+    final Statistics<?> statistics; // merged over the row groups that had any
+    long values;
+    long compressedBytes;
+    long uncompressedBytes;
+    int rowGroupsWithoutStatistics;
+
+    private ColumnStats(String name, Statistics<?> statistics) {
+      this.name = name;
+      this.statistics = statistics;
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder text = new StringBuilder(String.format("%s: values=%d nulls=%d", name, values,
+              statistics.getNumNulls()));
+      if (statistics.hasNonNullValue()) {
+        text.append(String.format(" min=%s max=%s", statistics.minAsString(), statistics.maxAsString()));
+      }
+      text.append(String.format(" bytes=%d (%d uncompressed)", compressedBytes, uncompressedBytes));
+      if (rowGroupsWithoutStatistics > 0) {
+        text.append(String.format(" - no statistics in %d row groups", rowGroupsWithoutStatistics));
+      }
+      return text.toString();
+    }
+  }
+
+  private DatasetSummary() {}
+
+  /**
+   * Command line entry of summary mode: creates or brings up to date the summary of a directory.
+   */
+  static void runUpdate(@Nonnull String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("usage: " + SUMMARY_USAGE);
+    }
+    update(Paths.get(args[0]));
+  }
+
+  /**
+   * Command line entry of stats mode: directory, comma separated columns to report
+   * (default, or *: all of them) and a predicate (see FilterPredicateParser) selecting
+   * the row groups to report on. Prints the statistics to stdout.
+   */
+  static void runStats(@Nonnull String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("usage: " + STATS_USAGE);
+    }
+    final List<String> columns = args.length > 1 && !args[1].trim().equals("*")
+            ? Arrays.stream(args[1].split(",")).map(String::trim).collect(Collectors.toList())
+            : null;
+    final String predicate = args.length > 2 ? args[2] : null;
+    final Stats stats = stats(Paths.get(args[0]), columns, predicate);
+    System.out.printf("files: %d of %d%n", stats.filesMatched, stats.files);
+    System.out.printf("row groups: %d of %d%n", stats.rowGroupsMatched, stats.rowGroups);
+    System.out.printf("rows: %d%n", stats.rows);
+    stats.columns.values().forEach(System.out::println);
+  }
+
+  /**
+   * Brings the summary of a directory up to date with the Parquet files in it, reading
+   * the footers of only the files that are new or have changed since it was written.
+   * Files whose footer cannot be read (e.g. one still being copied in) are left out.
+   *
+   * @return the summary
+   */
+  static synchronized ParquetMetadata update(@Nonnull final Path dir) throws IOException {
+    final long startTime = System.nanoTime();
+    final Summary summary = load(dir);
+    final Map<String, BasicFileAttributes> current = new LinkedHashMap<>();
+    for (final Path file : ParallelScan.resolveFiles(dir.toString())) {
+      current.put(file.getFileName().toString(), Files.readAttributes(file, BasicFileAttributes.class));
+    }
+    final int removed = (int) summary.files.keySet().stream().filter(name -> !current.containsKey(name)).count();
+    summary.files.keySet().retainAll(current.keySet());
+    final List<String> changed = current.entrySet().stream()
+            .filter(file -> {
+              final FileEntry entry = summary.files.get(file.getKey());
+              return entry == null || entry.length != file.getValue().size()
+                      || entry.lastModified != file.getValue().lastModifiedTime().toMillis();
+            })
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    summary.files.keySet().removeAll(changed);
+
+    // footers read in parallel, merged in directory order
+    final Map<String, ParquetMetadata> footers = Collections.synchronizedMap(new HashMap<>());
+    changed.parallelStream().forEach(name -> {
+      try {
+        footers.put(name, ParquetFooterCache.getFooter(dir.resolve(name)));
+      } catch (IOException|RuntimeException e) {
+        LOGGER.warn("\"{}\" left out of the summary of \"{}\": {}", name, dir, e.getMessage());
+      }
+    });
+    int added = 0;
+    for (final String name : changed) {
+      final ParquetMetadata footer = footers.get(name);
+      final BasicFileAttributes attributes = current.get(name);
+      if (footer != null
+              && summary.merge(name, attributes.size(), attributes.lastModifiedTime().toMillis(), footer)) {
+        added++;
+      }
+    }
+    final ParquetMetadata footer = summary.fileMetaData != null ? summary.toFooter() : null;
+    if (changed.isEmpty() && removed == 0) {
+      LOGGER.info("summary of \"{}\" is up to date: {} files", dir, summary.files.size());
+    } else {
+      write(dir, footer);
+      LOGGER.info("updated summary of \"{}\" in {} ms: {} files ({} added, {} removed), {} row groups", dir,
+              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), summary.files.size(), added, removed,
+              footer != null ? footer.getBlocks().size() : 0);
+    }
+    return footer;
+  }
+
+  /**
+   * Merges the footer of a file just written to a directory into the summary of that
+   * directory, without reading any other data file.
+   */
+  static void add(@Nonnull Path file, @Nonnull ParquetMetadata footer) throws IOException {
+    add(file.toAbsolutePath().getParent(), Collections.singletonMap(file, footer));
+  }
+
+  /**
+   * Merges the footers of files just written to a directory into the summary of that
+   * directory, without reading any other data file.
+   */
+  static synchronized void add(@Nonnull Path dir, @Nonnull Map<Path, ParquetMetadata> footers) throws IOException {
+    final Summary summary = load(dir);
+    // the files replaced, and any since deleted, no longer count (nor does their schema)
+    footers.keySet().forEach(file -> summary.files.remove(file.getFileName().toString()));
+    summary.files.keySet().removeIf(name -> !Files.exists(dir.resolve(name)));
+    for (final Map.Entry<Path, ParquetMetadata> footer : footers.entrySet()) {
+      final Path file = footer.getKey();
+      final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      summary.merge(file.getFileName().toString(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+              footer.getValue());
+    }
+    if (summary.fileMetaData != null) {
+      write(dir, summary.toFooter());
+    }
+  }
+
+  /**
+   * @return the summary of the directory, or null if it has none
+   */
+  @Nullable
+  static ParquetMetadata read(@Nonnull Path dir) throws IOException {
+    final Path summaryFile = dir.resolve(ParquetFileWriter.PARQUET_METADATA_FILE);
+    return Files.isRegularFile(summaryFile) && Files.size(summaryFile) > 0
+            ? ParquetFooterCache.getFooter(summaryFile)
+            : null;
+  }
+
+  /**
+   * Answers from the summary alone, opening no data file.
+   *
+   * @param columns the column paths to report on, or null for all of them
+   * @param predicate the rows to report on, as parsed by FilterPredicateParser, or null
+   *                  for all of them; row groups are selected by their statistics only,
+   *                  so the figures cover every row of a row group that could match
+   */
+  static Stats stats(@Nonnull final Path dir, @Nullable final List<String> columns, @Nullable final String predicate)
+          throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final ParquetMetadata summary = read(dir);
+    if (summary == null) {
+      throw new IOException(String.format("\"%s\" has no summary - create it with: %s", dir, SUMMARY_USAGE));
+    }
+    final MessageType schema = summary.getFileMetaData().getSchema();
+    final List<BlockMetaData> blocks = summary.getBlocks();
+    final List<BlockMetaData> matched = predicate != null
+            ? RowGroupFilter.filterRowGroups(
+                    FilterCompat.get(FilterPredicateParser.parser(predicate, schema).parse()), blocks, schema)
+            : blocks;
+
+    final Set<String> files = blocks.stream().map(BlockMetaData::getPath).collect(Collectors.toSet());
+    final Set<String> filesMatched = matched.stream().map(BlockMetaData::getPath).collect(Collectors.toSet());
+    final Stats stats = new Stats(files.size(), filesMatched.size(), blocks.size(), matched.size(),
+            matched.stream().mapToLong(BlockMetaData::getRowCount).sum());
+    final Set<String> wanted = columns != null ? new LinkedHashSet<>(columns) : null;
+    for (final String[] path : schema.getPaths()) {
+      final String name = String.join(".", path);
+      if (wanted == null || wanted.remove(name)) {
+        stats.columns.put(name, new ColumnStats(name, Statistics.createStats(schema.getType(path))));
+      }
+    }
+    if (wanted != null && !wanted.isEmpty()) {
+      throw new IllegalArgumentException(String.format("\"%s\" has no columns %s", dir, wanted));
+    }
+    for (final BlockMetaData block : matched) {
+      for (final ColumnChunkMetaData column : block.getColumns()) {
+        final ColumnStats columnStats = stats.columns.get(column.getPath().toDotString());
+        if (columnStats == null) continue;
+        columnStats.values += column.getValueCount();
+        columnStats.compressedBytes += column.getTotalSize();
+        columnStats.uncompressedBytes += column.getTotalUncompressedSize();
+        final Statistics<?> statistics = column.getStatistics();
+        if (statistics == null || statistics.isEmpty()) {
+          columnStats.rowGroupsWithoutStatistics++;
+        } else {
+          columnStats.statistics.mergeStatistics(statistics);
+        }
+      }
+    }
+    LOGGER.info("statistics of \"{}\": {} of {} row groups in {} of {} files match, {} rows, in {} ms", dir,
+            stats.rowGroupsMatched, stats.rowGroups, stats.filesMatched, stats.files, stats.rows,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    if (LOGGER.isDebugEnabled()) {
+      for (final BlockMetaData block : matched) {
+        LOGGER.debug("{} @{}: {} rows, {} bytes", block.getPath(), block.getStartingPos(), block.getRowCount(),
+                block.getCompressedSize());
+      }
+    }
+    return stats;
+  }
+
+  private static Summary load(Path dir) throws IOException {
+    final Summary summary = new Summary(dir);
+    final ParquetMetadata footer = read(dir);
+    final String files = footer != null ? footer.getFileMetaData().getKeyValueMetaData().get(FILES_KEY) : null;
+    if (files == null) {
+      // none, or not one of ours (e.g. one written elsewhere) - rebuilt from scratch
+      return summary;
+    }
+    summary.fileMetaData = footer.getFileMetaData();
+    final Map<String, List<BlockMetaData>> blocksByFile = footer.getBlocks().stream()
+            .collect(Collectors.groupingBy(BlockMetaData::getPath));
+    for (final String line : files.split("\n")) {
+      if (line.isEmpty()) continue;
+      final String[] fields = line.split("\t", 3);
+      summary.files.put(fields[2], new FileEntry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+              blocksByFile.getOrDefault(fields[2], new ArrayList<>())));
+    }
+    return summary;
+  }
+
+  private static void write(Path dir, @Nullable ParquetMetadata footer) throws IOException {
+    final Path summaryFile = dir.resolve(ParquetFileWriter.PARQUET_METADATA_FILE);
+    try {
+      if (footer == null) {
+        Files.deleteIfExists(summaryFile);
+        return;
+      }
+      // written aside and renamed into place, so readers never see a partial summary
+      final Path tempFile = dir.resolve("." + ParquetFileWriter.PARQUET_METADATA_FILE + ".inprogress");
+      try (final PositionOutputStream out = nioPathToOutputFile(tempFile).createOrOverwrite(0)) {
+        serializeMetadata(footer, out);
+      }
+      try {
+        Files.move(tempFile, summaryFile, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, summaryFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      ParquetFooterCache.invalidate(summaryFile);
+    }
+  }
+}
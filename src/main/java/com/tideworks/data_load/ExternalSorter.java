@@ -0,0 +1,357 @@
+/* ExternalSorter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryData;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts the records of a sink by key fields in bounded memory: an external merge sort.
+ * Records are kept in Avro binary encoding - each as the encoding of its key fields
+ * followed by that of the whole record - and compared on the encoded keys by
+ * BinaryData.compare(), so sorting decodes nothing. Whenever the buffered encodings reach
+ * the memory limit they are sorted and spilled to a temp file as a run; the runs are then
+ * merged k ways (in more than one pass if there are over MAX_MERGE_FAN_IN of them) as the
+ * sorted records are drained through the sink interface.
+ * <p>
+ * Records sorted by the columns queries filter on give row groups whose min/max
+ * statistics barely overlap, so predicates skip more of them, and columns whose runs of
+ * like values compress (and dictionary encode) better.
+ */
+final class ExternalSorter implements DataLoad.GenericDataRecordSink, Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSorter.class.getSimpleName());
+  static final long DEFAULT_MAX_MEMORY_BYTES = Math.min(256L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 4);
+  private static final int MAX_MERGE_FAN_IN = 64;
+  private static final int IO_BUF_SIZE = 256 * 1024;
+  private static final int ENTRY_OVERHEAD = 64; // object headers and references per buffered record
+
+  /**
+   * The key fields to sort by and the memory to sort in.
+   */
+  static final class SortOrder {
+    final List<String> keys;
+    final long maxMemoryBytes;
+    final Path tempDir;
+
+    /**
+     * @param keys top-level field names, each prefixed with '-' to sort it descending
+     */
+    SortOrder(@Nonnull List<String> keys, long maxMemoryBytes, @Nonnull Path tempDir) {
+      if (keys.isEmpty() || maxMemoryBytes <= 0) {
+        throw new IllegalArgumentException("sort order needs at least one key and a positive memory limit");
+      }
+      this.keys = keys;
+      this.maxMemoryBytes = maxMemoryBytes;
+      this.tempDir = tempDir;
+    }
+
+    /**
+     * @param keys comma separated top-level field names, each prefixed with '-' to sort
+     *             it descending
+     */
+    static SortOrder parse(@Nonnull String keys, long maxMemoryBytes) {
+      return new SortOrder(Arrays.asList(keys.trim().split("\\s*,\\s*")), maxMemoryBytes,
+              Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    @Override
+    public String toString() {
+      return String.join(",", keys);
+    }
+  }
+
+  /**
+   * A record as buffered and spilled: its encoded key and the encoding of the record.
+   */
+  private static final class Entry {
+    final byte[] key;
+    final byte[] record;
+
+    Entry(byte[] key, byte[] record) {
+      this.key = key;
+      this.record = record;
+    }
+  }
+
+  private final Schema keySchema;
+  private final SortOrder order;
+  private final Comparator<Entry> comparator;
+  private final GenericDatumWriter<GenericData.Record> keyWriter;
+  private final GenericDatumWriter<GenericData.Record> recordWriter;
+  private final GenericDatumReader<GenericData.Record> recordReader;
+  private final int[] keyFields;
+  private final GenericData.Record key;
+  private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(1024);
+  private BinaryEncoder encoder;
+  private BinaryDecoder decoder;
+  private GenericData.Record reuse;
+  private final List<Entry> buffer = new ArrayList<>();
+  private long bufferedBytes = 0;
+  private final List<Path> runs = new ArrayList<>();
+  private final List<RunReader> openRuns = new ArrayList<>();
+  private Iterator<Entry> sorted;
+  private long recordCount = 0;
+
+  private ExternalSorter(Schema schema, SortOrder order) {
+    this.order = order;
+    final List<Schema.Field> fields = new ArrayList<>(order.keys.size());
+    this.keyFields = new int[order.keys.size()];
+    for (int i = 0; i < order.keys.size(); i++) {
+      final boolean descending = order.keys.get(i).startsWith("-");
+      final String name = descending ? order.keys.get(i).substring(1) : order.keys.get(i);
+      final Schema.Field field = schema.getField(name);
+      if (field == null) {
+        throw new IllegalArgumentException(String.format("no sort key field \"%s\" in schema %s", name,
+                schema.getFullName()));
+      }
+      keyFields[i] = field.pos();
+      fields.add(new Schema.Field(field.name(), field.schema(), null, (Object) null,
+              descending ? Schema.Field.Order.DESCENDING : Schema.Field.Order.ASCENDING));
+    }
+    this.keySchema = Schema.createRecord(schema.getName() + "SortKey", null, schema.getNamespace(), false, fields);
+    this.comparator = (a, b) -> BinaryData.compare(a.key, 0, b.key, 0, keySchema);
+    this.keyWriter = new GenericDatumWriter<>(keySchema);
+    this.recordWriter = new GenericDatumWriter<>(schema);
+    this.recordReader = new GenericDatumReader<>(schema);
+    this.key = new GenericData.Record(keySchema);
+  }
+
+  /**
+   * Takes in all the records of source, spilling sorted runs as the memory limit is
+   * reached; the sorted records are then read through the sink interface of the sorter
+   * returned, which must be closed to delete the runs.
+   */
+  static ExternalSorter sort(@Nonnull Schema schema, @Nonnull SortOrder order,
+                             @Nonnull DataLoad.GenericDataRecordSink source) throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final ExternalSorter sorter = new ExternalSorter(schema, order);
+    try {
+      //noinspection StatementWithEmptyBody
+      do ; while(source.accept(sorter::add));
+      sorter.finishInput();
+    } catch (IOException|RuntimeException e) {
+      sorter.close();
+      throw e;
+    }
+    LOGGER.info("sorted {} records by {} in {} ms: {} runs to merge", sorter.recordCount, order,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), sorter.runs.size());
+    return sorter;
+  }
+
+  long getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public boolean accept(DataLoad.WriteGenericDataRecord writer) throws IOException {
+    if (!sorted.hasNext()) return false;
+    final Entry entry = sorted.next();
+    decoder = DecoderFactory.get().binaryDecoder(entry.record, decoder);
+    reuse = recordReader.read(reuse, decoder);
+    writer.write(reuse);
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (final RunReader run : openRuns) {
+      run.close();
+    }
+    openRuns.clear();
+    for (final Path run : runs) {
+      Files.deleteIfExists(run);
+    }
+    runs.clear();
+    buffer.clear();
+  }
+
+  private void add(GenericData.Record record) throws IOException {
+    for (int i = 0; i < keyFields.length; i++) {
+      key.put(i, record.get(keyFields[i]));
+    }
+    final Entry entry = new Entry(encode(keyWriter, key), encode(recordWriter, record));
+    buffer.add(entry);
+    recordCount++;
+    bufferedBytes += entry.key.length + entry.record.length + ENTRY_OVERHEAD;
+    if (bufferedBytes >= order.maxMemoryBytes) {
+      spill();
+    }
+  }
+
+  private byte[] encode(GenericDatumWriter<GenericData.Record> writer, GenericData.Record record) throws IOException {
+    encoded.reset();
+    encoder = EncoderFactory.get().binaryEncoder(encoded, encoder);
+    writer.write(record, encoder);
+    encoder.flush();
+    return encoded.toByteArray();
+  }
+
+  private void spill() throws IOException {
+    if (buffer.isEmpty()) return;
+    final long startTime = System.nanoTime();
+    buffer.sort(comparator);
+    final Path run = writeRun(buffer.iterator());
+    LOGGER.debug("spilled run {} of {} records ({} bytes) to \"{}\" in {} ms", runs.size(), buffer.size(),
+            bufferedBytes, run, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    buffer.clear();
+    bufferedBytes = 0;
+  }
+
+  private Path writeRun(Iterator<Entry> entries) throws IOException {
+    final Path run = Files.createTempFile(order.tempDir, "sort-run-", ".bin");
+    runs.add(run);
+    try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(run), IO_BUF_SIZE)) {
+      final BinaryEncoder runEncoder = EncoderFactory.get().directBinaryEncoder(out, null);
+      while (entries.hasNext()) {
+        final Entry entry = entries.next();
+        runEncoder.writeBytes(entry.key);
+        runEncoder.writeBytes(entry.record);
+      }
+      runEncoder.flush();
+    }
+    return run;
+  }
+
+  private void finishInput() throws IOException {
+    if (runs.isEmpty()) {
+      // all of it fit in memory
+      buffer.sort(comparator);
+      sorted = buffer.iterator();
+      return;
+    }
+    spill();
+    // merged down to at most MAX_MERGE_FAN_IN runs, each pass merging the oldest into one
+    while (runs.size() > MAX_MERGE_FAN_IN) {
+      final List<Path> merging = new ArrayList<>(runs.subList(0, MAX_MERGE_FAN_IN));
+      runs.subList(0, MAX_MERGE_FAN_IN).clear();
+      final List<RunReader> readers = open(merging);
+      try {
+        writeRun(merge(readers));
+      } finally {
+        for (final RunReader reader : readers) {
+          reader.close();
+        }
+        openRuns.removeAll(readers);
+        for (final Path run : merging) {
+          Files.deleteIfExists(run);
+        }
+      }
+    }
+    sorted = merge(open(runs));
+  }
+
+  private List<RunReader> open(List<Path> paths) throws IOException {
+    final List<RunReader> readers = new ArrayList<>(paths.size());
+    for (final Path path : paths) {
+      final RunReader reader = new RunReader(path);
+      openRuns.add(reader);
+      readers.add(reader);
+    }
+    return readers;
+  }
+
+  /**
+   * @return the entries of the runs in key order, by way of a heap holding the current
+   * entry of each run
+   */
+  private Iterator<Entry> merge(List<RunReader> readers) throws IOException {
+    final PriorityQueue<RunReader> heap = new PriorityQueue<>(Math.max(readers.size(), 1),
+            (a, b) -> comparator.compare(a.current, b.current));
+    for (final RunReader reader : readers) {
+      if (reader.advance()) heap.add(reader);
+    }
+    return new Iterator<Entry>() {
+      @Override
+      public boolean hasNext() {
+        return !heap.isEmpty();
+      }
+
+      @Override
+      public Entry next() {
+        final RunReader reader = heap.poll();
+        final Entry entry = reader.current;
+        try {
+          if (reader.advance()) heap.add(reader);
+        } catch (IOException e) {
+          uncheckedExceptionThrow(e);
+        }
+        return entry;
+      }
+    };
+  }
+
+  @SuppressWarnings({"unchecked", "UnusedReturnValue"})
+  private static <T extends Throwable, R> R uncheckedExceptionThrow(Throwable t) throws T {
+    throw (T) t;
+  }
+
+  /**
+   * Reads back the entries of a spilled run in order.
+   */
+  private static final class RunReader implements Closeable {
+    private final InputStream in;
+    private final BinaryDecoder runDecoder;
+    private ByteBuffer bytes;
+    Entry current;
+
+    RunReader(Path run) throws IOException {
+      this.in = Files.newInputStream(run);
+      this.runDecoder = new DecoderFactory().configureDecoderBufferSize(IO_BUF_SIZE).binaryDecoder(in, null);
+    }
+
+    boolean advance() throws IOException {
+      if (runDecoder.isEnd()) {
+        current = null;
+        return false;
+      }
+      final byte[] key = readBytes();
+      current = new Entry(key, readBytes());
+      return true;
+    }
+
+    private byte[] readBytes() throws IOException {
+      bytes = runDecoder.readBytes(bytes);
+      final byte[] array = new byte[bytes.remaining()];
+      bytes.get(array);
+      return array;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
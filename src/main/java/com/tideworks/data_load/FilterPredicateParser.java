@@ -0,0 +1,244 @@
+/* FilterPredicateParser.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parses a predicate expression into a Parquet FilterPredicate, typing each comparison by
+ * the column it names in the file schema - so the predicate can be pushed down to skip
+ * row groups by their statistics and dictionaries. The grammar:
+ * <pre>
+ *   expr       := and-expr ( OR and-expr )*
+ *   and-expr   := unary ( AND unary )*
+ *   unary      := NOT unary | '(' expr ')' | comparison
+ *   comparison := column ( '=' | '==' | '!=' | '&lt;&gt;' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=' ) literal
+ *               | column IS [NOT] NULL
+ * </pre>
+ * Keywords are case insensitive; a column is a (dotted, for a nested field) column path;
+ * a literal is a number, true or false, or a single or double quoted string.
+ */
+final class FilterPredicateParser {
+  private final String text;
+  private final MessageType schema;
+  private final Set<String> columns = new LinkedHashSet<>();
+  private int pos = 0;
+
+  private FilterPredicateParser(String text, MessageType schema) {
+    this.text = text;
+    this.schema = schema;
+  }
+
+  static FilterPredicateParser parser(@Nonnull String expression, @Nonnull MessageType schema) {
+    return new FilterPredicateParser(expression, schema);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the expression is malformed or does not fit the schema
+   */
+  FilterPredicate parse() {
+    final FilterPredicate predicate = parseOr();
+    skipSpace();
+    if (pos < text.length()) throw error("unexpected text");
+    return predicate;
+  }
+
+  /**
+   * @return the paths of the columns the parsed predicate refers to
+   */
+  Set<String> getColumns() {
+    return columns;
+  }
+
+  private FilterPredicate parseOr() {
+    FilterPredicate predicate = parseAnd();
+    while (keyword("or")) {
+      predicate = FilterApi.or(predicate, parseAnd());
+    }
+    return predicate;
+  }
+
+  private FilterPredicate parseAnd() {
+    FilterPredicate predicate = parseUnary();
+    while (keyword("and")) {
+      predicate = FilterApi.and(predicate, parseUnary());
+    }
+    return predicate;
+  }
+
+  private FilterPredicate parseUnary() {
+    if (keyword("not")) return FilterApi.not(parseUnary());
+    if (symbol("(")) {
+      final FilterPredicate predicate = parseOr();
+      if (!symbol(")")) throw error("expected ')'");
+      return predicate;
+    }
+    return parseComparison();
+  }
+
+  private FilterPredicate parseComparison() {
+    final int columnPos = skipSpace();
+    final String column = identifier();
+    if (column == null) throw error("expected a column");
+    final Type type = schema.containsPath(column.split("\\.")) ? schema.getType(column.split("\\.")) : null;
+    if (type == null || !type.isPrimitive()) {
+      pos = columnPos;
+      throw error("no primitive column \"" + column + "\" in the schema");
+    }
+    columns.add(column);
+    final PrimitiveType.PrimitiveTypeName typeName = type.asPrimitiveType().getPrimitiveTypeName();
+    if (keyword("is")) {
+      final boolean negated = keyword("not");
+      if (!keyword("null")) throw error("expected NULL");
+      return negated ? notEq(column, typeName, null) : eq(column, typeName, null);
+    }
+    final String op = operator();
+    final Comparable<?> value = literal(typeName);
+    switch (op) {
+      case "=": case "==": return eq(column, typeName, value);
+      case "!=": case "<>": return notEq(column, typeName, value);
+      default: return compare(op, column, typeName, value);
+    }
+  }
+
+  private static FilterPredicate eq(String column, PrimitiveType.PrimitiveTypeName type, Comparable<?> value) {
+    switch (type) {
+      case INT32:   return FilterApi.eq(FilterApi.intColumn(column), (Integer) value);
+      case INT64:   return FilterApi.eq(FilterApi.longColumn(column), (Long) value);
+      case FLOAT:   return FilterApi.eq(FilterApi.floatColumn(column), (Float) value);
+      case DOUBLE:  return FilterApi.eq(FilterApi.doubleColumn(column), (Double) value);
+      case BOOLEAN: return FilterApi.eq(FilterApi.booleanColumn(column), (Boolean) value);
+      default:      return FilterApi.eq(FilterApi.binaryColumn(column), (Binary) value);
+    }
+  }
+
+  private static FilterPredicate notEq(String column, PrimitiveType.PrimitiveTypeName type, Comparable<?> value) {
+    switch (type) {
+      case INT32:   return FilterApi.notEq(FilterApi.intColumn(column), (Integer) value);
+      case INT64:   return FilterApi.notEq(FilterApi.longColumn(column), (Long) value);
+      case FLOAT:   return FilterApi.notEq(FilterApi.floatColumn(column), (Float) value);
+      case DOUBLE:  return FilterApi.notEq(FilterApi.doubleColumn(column), (Double) value);
+      case BOOLEAN: return FilterApi.notEq(FilterApi.booleanColumn(column), (Boolean) value);
+      default:      return FilterApi.notEq(FilterApi.binaryColumn(column), (Binary) value);
+    }
+  }
+
+  private FilterPredicate compare(String op, String column, PrimitiveType.PrimitiveTypeName type,
+                                  Comparable<?> value)
+  {
+    switch (type) {
+      case INT32:   return compare(op, FilterApi.intColumn(column), (Integer) value);
+      case INT64:   return compare(op, FilterApi.longColumn(column), (Long) value);
+      case FLOAT:   return compare(op, FilterApi.floatColumn(column), (Float) value);
+      case DOUBLE:  return compare(op, FilterApi.doubleColumn(column), (Double) value);
+      case BOOLEAN: throw error("booleans can only be compared for (in)equality");
+      default:      return compare(op, FilterApi.binaryColumn(column), (Binary) value);
+    }
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+  FilterPredicate compare(String op, C column, T value) {
+    switch (op) {
+      case "<":  return FilterApi.lt(column, value);
+      case "<=": return FilterApi.ltEq(column, value);
+      case ">":  return FilterApi.gt(column, value);
+      default:   return FilterApi.gtEq(column, value);
+    }
+  }
+
+  private Comparable<?> literal(PrimitiveType.PrimitiveTypeName type) {
+    final int start = skipSpace();
+    if (pos < text.length() && (text.charAt(pos) == '\'' || text.charAt(pos) == '"')) {
+      final char quote = text.charAt(pos++);
+      final int end = text.indexOf(quote, pos);
+      if (end < 0) throw error("unterminated string");
+      final String value = text.substring(pos, end);
+      pos = end + 1;
+      if (type != PrimitiveType.PrimitiveTypeName.BINARY && type != PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+        pos = start;
+        throw error("expected a " + type + " literal");
+      }
+      return Binary.fromString(value);
+    }
+    while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || "+-.".indexOf(text.charAt(pos)) >= 0)) {
+      pos++;
+    }
+    final String value = text.substring(start, pos);
+    try {
+      switch (type) {
+        case INT32:   return Integer.valueOf(value);
+        case INT64:   return Long.valueOf(value);
+        case FLOAT:   return Float.valueOf(value);
+        case DOUBLE:  return Double.valueOf(value);
+        case BOOLEAN:
+          if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) return Boolean.valueOf(value);
+          break;
+        default:
+          break;
+      }
+    } catch (NumberFormatException ignored) {
+      // reported below
+    }
+    pos = start;
+    throw error("expected a " + type + " literal");
+  }
+
+  private String operator() {
+    skipSpace();
+    for (final String op : new String[] { "==", "!=", "<>", "<=", ">=", "=", "<", ">" }) {
+      if (text.startsWith(op, pos)) {
+        pos += op.length();
+        return op;
+      }
+    }
+    throw error("expected a comparison operator");
+  }
+
+  private String identifier() {
+    final int start = skipSpace();
+    while (pos < text.length()
+            && (Character.isLetterOrDigit(text.charAt(pos)) || "_$.".indexOf(text.charAt(pos)) >= 0)) {
+      pos++;
+    }
+    return pos > start ? text.substring(start, pos) : null;
+  }
+
+  private boolean keyword(String keyword) {
+    final int start = skipSpace();
+    final String word = identifier();
+    if (word != null && word.toLowerCase(Locale.ROOT).equals(keyword)) return true;
+    pos = start;
+    return false;
+  }
+
+  private boolean symbol(String symbol) {
+    skipSpace();
+    if (!text.startsWith(symbol, pos)) return false;
+    pos += symbol.length();
+    return true;
+  }
+
+  private int skipSpace() {
+    while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    return pos;
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(String.format("predicate \"%s\": %s at position %d", text, message, pos));
+  }
+}
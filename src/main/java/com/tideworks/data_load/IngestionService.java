@@ -0,0 +1,413 @@
+/* IngestionService.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Long-running mode that converts the files dropped into one or more inbox directories
+ * to Parquet, in one JVM: .avro files per the schema they carry, .json/.jsonl/.ndjson
+ * files per the schema inferred from them, and .csv files per a schema parsed once at
+ * start up.
+ * <p>
+ * A file is claimed by an atomic rename into a directory of the service's own under
+ * the .processing directory of its inbox, so any number of services may watch the same
+ * inbox and each file is converted once. It is converted to a hidden temporary file of
+ * its own in the output directory, which is then renamed to name.parquet, and the input
+ * is deleted; an input that fails to convert is moved to the .failed directory of its
+ * inbox instead. Files are only claimed as a worker is free to take them, so a backlog
+ * waits in the inbox. Producers should write their files under a hidden (.name) or
+ * .tmp/.part name and rename them into place once complete - such names are ignored.
+ * <p>
+ * Inputs that map to the same output name (a.csv and a.json, or a.csv in two inboxes)
+ * are converted one after the other, in the order they arrived, and each replaces the
+ * output of the one before - a later delivery of a data set supersedes the earlier one.
+ * Across services sharing an output directory, the last to finish wins.
+ * <p>
+ * A service holds a lock on a file in its claims directory while it runs. On start up,
+ * claims directories whose lock can be taken belong to services that were killed, and
+ * their files go back to the inbox; those of live services are left alone.
+ * <p>
+ * The conversions share the process-wide ParquetWriterPool and, with
+ * --adaptive-sample, the encoding chosen for each schema (see DataLoad). Each input is
+ * converted to a single file, so --checkpoint-mb does not apply and is refused. On
+ * shutdown (SIGTERM, Ctrl-C) no more files are claimed and those in flight are finished.
+ */
+final class IngestionService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IngestionService.class.getSimpleName());
+  static final String USAGE = "watch <output-dir> <inbox-dir>[,<inbox-dir>...] [workers [csv-schema]]";
+  static final String PROCESSING_DIR = ".processing";
+  static final String FAILED_DIR = ".failed";
+  private static final String CLAIMS_PREFIX = "claims-";
+  private static final String LOCK_FILE = ".lock";
+  private static final long POLL_MILLIS = 1000;
+
+  private final Path outDir;
+  private final List<Path> inboxes;
+  private final Schema csvSchema;
+  private final int decodeThreads;
+  private final ExecutorService workers;
+  private final Semaphore idleWorkers;
+  private final WatchService watcher;
+  private final Set<Path> pending = new LinkedHashSet<>(); // arrived, not yet claimed
+  private final Set<Path> outputsInFlight = ConcurrentHashMap.newKeySet();
+  private final Map<Path, Path> claimsDirs = new HashMap<>(); // by inbox
+  private final List<FileChannel> claimLocks = new ArrayList<>();
+  private final CountDownLatch drained = new CountDownLatch(1);
+  private final AtomicLong converted = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private volatile boolean stopping = false;
+
+  /**
+   * Command line entry: output directory, comma separated inbox directories, worker
+   * count (default: a quarter of the available processors, at least 1) and the schema
+   * of .csv files - an .avsc file, else a resource as loaded by DataLoad.loadSchema()
+   * (default: the sample schema). Runs until the process is terminated.
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    if (DataLoad.isCheckpointing() || DataLoad.isRolling()) {
+      // would turn each per-file output into a directory of part files
+      throw new IllegalArgumentException("--checkpoint-mb and --roll-* options do not apply to watch mode");
+    }
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final int workerCount = args.length > 2 ? Integer.parseUnsignedInt(args[2]) : Math.max(cores / 4, 1);
+    final Schema csvSchema = DataLoad.loadSchema(args.length > 3 ? args[3] : DataLoad.SCHEMA_FILE_NAME);
+    final List<Path> inboxes = new ArrayList<>();
+    for (final String inbox : args[1].split(",")) {
+      inboxes.add(Paths.get(inbox));
+    }
+    final IngestionService service = new IngestionService(Paths.get(args[0]), inboxes, csvSchema, workerCount);
+    Runtime.getRuntime().addShutdownHook(new Thread(service::stop, "ingestion-shutdown"));
+    service.serve();
+  }
+
+  IngestionService(@Nonnull Path outDir, @Nonnull List<Path> inboxes, @Nonnull Schema csvSchema, int workerCount)
+          throws IOException
+  {
+    if (workerCount <= 0 || inboxes.isEmpty()) {
+      throw new IllegalArgumentException("need at least one inbox and one worker");
+    }
+    this.outDir = outDir;
+    this.inboxes = inboxes;
+    this.csvSchema = csvSchema;
+    // the conversions of all workers together use the cores once
+    this.decodeThreads = Math.max(Runtime.getRuntime().availableProcessors() / workerCount, 1);
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.workers = Executors.newFixedThreadPool(workerCount,
+            task -> new Thread(task, "ingestion-worker-" + threadCount.incrementAndGet()));
+    this.idleWorkers = new Semaphore(workerCount);
+    this.watcher = FileSystems.getDefault().newWatchService();
+  }
+
+  /**
+   * Watches the inboxes and converts what arrives until stop() is called, then waits
+   * for the conversions in flight.
+   */
+  void serve() throws IOException {
+    try {
+      Files.createDirectories(outDir);
+      for (final Path inbox : inboxes) {
+        Files.createDirectories(inbox.resolve(FAILED_DIR));
+        requeueAbandoned(inbox);
+        claimsDirs.put(inbox, createClaimsDir(inbox));
+        inbox.register(watcher, ENTRY_CREATE);
+        scan(inbox); // what arrived while no one was watching
+      }
+      LOGGER.info("watching {} for files to convert to \"{}\"", inboxes, outDir);
+      while (!stopping) {
+        dispatchPending();
+        final WatchKey key = pending.isEmpty() ? watcher.take() : watcher.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (key == null) continue;
+        final Path inbox = (Path) key.watchable();
+        for (final WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == OVERFLOW) {
+            scan(inbox);
+          } else {
+            offer(inbox.resolve((Path) event.context()));
+          }
+        }
+        key.reset();
+      }
+    } catch (ClosedWatchServiceException e) {
+      // stop() closed the watcher
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      drain();
+    }
+  }
+
+  /**
+   * Stops claiming files and waits until those claimed are converted.
+   */
+  void stop() {
+    if (stopping) return;
+    stopping = true;
+    LOGGER.info("stopping: finishing the conversions in flight");
+    try {
+      watcher.close();
+      drained.await();
+    } catch (IOException e) {
+      LOGGER.warn("failed closing the watch service: {}", e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    workers.shutdown();
+    try {
+      while (!workers.awaitTermination(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        LOGGER.debug("waiting on conversions in flight");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      releaseClaimsDirs();
+      LOGGER.info("stopped: converted {} files, {} failed", converted.get(), failed.get());
+      drained.countDown();
+    }
+  }
+
+  private void scan(Path inbox) throws IOException {
+    try (final DirectoryStream<Path> files = Files.newDirectoryStream(inbox)) {
+      for (final Path file : files) {
+        offer(file);
+      }
+    }
+  }
+
+  private void offer(Path file) {
+    final String name = file.getFileName().toString();
+    if (name.startsWith(".") || name.endsWith(".tmp") || name.endsWith(".part")) return;
+    if (formatOf(file) == null) {
+      LOGGER.debug("ignoring \"{}\": not an .avro, .json, .jsonl, .ndjson or .csv file", file);
+      return;
+    }
+    pending.add(file);
+  }
+
+  // claims pending files while there are workers free to convert them
+  private void dispatchPending() {
+    for (final Iterator<Path> it = pending.iterator(); it.hasNext(); ) {
+      final Path file = it.next();
+      final Path outFile = outputOf(file);
+      // left pending while an input of the same output name is converted
+      if (!outputsInFlight.add(outFile)) continue;
+      if (!idleWorkers.tryAcquire()) {
+        outputsInFlight.remove(outFile);
+        return;
+      }
+      it.remove();
+      final Path claimed;
+      try {
+        claimed = claim(file);
+      } catch (IOException e) {
+        outputsInFlight.remove(outFile);
+        idleWorkers.release();
+        LOGGER.warn("failed to claim \"{}\": {}", file, e.toString());
+        continue;
+      }
+      if (claimed == null) {
+        outputsInFlight.remove(outFile);
+        idleWorkers.release();
+        continue;
+      }
+      workers.execute(() -> {
+        try {
+          convert(file.getParent(), claimed, outFile);
+        } finally {
+          outputsInFlight.remove(outFile);
+          idleWorkers.release(); // the watch loop polls for it while files are pending
+        }
+      });
+    }
+  }
+
+  private Path outputOf(Path file) {
+    final String name = file.getFileName().toString();
+    return outDir.resolve(name.substring(0, name.lastIndexOf('.')) + ".parquet");
+  }
+
+  /**
+   * @return the file as renamed into this service's claims directory, or null if it is
+   * gone - claimed by another service, or an event for a file since deleted or renamed
+   */
+  private Path claim(Path file) throws IOException {
+    if (!Files.isRegularFile(file)) return null;
+    final Path claimed = claimsDirs.get(file.getParent()).resolve(file.getFileName());
+    try {
+      return Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  // a claims directory of this service's own, locked for as long as the service runs
+  private Path createClaimsDir(Path inbox) throws IOException {
+    final Path claimsDir = Files.createTempDirectory(Files.createDirectories(inbox.resolve(PROCESSING_DIR)),
+            CLAIMS_PREFIX);
+    final FileChannel lockFile = FileChannel.open(claimsDir.resolve(LOCK_FILE), CREATE_NEW, WRITE);
+    try {
+      lockFile.lock();
+    } catch (IOException|RuntimeException e) {
+      lockFile.close();
+      throw e;
+    }
+    claimLocks.add(lockFile);
+    return claimsDir;
+  }
+
+  // empty once the conversions in flight are done
+  private void releaseClaimsDirs() {
+    for (final Path claimsDir : claimsDirs.values()) {
+      try {
+        Files.delete(claimsDir.resolve(LOCK_FILE));
+        Files.delete(claimsDir);
+      } catch (IOException e) {
+        LOGGER.warn("failed to remove claims directory \"{}\": {}", claimsDir, e.toString());
+      }
+    }
+    for (final FileChannel lockFile : claimLocks) {
+      try {
+        lockFile.close(); // releases the lock
+      } catch (IOException e) {
+        LOGGER.warn("failed to release claims lock: {}", e.toString());
+      }
+    }
+  }
+
+  // the files of claims directories whose service is gone - their lock is free - go back to the inbox
+  private static void requeueAbandoned(Path inbox) throws IOException {
+    final Path processingDir = Files.createDirectories(inbox.resolve(PROCESSING_DIR));
+    try (final DirectoryStream<Path> claimsDirs = Files.newDirectoryStream(processingDir, CLAIMS_PREFIX + "*")) {
+      for (final Path claimsDir : claimsDirs) {
+        try (final FileChannel lockFile = FileChannel.open(claimsDir.resolve(LOCK_FILE), WRITE)) {
+          final FileLock lock = lockFile.tryLock();
+          if (lock == null) continue; // a live service
+          try (final DirectoryStream<Path> files = Files.newDirectoryStream(claimsDir)) {
+            for (final Path file : files) {
+              if (file.getFileName().toString().equals(LOCK_FILE)) continue;
+              LOGGER.warn("\"{}\" was claimed but not converted - returning it to the inbox", file);
+              Files.move(file, inbox.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            }
+          }
+          Files.delete(claimsDir.resolve(LOCK_FILE));
+          Files.delete(claimsDir);
+        } catch (OverlappingFileLockException e) {
+          // held by another service in this same JVM
+        } catch (NoSuchFileException e) {
+          // cleared up by its service, or by another one starting up
+        }
+      }
+    }
+  }
+
+  private void convert(Path inbox, Path claimed, Path outFile) {
+    final String name = claimed.getFileName().toString();
+    final String baseName = name.substring(0, name.lastIndexOf('.'));
+    Path tempFile = null;
+    try {
+      // a name of its own, as several inputs may share a base name
+      tempFile = Files.createTempFile(outDir, "." + baseName + "-",
+              ".parquet" + RollingParquetWriter.IN_PROGRESS_SUFFIX);
+      switch (formatOf(claimed)) {
+        case "avro":
+          AvroFileConverter.convert(claimed, tempFile, decodeThreads, 1);
+          break;
+        case "json":
+          JsonFileConverter.convert(claimed, tempFile, decodeThreads, 1, JsonSchemaInference.DEFAULT_SAMPLE_SIZE);
+          break;
+        default:
+          CsvFileConverter.convert(claimed, tempFile, csvSchema, decodeThreads, 1, true);
+          break;
+      }
+      if (Files.exists(outFile)) {
+        LOGGER.info("the output of \"{}\" replaces the earlier \"{}\"", claimed, outFile);
+      }
+      publish(tempFile, outFile);
+    } catch (Throwable e) {
+      failed.incrementAndGet();
+      LOGGER.error(String.format("failed converting \"%s\" - moving it to %s", claimed, FAILED_DIR), e);
+      try {
+        if (tempFile != null) Files.deleteIfExists(tempFile);
+        Files.move(claimed, inbox.resolve(FAILED_DIR).resolve(name), StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException moveFailure) {
+        LOGGER.error("failed to move \"{}\" out of the way: {}", claimed, moveFailure.toString());
+      }
+      return;
+    }
+    converted.incrementAndGet();
+    LOGGER.info("published \"{}\"", outFile);
+    try {
+      Files.delete(claimed);
+    } catch (IOException e) {
+      // converted all the same - the input is left in the claims directory
+      LOGGER.warn("failed to delete converted input \"{}\": {}", claimed, e.toString());
+    }
+  }
+
+  private static void publish(Path tempFile, Path outFile) throws IOException {
+    try {
+      Files.move(tempFile, outFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempFile, outFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  static String formatOf(@Nonnull Path file) {
+    final String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (name.endsWith(".avro")) return "avro";
+    if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) return "json";
+    if (name.endsWith(".csv")) return "csv";
+    return null;
+  }
+}
@@ -0,0 +1,70 @@
+/* JsonFileConverter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.DataLoad.writeRecordsToParquet;
+
+/**
+ * Converts JSON-lines files (one JSON object per line) to Parquet. The Avro schema is
+ * inferred from the leading lines of the file (see JsonSchemaInference); the file is
+ * then streamed through a JsonLinesReader, parsing on a pool of threads while the
+ * calling thread encodes Parquet (or, given more than one writer thread, hands records
+ * on to a ParallelParquetWriter). Memory use does not grow with the size of the file.
+ */
+final class JsonFileConverter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JsonFileConverter.class.getSimpleName());
+  static final String USAGE =
+          "json <input.jsonl> <output.parquet | output-dir> [parse-threads [writer-threads [sample-lines]]]";
+
+  /**
+   * Command line entry: input file, output file (or directory when more than one
+   * writer thread), parse thread count (default: available processors), writer thread
+   * count (default: 1) and number of lines to infer the schema from.
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final int parseThreads = args.length > 2 ? Integer.parseUnsignedInt(args[2]) : cores;
+    final int writerThreads = args.length > 3 ? Integer.parseUnsignedInt(args[3]) : 1;
+    final int sampleSize = args.length > 4 ? Integer.parseUnsignedInt(args[4]) : JsonSchemaInference.DEFAULT_SAMPLE_SIZE;
+    convert(Paths.get(args[0]), Paths.get(args[1]), parseThreads, writerThreads, sampleSize);
+  }
+
+  /**
+   * @return the number of records converted
+   */
+  static long convert(@Nonnull final Path jsonFile, @Nonnull final Path parquetPath, final int parseThreads,
+                      final int writerThreads, final int sampleSize) throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final String baseName = jsonFile.getFileName().toString().replaceFirst("\\.(jsonl|ndjson|json)$", "");
+    final Schema schema = JsonSchemaInference.inferSchema(jsonFile, baseName, sampleSize);
+    LOGGER.info("schema inferred from the first {} lines of \"{}\":\n{}", sampleSize, jsonFile, schema.toString(true));
+    try (final JsonLinesReader reader = JsonLinesReader.open(jsonFile, schema, parseThreads)) {
+      writeRecordsToParquet(schema, parquetPath, baseName, writerThreads, reader);
+      if (reader.getSkippedValueCount() > 0) {
+        LOGGER.warn("{}: skipped {} values of fields not seen in the first {} lines", jsonFile,
+                reader.getSkippedValueCount(), sampleSize);
+      }
+      LOGGER.info("converted {} records from \"{}\" to \"{}\" in {} ms", reader.getRecordCount(), jsonFile,
+              parquetPath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      return reader.getRecordCount();
+    }
+  }
+}
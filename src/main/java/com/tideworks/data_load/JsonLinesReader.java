@@ -0,0 +1,262 @@
+/* JsonLinesReader.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonLocation;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads a JSON-lines file (one JSON object per line) into records of a given schema,
+ * typically one inferred by JsonSchemaInference. The reading thread only cuts the input
+ * into chunks of whole lines; the chunks are parsed with Jackson's streaming parser - no
+ * intermediate tree - on a pool of threads (see ParallelRecordDecoder), while the
+ * consumer encodes Parquet. Records are delivered in file order.
+ * <p>
+ * Fields not in the schema are skipped (and counted). A value that does not fit the
+ * type of its field fails the read, reporting its offset in the file.
+ */
+final class JsonLinesReader implements DataLoad.GenericDataRecordSink, Closeable {
+  static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+  private final Path jsonFile;
+  private final InputStream input;
+  private final int chunkSize;
+  private final ParallelRecordDecoder<Chunk> decoder;
+  private final AtomicLong skippedValues = new AtomicLong();
+  private byte[] carry = new byte[0];
+  private long chunkOffset = 0;
+  private boolean eof = false;
+
+  private JsonLinesReader(Path jsonFile, Schema schema, int parseThreads, int chunkSize) throws IOException {
+    this.jsonFile = jsonFile;
+    this.input = Files.newInputStream(jsonFile);
+    this.chunkSize = chunkSize;
+    final JsonFactory jsonFactory = new JsonFactory();
+    this.decoder = new ParallelRecordDecoder<>(jsonFile.getFileName().toString(), parseThreads, this::readChunk,
+            () -> new ChunkParser(jsonFactory, schema));
+  }
+
+  static JsonLinesReader open(@Nonnull Path jsonFile, @Nonnull Schema schema, int parseThreads) throws IOException {
+    return open(jsonFile, schema, parseThreads, DEFAULT_CHUNK_SIZE);
+  }
+
+  static JsonLinesReader open(@Nonnull Path jsonFile, @Nonnull Schema schema, int parseThreads, int chunkSize)
+          throws IOException
+  {
+    if (parseThreads <= 0 || chunkSize <= 0) {
+      throw new IllegalArgumentException("parse thread count and chunk size must be positive");
+    }
+    return new JsonLinesReader(jsonFile, schema, parseThreads, chunkSize);
+  }
+
+  long getRecordCount() {
+    return decoder.getRecordCount();
+  }
+
+  /**
+   * @return the number of values dropped for belonging to fields not in the schema
+   */
+  long getSkippedValueCount() {
+    return skippedValues.get();
+  }
+
+  /**
+   * Writes all of the records of the next chunk of lines.
+   *
+   * @return false once every line has been delivered
+   */
+  @Override
+  public boolean accept(DataLoad.WriteGenericDataRecord writer) throws IOException {
+    return decoder.accept(writer);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      decoder.close();
+    } finally {
+      input.close();
+    }
+  }
+
+  // runs on the reader thread: fills a chunk and cuts it after its last line break,
+  // carrying any partial line over into the next chunk
+  private Chunk readChunk() throws IOException {
+    if (eof) return null;
+    byte[] buf = new byte[Math.max(chunkSize, 2 * carry.length)];
+    System.arraycopy(carry, 0, buf, 0, carry.length);
+    int len = carry.length;
+    for(;;) {
+      final int n = input.read(buf, len, buf.length - len);
+      if (n < 0) {
+        eof = true;
+        carry = new byte[0];
+        return len > 0 ? nextChunk(buf, len) : null;
+      }
+      len += n;
+      if (len < buf.length) continue;
+      int end = len;
+      while (end > 0 && buf[end - 1] != '\n') end--;
+      if (end > 0) {
+        carry = Arrays.copyOfRange(buf, end, len);
+        return nextChunk(buf, end);
+      }
+      buf = Arrays.copyOf(buf, 2 * buf.length); // a line longer than the chunk
+    }
+  }
+
+  private Chunk nextChunk(byte[] data, int length) {
+    final Chunk chunk = new Chunk(data, length, chunkOffset);
+    chunkOffset += length;
+    return chunk;
+  }
+
+  private static final class Chunk {
+    final byte[] data;
+    final int length;
+    final long fileOffset;
+
+    Chunk(byte[] data, int length, long fileOffset) {
+      this.data = data;
+      this.length = length;
+      this.fileOffset = fileOffset;
+    }
+  }
+
+  private final class ChunkParser implements ParallelRecordDecoder.BatchDecoder<Chunk> {
+    private final JsonFactory jsonFactory;
+    private final Schema schema;
+    private long chunkOffset;
+
+    ChunkParser(JsonFactory jsonFactory, Schema schema) {
+      this.jsonFactory = jsonFactory;
+      this.schema = schema;
+    }
+
+    @Override
+    public List<GenericData.Record> decode(Chunk chunk) throws IOException {
+      chunkOffset = chunk.fileOffset;
+      final List<GenericData.Record> records = new ArrayList<>();
+      try (final JsonParser parser = jsonFactory.createJsonParser(chunk.data, 0, chunk.length)) {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+          if (token != JsonToken.START_OBJECT) {
+            throw mismatch(parser, "expected a JSON object per line, found " + token);
+          }
+          records.add(readRecord(parser, schema));
+        }
+      }
+      return records;
+    }
+
+    // the parser is on START_OBJECT; leaves it on the matching END_OBJECT
+    private GenericData.Record readRecord(JsonParser parser, Schema recordSchema) throws IOException {
+      final GenericData.Record record = new GenericData.Record(recordSchema);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final Schema.Field field = recordSchema.getField(parser.getCurrentName());
+        final JsonToken token = parser.nextToken();
+        if (field == null) {
+          parser.skipChildren();
+          skippedValues.incrementAndGet();
+          continue;
+        }
+        if (token != JsonToken.VALUE_NULL) {
+          record.put(field.pos(), readValue(parser, token, nonNullType(field.schema()), field.name()));
+        }
+      }
+      return record;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token, Schema schema, String name) throws IOException {
+      switch (schema.getType()) {
+        case STRING:
+          return token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY ? toJsonText(parser) : parser.getText();
+        case LONG:
+          if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            return parser.getLongValue();
+          }
+          break;
+        case DOUBLE:
+          if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+          }
+          break;
+        case BOOLEAN:
+          if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+          }
+          break;
+        case RECORD:
+          if (token == JsonToken.START_OBJECT) {
+            return readRecord(parser, schema);
+          }
+          break;
+        case ARRAY:
+          if (token == JsonToken.START_ARRAY) {
+            final List<Object> items = new ArrayList<>();
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+              if (element == JsonToken.VALUE_NULL) {
+                throw mismatch(parser, String.format("null element in array \"%s\"", name));
+              }
+              items.add(readValue(parser, element, schema.getElementType(), name));
+            }
+            return items;
+          }
+          break;
+        default:
+          break;
+      }
+      throw mismatch(parser, String.format("%s value of \"%s\" does not fit the inferred type %s",
+              token, name, schema.getType()));
+    }
+
+    // inferred fields are a union of null and their type
+    private Schema nonNullType(Schema schema) {
+      if (schema.getType() == Schema.Type.UNION) {
+        for (final Schema type : schema.getTypes()) {
+          if (type.getType() != Schema.Type.NULL) return type;
+        }
+      }
+      return schema;
+    }
+
+    private String toJsonText(JsonParser parser) throws IOException {
+      final StringWriter text = new StringWriter();
+      try (final JsonGenerator generator = jsonFactory.createJsonGenerator(text)) {
+        generator.copyCurrentStructure(parser);
+      }
+      return text.toString();
+    }
+
+    private JsonParseException mismatch(JsonParser parser, String message) {
+      final JsonLocation at = parser.getTokenLocation();
+      // depending on the parser Jackson picks, only one of the offsets is tracked
+      final long offset = at.getByteOffset() >= 0 ? at.getByteOffset() : at.getCharOffset();
+      return new JsonParseException(String.format("%s: %s (at file offset %d)", jsonFile, message,
+              chunkOffset + offset), at);
+    }
+  }
+}
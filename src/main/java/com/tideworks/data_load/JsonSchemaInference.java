@@ -0,0 +1,179 @@
+/* JsonSchemaInference.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.Schema;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Infers an Avro record schema from the leading JSON objects of a JSON-lines file.
+ * <p>
+ * Every field is made nullable (a union with null, defaulting to null) since a later
+ * line may omit it. Integers map to long and any other number to double; a field seen
+ * with both is widened to double. Nested objects become nested records and arrays
+ * become arrays of their (merged) element type. Any other mix of types, or a field only
+ * ever seen as null, falls back to string - objects and arrays are then kept as their
+ * JSON text. Field names are taken as is (see ValidateAvroSchema).
+ */
+final class JsonSchemaInference {
+  static final int DEFAULT_SAMPLE_SIZE = 10_000; // leading objects examined
+
+  private enum Kind { NULL, BOOLEAN, LONG, DOUBLE, STRING, RECORD, ARRAY }
+
+  private static final class Node {
+    final Kind kind;
+    final Map<String, Node> fields;
+    final Node items;
+
+    Node(Kind kind, Map<String, Node> fields, Node items) {
+      this.kind = kind;
+      this.fields = fields;
+      this.items = items;
+    }
+  }
+
+  private static final Node NULL = new Node(Kind.NULL, null, null);
+  private static final Node BOOLEAN = new Node(Kind.BOOLEAN, null, null);
+  private static final Node LONG = new Node(Kind.LONG, null, null);
+  private static final Node DOUBLE = new Node(Kind.DOUBLE, null, null);
+  private static final Node STRING = new Node(Kind.STRING, null, null);
+
+  private JsonSchemaInference() {}
+
+  /**
+   * @param recordName  name of the top level record
+   * @param sampleSize  number of leading objects to examine
+   */
+  static Schema inferSchema(@Nonnull Path jsonFile, @Nonnull String recordName, int sampleSize) throws IOException {
+    try (final InputStream input = Files.newInputStream(jsonFile);
+         final JsonParser parser = new JsonFactory().createJsonParser(input))
+    {
+      Node root = null;
+      int objectCount = 0;
+      JsonToken token;
+      while (objectCount < sampleSize && (token = parser.nextToken()) != null) {
+        if (token != JsonToken.START_OBJECT) {
+          throw new JsonParseException("expected a JSON object per line, found " + token, parser.getTokenLocation());
+        }
+        root = merge(root, observe(parser, token));
+        objectCount++;
+      }
+      if (root == null || root.fields.isEmpty()) {
+        throw new IOException("no JSON object fields to infer a schema from: " + jsonFile);
+      }
+      return toSchema(root, recordName, new HashSet<>());
+    }
+  }
+
+  // the parser is on the first token of the value; leaves it on the last
+  private static Node observe(JsonParser parser, JsonToken token) throws IOException {
+    switch (token) {
+      case START_OBJECT: {
+        final Map<String, Node> fields = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String name = parser.getCurrentName();
+          fields.put(name, merge(fields.get(name), observe(parser, parser.nextToken())));
+        }
+        return new Node(Kind.RECORD, fields, null);
+      }
+      case START_ARRAY: {
+        Node items = null;
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+          items = merge(items, observe(parser, element));
+        }
+        return new Node(Kind.ARRAY, null, items != null ? items : NULL);
+      }
+      case VALUE_NUMBER_INT:
+        // beyond a long is kept as its text rather than rounded
+        return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? STRING : LONG;
+      case VALUE_NUMBER_FLOAT:
+        return DOUBLE;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return BOOLEAN;
+      case VALUE_NULL:
+        return NULL;
+      default:
+        return STRING;
+    }
+  }
+
+  private static Node merge(Node a, Node b) {
+    if (a == null || a.kind == Kind.NULL) return b;
+    if (b.kind == Kind.NULL || a == b) return a;
+    if (a.kind == b.kind) {
+      switch (a.kind) {
+        case RECORD: {
+          final Map<String, Node> fields = new LinkedHashMap<>(a.fields);
+          b.fields.forEach((name, node) -> fields.put(name, merge(fields.get(name), node)));
+          return new Node(Kind.RECORD, fields, null);
+        }
+        case ARRAY:
+          return new Node(Kind.ARRAY, null, merge(a.items, b.items));
+        default:
+          return a;
+      }
+    }
+    final Set<Kind> kinds = new HashSet<>(Arrays.asList(a.kind, b.kind));
+    if (kinds.contains(Kind.LONG) && kinds.contains(Kind.DOUBLE)) return DOUBLE;
+    return STRING;
+  }
+
+  private static Schema toSchema(Node node, String name, Set<String> recordNames) {
+    switch (node.kind) {
+      case BOOLEAN:
+        return Schema.create(Schema.Type.BOOLEAN);
+      case LONG:
+        return Schema.create(Schema.Type.LONG);
+      case DOUBLE:
+        return Schema.create(Schema.Type.DOUBLE);
+      case RECORD:
+        if (node.fields.isEmpty()) break; // a Parquet group cannot be empty
+        final List<Schema.Field> fields = new ArrayList<>(node.fields.size());
+        final String recordName = uniqueRecordName(name, recordNames);
+        node.fields.forEach((fieldName, child) -> {
+          final Schema fieldSchema = toSchema(child, recordName + "_" + fieldName, recordNames);
+          fields.add(new Schema.Field(fieldName, Schema.createUnion(Schema.create(Schema.Type.NULL), fieldSchema),
+                  null, JsonProperties.NULL_VALUE));
+        });
+        return Schema.createRecord(recordName, null, null, false, fields);
+      case ARRAY:
+        // elements are not nullable: the (old) Parquet list structure written cannot hold null elements
+        return Schema.createArray(toSchema(node.items, name + "_item", recordNames));
+      default:
+        break;
+    }
+    return Schema.create(Schema.Type.STRING);
+  }
+
+  private static String uniqueRecordName(String name, Set<String> recordNames) {
+    final String base = name.replaceAll("[^A-Za-z0-9_]", "_");
+    String recordName = base;
+    for (int i = 2; !recordNames.add(recordName); i++) {
+      recordName = base + i;
+    }
+    return recordName;
+  }
+}
@@ -0,0 +1,256 @@
+/* ParallelParquetWriter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans records from a single source out to a number of worker threads, each of which
+ * encodes and compresses into its own Parquet part file. Records travel to the workers
+ * in batches over bounded queues, so a source that outpaces the writers is throttled
+ * rather than buffering without limit; the row groups they buffer count against the
+ * budget of the shared ParquetWriterPool. When all workers are done, the part files are
+ * merged into the _metadata summary of the output directory (see DatasetSummary).
+ */
+final class ParallelParquetWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelParquetWriter.class.getSimpleName());
+  static final int DEFAULT_BATCH_SIZE = 1024;
+  static final int DEFAULT_QUEUE_DEPTH = 4; // batches queued per worker
+  private static final List<GenericData.Record> END_OF_RECORDS = Collections.emptyList();
+
+  private final Schema schema;
+  private final WriterSettings settings;
+  private final Path outDir;
+  private final String baseName;
+  private final int batchSize;
+  private final List<Worker> workers = new ArrayList<>();
+  private List<GenericData.Record> batch;
+  private int nextWorker = 0;
+
+  private ParallelParquetWriter(Schema schema, WriterSettings settings, Path outDir, String baseName, int workerCount,
+                                int batchSize, int queueDepth)
+  {
+    this.schema = schema;
+    this.settings = settings;
+    this.outDir = outDir;
+    this.baseName = baseName;
+    this.batchSize = batchSize;
+    this.batch = new ArrayList<>(batchSize);
+    for (int i = 0; i < workerCount; i++) {
+      workers.add(new Worker(outDir.resolve(String.format("%s-part-%05d.parquet", baseName, i)), queueDepth));
+    }
+  }
+
+  /**
+   * Writes the records produced by sink to workerCount part files in outDir, named
+   * baseName-part-NNNNN.parquet, plus the _metadata summary of them all. The sink
+   * runs on the calling thread and may reuse the record it hands to the writer, as
+   * every record is copied before being queued.
+   *
+   * @return the part files written
+   */
+  static List<Path> writeToParquet(@Nonnull final Schema schema,
+                                   @Nonnull final Path outDir,
+                                   @Nonnull final String baseName,
+                                   final int workerCount,
+                                   @Nonnull final DataLoad.GenericDataRecordSink sink) throws IOException
+  {
+    return writeToParquet(schema, outDir, baseName, workerCount, WriterSettings.DEFAULT, sink);
+  }
+
+  /**
+   * As above, each part file written with the given settings.
+   */
+  static List<Path> writeToParquet(@Nonnull final Schema schema,
+                                   @Nonnull final Path outDir,
+                                   @Nonnull final String baseName,
+                                   final int workerCount,
+                                   @Nonnull final WriterSettings settings,
+                                   @Nonnull final DataLoad.GenericDataRecordSink sink) throws IOException
+  {
+    return writeToParquet(schema, outDir, baseName, workerCount, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_DEPTH, settings,
+            sink);
+  }
+
+  static List<Path> writeToParquet(@Nonnull final Schema schema,
+                                   @Nonnull final Path outDir,
+                                   @Nonnull final String baseName,
+                                   final int workerCount,
+                                   final int batchSize,
+                                   final int queueDepth,
+                                   @Nonnull final WriterSettings settings,
+                                   @Nonnull final DataLoad.GenericDataRecordSink sink) throws IOException
+  {
+    if (workerCount <= 0 || batchSize <= 0 || queueDepth <= 0) {
+      throw new IllegalArgumentException("worker count, batch size and queue depth must be positive");
+    }
+    Files.createDirectories(outDir);
+    return new ParallelParquetWriter(schema, settings, outDir, baseName, workerCount, batchSize, queueDepth).run(sink);
+  }
+
+  private List<Path> run(final DataLoad.GenericDataRecordSink sink) throws IOException {
+    final long startTime = System.nanoTime();
+    workers.forEach(Worker::start);
+    boolean completed = false;
+    try {
+      final DataLoad.WriteGenericDataRecord fanOut = record -> {
+        batch.add(GenericData.get().deepCopy(schema, record));
+        if (batch.size() >= batchSize) {
+          dispatch(batch);
+          batch = new ArrayList<>(batchSize);
+        }
+      };
+      //noinspection StatementWithEmptyBody
+      do ; while(sink.accept(fanOut));
+      if (!batch.isEmpty()) {
+        dispatch(batch);
+      }
+      for (final Worker worker : workers) {
+        worker.enqueue(END_OF_RECORDS);
+      }
+      for (final Worker worker : workers) {
+        worker.join();
+      }
+      completed = true;
+    } finally {
+      if (!completed) {
+        abort();
+      }
+    }
+
+    final List<Path> partFiles = new ArrayList<>();
+    final Map<Path, ParquetMetadata> footers = new LinkedHashMap<>();
+    long rowCount = 0;
+    int rowGroups = 0;
+    for (final Worker worker : workers) {
+      partFiles.add(worker.partFile);
+      footers.put(worker.partFile, worker.footer);
+      for (final BlockMetaData block : worker.footer.getBlocks()) {
+        rowCount += block.getRowCount();
+        rowGroups++;
+      }
+    }
+    DatasetSummary.add(outDir, footers);
+    LOGGER.info("{}: wrote {} rows in {} row groups to {} part files in {} ms", baseName, rowCount, rowGroups,
+            partFiles.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return partFiles;
+  }
+
+  // round-robin over the workers; blocks while the chosen worker's queue is full
+  private void dispatch(List<GenericData.Record> records) throws IOException {
+    final Worker worker = workers.get(nextWorker);
+    nextWorker = (nextWorker + 1) % workers.size();
+    worker.enqueue(records);
+  }
+
+  private void abort() {
+    for (final Worker worker : workers) {
+      worker.thread.interrupt();
+    }
+    for (final Worker worker : workers) {
+      try {
+        worker.thread.join();
+        Files.deleteIfExists(worker.partFile);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (IOException e) {
+        LOGGER.warn("failed to delete incomplete part file \"{}\": {}", worker.partFile, e.getMessage());
+      }
+    }
+  }
+
+  private final class Worker implements Runnable {
+    final Path partFile;
+    final BlockingQueue<List<GenericData.Record>> queue;
+    final Thread thread;
+    volatile Throwable failure;
+    volatile ParquetMetadata footer;
+
+    Worker(Path partFile, int queueDepth) {
+      this.partFile = partFile;
+      this.queue = new ArrayBlockingQueue<>(queueDepth);
+      this.thread = new Thread(this, "parquet-writer-" + partFile.getFileName());
+    }
+
+    void start() {
+      thread.start();
+    }
+
+    @Override
+    public void run() {
+      PipelineMetrics.registerQueue(thread.getName(), queue::size);
+      try {
+        Files.deleteIfExists(partFile);
+        try (final ParquetWriterPool.PooledWriter writer = ParquetWriterPool.shared().open(schema, partFile, settings)) {
+          for(;;) {
+            final List<GenericData.Record> records = queue.take();
+            if (records == END_OF_RECORDS) break;
+            for (final GenericData.Record record : records) {
+              writer.write(record);
+            }
+          }
+          writer.close();
+          footer = writer.getFooter();
+        }
+      } catch (Throwable e) {
+        failure = e;
+        queue.clear(); // unblocks a producer waiting on this queue - it then sees the failure
+      } finally {
+        PipelineMetrics.unregisterQueue(thread.getName());
+      }
+    }
+
+    void enqueue(List<GenericData.Record> records) throws IOException {
+      try {
+        while (!queue.offer(records, 100, TimeUnit.MILLISECONDS)) {
+          checkFailure();
+        }
+        checkFailure();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted queuing records for " + partFile);
+      }
+    }
+
+    void join() throws IOException {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted waiting on writer of " + partFile);
+      }
+      checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+      final Throwable e = failure;
+      if (e != null) {
+        throw e instanceof IOException ? (IOException) e : new IOException("failed writing " + partFile, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/* ParallelRecordDecoder.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.generic.GenericData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline that turns raw input into records on several threads: a reader thread splits
+ * the input into independent raw batches (Avro blocks, chunks of whole lines, ...) and a
+ * pool of decoder threads turns each batch into records. The consumer - typically the
+ * thread encoding Parquet - receives the decoded batches in input order or, when order
+ * is relaxed, as soon as each is decoded (so one slow batch does not hold up the rest).
+ * The number of batches in flight is bounded, limiting how far reading and decoding may
+ * run ahead of the consumer, so memory use stays constant however large the input.
+ */
+final class ParallelRecordDecoder<T> implements DataLoad.GenericDataRecordSink, Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRecordDecoder.class.getSimpleName());
+  private static final List<GenericData.Record> END_OF_BATCHES = new ArrayList<>(0);
+
+  /**
+   * Called on the reader thread for each successive raw batch.
+   */
+  @FunctionalInterface
+  interface BatchSource<T> {
+    /**
+     * @return the next batch, or null at the end of the input
+     */
+    T nextBatch() throws IOException;
+  }
+
+  /**
+   * Decodes raw batches into records. Each decoder thread has its own instance, so an
+   * implementation may keep (non thread-safe) state to reuse from batch to batch.
+   */
+  @FunctionalInterface
+  interface BatchDecoder<T> {
+    List<GenericData.Record> decode(T batch) throws Exception;
+  }
+
+  private final String name;
+  private final BatchSource<T> source;
+  private final ExecutorService decoders;
+  private final ThreadLocal<BatchDecoder<T>> batchDecoder;
+  private final boolean ordered;
+  private final int maxInFlight;
+  private final Semaphore inFlight; // bounds the batches in flight when order is relaxed
+  private final BlockingQueue<Future<List<GenericData.Record>>> decoded;
+  private final Thread batchReader;
+  private volatile boolean closed = false;
+  private boolean endReached = false;
+  private long recordCount = 0;
+
+  ParallelRecordDecoder(@Nonnull String name, int decodeThreads, @Nonnull BatchSource<T> source,
+                        @Nonnull Supplier<BatchDecoder<T>> decoderFactory)
+  {
+    this(name, decodeThreads, true, source, decoderFactory);
+  }
+
+  /**
+   * Starts reading and decoding right away.
+   *
+   * @param name           for thread names and messages, e.g. the input file name
+   * @param decodeThreads  size of the decoder pool
+   * @param ordered        whether batches are delivered in input order
+   * @param decoderFactory creates the decoder instance of each decoder thread
+   */
+  ParallelRecordDecoder(@Nonnull String name, int decodeThreads, boolean ordered, @Nonnull BatchSource<T> source,
+                        @Nonnull Supplier<BatchDecoder<T>> decoderFactory)
+  {
+    if (decodeThreads <= 0) {
+      throw new IllegalArgumentException("decode thread count must be positive: " + decodeThreads);
+    }
+    this.name = name;
+    this.source = source;
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.decoders = Executors.newFixedThreadPool(decodeThreads, task -> {
+      final Thread thread = new Thread(task, "decoder-" + threadCount.incrementAndGet() + "-" + name);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.batchDecoder = ThreadLocal.withInitial(decoderFactory);
+    this.ordered = ordered;
+    // bounds how many batches are read ahead of the consumer
+    this.maxInFlight = 2 * decodeThreads;
+    this.inFlight = ordered ? null : new Semaphore(maxInFlight);
+    this.decoded = new ArrayBlockingQueue<>(maxInFlight);
+    PipelineMetrics.registerQueue("decoded-" + name, decoded::size);
+    this.batchReader = new Thread(this::readBatches, "reader-" + name);
+    this.batchReader.setDaemon(true);
+    this.batchReader.start();
+  }
+
+  long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Writes all of the records of the next batch.
+   *
+   * @return false once every batch has been delivered
+   */
+  @Override
+  public boolean accept(DataLoad.WriteGenericDataRecord writer) throws IOException {
+    if (endReached) return false;
+    final List<GenericData.Record> records;
+    try {
+      records = decoded.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting on decoded records of " + name);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException("failed reading " + name, cause);
+    }
+    if (records == END_OF_BATCHES) {
+      endReached = true;
+      return false;
+    }
+    if (!ordered) {
+      inFlight.release();
+    }
+    for (final GenericData.Record record : records) {
+      writer.write(record);
+    }
+    recordCount += records.size();
+    return true;
+  }
+
+  /**
+   * Stops the reader and decoder threads; does not close the underlying input.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    PipelineMetrics.unregisterQueue("decoded-" + name);
+    batchReader.interrupt();
+    decoders.shutdownNow();
+    try {
+      batchReader.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // runs on the reader thread: splits off raw batches and queues their decoding - in
+  // order, or (relaxed) to be queued by the decoder thread once done
+  private void readBatches() {
+    Future<List<GenericData.Record>> last;
+    try {
+      long batchCount = 0;
+      T batch;
+      while (!closed && (batch = source.nextBatch()) != null) {
+        final T rawBatch = batch;
+        if (ordered) {
+          decoded.put(decoders.submit(() -> batchDecoder.get().decode(rawBatch)));
+        } else {
+          inFlight.acquire();
+          decoders.execute(() -> {
+            final CompletableFuture<List<GenericData.Record>> result = new CompletableFuture<>();
+            try {
+              result.complete(batchDecoder.get().decode(rawBatch));
+            } catch (Throwable e) {
+              result.completeExceptionally(e);
+            }
+            decoded.add(result); // cannot be full: a permit is held for it
+          });
+        }
+        batchCount++;
+      }
+      if (!ordered) {
+        inFlight.acquire(maxInFlight); // every batch has been taken by the consumer
+      }
+      LOGGER.debug("{}: read {} batches", name, batchCount);
+      last = CompletableFuture.completedFuture(END_OF_BATCHES);
+    } catch (InterruptedException e) {
+      return; // closing
+    } catch (Throwable e) {
+      final CompletableFuture<List<GenericData.Record>> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      last = failed;
+    }
+    try {
+      decoded.put(last);
+    } catch (InterruptedException ignored) {
+      // closing
+    }
+  }
+}
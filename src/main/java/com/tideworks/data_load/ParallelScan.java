@@ -0,0 +1,402 @@
+/* ParallelScan.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans many Parquet files at once: the footers of the files (a directory of them, or
+ * those matching a glob) are taken from the ParquetFooterCache in parallel to plan the
+ * work as splits of one file each, which are then read on a fork-join pool with a
+ * ColumnarBatchReader per split that walks the file's row groups. The batches are either
+ * handed to a (thread-safe) sink or reduced, split by split, into per-column aggregates -
+ * count, nulls, min, max and sum - that are merged as the fork-join tasks complete.
+ * <p>
+ * A reader decodes the whole footer of its file when it opens - including the metadata
+ * of row groups it is told to skip - so a split is a file rather than a row group: the
+ * footer of a file with many row groups is decoded once per scan, not once per row group.
+ * A file is read on one thread; the threads work through files in parallel.
+ * <p>
+ * Each split being scanned holds one row group's projected column chunks in memory at a
+ * time, so memory use is about the thread count times the (projected) row group size.
+ */
+final class ParallelScan {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelScan.class.getSimpleName());
+  static final String USAGE = "scan <input-dir | glob> [columns|* [threads]]";
+
+  /**
+   * Receives the batches of all splits, concurrently from the threads of the pool.
+   */
+  @FunctionalInterface
+  interface BatchSink {
+    void accept(ColumnarBatchReader batch, int rows) throws IOException;
+  }
+
+  /**
+   * The row groups of one file.
+   */
+  static final class Split {
+    final Path file;
+    final int rowGroups;
+    final long rows;
+    final long bytes;
+
+    private Split(Path file, List<BlockMetaData> blocks) {
+      this.file = file;
+      this.rowGroups = blocks.size();
+      this.rows = blocks.stream().mapToLong(BlockMetaData::getRowCount).sum();
+      this.bytes = blocks.stream().mapToLong(BlockMetaData::getCompressedSize).sum();
+    }
+  }
+
+  /**
+   * The aggregates of one column. Integer and boolean (as 0 and 1) columns are summed as
+   * long, floating point columns as double; binary columns have only min and max, by
+   * unsigned byte comparison.
+   */
+  static final class ColumnAggregate {
+    final String name;
+    final ColumnarBatchReader.Kind kind;
+    long count = 0;
+    long nulls = 0;
+    long minLong = Long.MAX_VALUE;
+    long maxLong = Long.MIN_VALUE;
+    long sumLong = 0;
+    double minDouble = Double.POSITIVE_INFINITY;
+    double maxDouble = Double.NEGATIVE_INFINITY;
+    double sumDouble = 0;
+    byte[] minBytes;
+    byte[] maxBytes;
+
+    private ColumnAggregate(String name, ColumnarBatchReader.Kind kind) {
+      this.name = name;
+      this.kind = kind;
+    }
+
+    private boolean isFloatingPoint() {
+      return kind == ColumnarBatchReader.Kind.FLOAT || kind == ColumnarBatchReader.Kind.DOUBLE;
+    }
+
+    private void add(ColumnarBatchReader.ColumnVector vector, int rows) {
+      final boolean noNulls = vector.noNulls();
+      switch (kind) {
+        case INT:
+          for (int i = 0; i < rows; i++) if (noNulls || !vector.isNull(i)) addLong(vector.ints[i]);
+          break;
+        case LONG:
+          for (int i = 0; i < rows; i++) if (noNulls || !vector.isNull(i)) addLong(vector.longs[i]);
+          break;
+        case BOOLEAN:
+          for (int i = 0; i < rows; i++) if (noNulls || !vector.isNull(i)) addLong(vector.booleans[i] ? 1 : 0);
+          break;
+        case FLOAT:
+          for (int i = 0; i < rows; i++) if (noNulls || !vector.isNull(i)) addDouble(vector.floats[i]);
+          break;
+        case DOUBLE:
+          for (int i = 0; i < rows; i++) if (noNulls || !vector.isNull(i)) addDouble(vector.doubles[i]);
+          break;
+        default:
+          for (int i = 0; i < rows; i++) {
+            if (noNulls || !vector.isNull(i)) addBytes(vector.bytes, vector.offsets[i], vector.offsets[i + 1]);
+          }
+          break;
+      }
+      if (!noNulls) {
+        for (int i = 0; i < rows; i++) if (vector.isNull(i)) nulls++;
+      }
+      count += rows;
+    }
+
+    private void addLong(long value) {
+      if (value < minLong) minLong = value;
+      if (value > maxLong) maxLong = value;
+      sumLong += value;
+    }
+
+    private void addDouble(double value) {
+      if (value < minDouble) minDouble = value;
+      if (value > maxDouble) maxDouble = value;
+      sumDouble += value;
+    }
+
+    private void addBytes(byte[] bytes, int from, int to) {
+      if (minBytes == null || compare(bytes, from, to, minBytes) < 0) minBytes = Arrays.copyOfRange(bytes, from, to);
+      if (maxBytes == null || compare(bytes, from, to, maxBytes) > 0) maxBytes = Arrays.copyOfRange(bytes, from, to);
+    }
+
+    private void merge(ColumnAggregate other) {
+      count += other.count;
+      nulls += other.nulls;
+      minLong = Math.min(minLong, other.minLong);
+      maxLong = Math.max(maxLong, other.maxLong);
+      sumLong += other.sumLong;
+      minDouble = Math.min(minDouble, other.minDouble);
+      maxDouble = Math.max(maxDouble, other.maxDouble);
+      sumDouble += other.sumDouble;
+      if (other.minBytes != null) addBytes(other.minBytes, 0, other.minBytes.length);
+      if (other.maxBytes != null) addBytes(other.maxBytes, 0, other.maxBytes.length);
+    }
+
+    private static int compare(byte[] bytes, int from, int to, byte[] other) {
+      final int length = Math.min(to - from, other.length);
+      for (int i = 0; i < length; i++) {
+        final int diff = (bytes[from + i] & 0xFF) - (other[i] & 0xFF);
+        if (diff != 0) return diff;
+      }
+      return (to - from) - other.length;
+    }
+
+    @Override
+    public String toString() {
+      final String summary = String.format("%s (%s): count=%d, nulls=%d", name, kind, count, nulls);
+      if (count == nulls) return summary;
+      if (kind == ColumnarBatchReader.Kind.BINARY) {
+        return String.format("%s, min=\"%s\", max=\"%s\"", summary, new String(minBytes, StandardCharsets.UTF_8),
+                new String(maxBytes, StandardCharsets.UTF_8));
+      }
+      return isFloatingPoint()
+              ? String.format("%s, min=%s, max=%s, sum=%s", summary, minDouble, maxDouble, sumDouble)
+              : String.format("%s, min=%d, max=%d, sum=%d", summary, minLong, maxLong, sumLong);
+    }
+  }
+
+  /**
+   * The row count and column aggregates of the splits scanned.
+   */
+  static final class Aggregates {
+    long rows = 0;
+    final Map<String, ColumnAggregate> columns = new LinkedHashMap<>();
+
+    private Aggregates merge(Aggregates other) {
+      rows += other.rows;
+      other.columns.forEach((name, column) -> {
+        final ColumnAggregate aggregate = columns.get(name);
+        if (aggregate != null) {
+          aggregate.merge(column);
+        } else {
+          columns.put(name, column);
+        }
+      });
+      return this;
+    }
+  }
+
+  /**
+   * Command line entry: input directory or glob, comma separated top-level columns to
+   * aggregate (default, or *: all of them) and thread count (default: available
+   * processors). The aggregates are printed to stdout.
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final List<String> columns = args.length > 1 && !args[1].trim().equals("*")
+            ? Arrays.stream(args[1].split(",")).map(String::trim).collect(Collectors.toList())
+            : null;
+    final int threads = args.length > 2
+            ? Integer.parseUnsignedInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+    final Aggregates aggregates = aggregate(args[0], columns, threads);
+    System.out.println("rows: " + aggregates.rows);
+    aggregates.columns.values().forEach(System.out::println);
+  }
+
+  /**
+   * @param columns the top-level fields to aggregate, or null for all of them
+   */
+  static Aggregates aggregate(@Nonnull String dirOrGlob, @Nullable List<String> columns, int threads)
+          throws IOException
+  {
+    return scan(dirOrGlob, threads, Aggregates::new, Aggregates::merge, split -> {
+      final Aggregates aggregates = new Aggregates();
+      try (final ColumnarBatchReader reader = openSplit(split, columns)) {
+        final List<ColumnarBatchReader.ColumnVector> vectors = reader.getVectors();
+        for (final ColumnarBatchReader.ColumnVector vector : vectors) {
+          aggregates.columns.put(vector.name, new ColumnAggregate(vector.name, vector.kind));
+        }
+        for (int rows; (rows = reader.nextBatch()) > 0; ) {
+          for (final ColumnarBatchReader.ColumnVector vector : vectors) {
+            aggregates.columns.get(vector.name).add(vector, rows);
+          }
+          aggregates.rows += rows;
+        }
+      }
+      return aggregates;
+    });
+  }
+
+  /**
+   * Hands every batch of every split to the sink.
+   *
+   * @param columns the top-level fields to read, or null for all of them
+   * @return the number of rows scanned
+   */
+  static long forEachBatch(@Nonnull String dirOrGlob, @Nullable List<String> columns, int threads,
+                           @Nonnull BatchSink sink) throws IOException
+  {
+    return scan(dirOrGlob, threads, () -> 0L, Long::sum, split -> {
+      long rowCount = 0;
+      try (final ColumnarBatchReader reader = openSplit(split, columns)) {
+        for (int rows; (rows = reader.nextBatch()) > 0; ) {
+          sink.accept(reader, rows);
+          rowCount += rows;
+        }
+      }
+      return rowCount;
+    });
+  }
+
+  /**
+   * @return the Parquet files of a directory (but not its summary files), or those
+   * matching a glob - such as "/data/2026-10-*&#47;*.parquet"
+   */
+  static List<Path> resolveFiles(@Nonnull String dirOrGlob) throws IOException {
+    final int globStart = dirOrGlob.replaceAll("[*?\\[{]", "*").indexOf('*');
+    if (globStart < 0) {
+      final Path path = Paths.get(dirOrGlob);
+      if (!Files.isDirectory(path)) return Files.isRegularFile(path) ? Arrays.asList(path) : new ArrayList<>();
+      try (final Stream<Path> files = Files.list(path)) {
+        return files.filter(file -> file.getFileName().toString().endsWith(".parquet"))
+                .filter(file -> !file.getFileName().toString().startsWith("_"))
+                .filter(file -> !file.getFileName().toString().startsWith("."))
+                .filter(Files::isRegularFile)
+                .sorted()
+                .collect(Collectors.toList());
+      }
+    }
+    // walk the tree below the directory part of the glob that precedes its first wildcard
+    final Path base = Paths.get(dirOrGlob.substring(0, dirOrGlob.lastIndexOf('/', globStart) + 1));
+    if (!Files.isDirectory(base)) return new ArrayList<>();
+    final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + dirOrGlob);
+    try (final Stream<Path> files = Files.walk(base)) {
+      return files.filter(matcher::matches)
+              .filter(Files::isRegularFile)
+              .sorted()
+              .collect(Collectors.toList());
+    }
+  }
+
+  private static ColumnarBatchReader openSplit(Split split, List<String> columns) throws IOException {
+    return ColumnarBatchReader.open(split.file, columns, ColumnarBatchReader.DEFAULT_BATCH_SIZE);
+  }
+
+  @FunctionalInterface
+  private interface SplitScanner<R> {
+    R scan(Split split) throws IOException;
+  }
+
+  private static <R> R scan(String dirOrGlob, int threads, Supplier<R> identity, BinaryOperator<R> merge,
+                            SplitScanner<R> scanner) throws IOException
+  {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("thread count must be positive: " + threads);
+    }
+    final long startTime = System.nanoTime();
+    final List<Path> files = resolveFiles(dirOrGlob);
+    final ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      final List<Split> splits = pool.submit(() -> files.parallelStream()
+              .map(ParallelScan::splitOf)
+              .filter(split -> split.rowGroups > 0)
+              .collect(Collectors.toList())).get();
+      final R result = splits.isEmpty()
+              ? identity.get()
+              : pool.submit(new ScanTask<>(splits, 0, splits.size(), merge, scanner)).get();
+      LOGGER.info("scanned {} row groups ({} rows, {} bytes) of {} files matching \"{}\" on {} threads in {} ms",
+              splits.stream().mapToInt(split -> split.rowGroups).sum(),
+              splits.stream().mapToLong(split -> split.rows).sum(),
+              splits.stream().mapToLong(split -> split.bytes).sum(), files.size(), dirOrGlob, threads,
+              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      LOGGER.debug("footer cache: {}", ParquetFooterCache.describe());
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted scanning " + dirOrGlob);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      // a task's exception surfaces on another thread as a copy with the original as its cause
+      if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) cause = cause.getCause();
+      if (cause instanceof UncheckedIOException) throw new IOException(cause.getMessage(), cause.getCause());
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw new IOException("failed scanning " + dirOrGlob, cause);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static Split splitOf(Path file) {
+    try {
+      return new Split(file, ParquetFooterCache.getFooter(file).getBlocks());
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("failed reading footer of \"%s\"", file), e);
+    }
+  }
+
+  /**
+   * Scans a range of splits: a single split directly, more by forking the halves.
+   */
+  private static final class ScanTask<R> extends RecursiveTask<R> {
+    private final List<Split> splits;
+    private final int from;
+    private final int to;
+    private final BinaryOperator<R> merge;
+    private final SplitScanner<R> scanner;
+
+    private ScanTask(List<Split> splits, int from, int to, BinaryOperator<R> merge, SplitScanner<R> scanner) {
+      this.splits = splits;
+      this.from = from;
+      this.to = to;
+      this.merge = merge;
+      this.scanner = scanner;
+    }
+
+    @Override
+    protected R compute() {
+      if (to - from == 1) {
+        final Split split = splits.get(from);
+        try {
+          return scanner.scan(split);
+        } catch (IOException e) {
+          throw new UncheckedIOException(
+                  String.format("failed scanning \"%s\"", split.file), e);
+        }
+      }
+      final int middle = (from + to) >>> 1;
+      final ScanTask<R> left = new ScanTask<>(splits, from, middle, merge, scanner);
+      left.fork();
+      final R right = new ScanTask<>(splits, middle, to, merge, scanner).compute();
+      return merge.apply(left.join(), right);
+    }
+  }
+}
@@ -0,0 +1,358 @@
+/* ParquetCompactor.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import com.tideworks.data_load.io.Durability;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.io.InputFile.nioPathToLocalInputFile;
+import static com.tideworks.data_load.io.OutputFile.DEFAULT_CHANNEL_BUF_SIZE;
+import static com.tideworks.data_load.io.OutputFile.nioPathToChannelOutputFile;
+import static com.tideworks.data_load.io.OutputFile.nioPathToOutputFile;
+
+/**
+ * Merges many small Parquet files into fewer files of about a target size by copying
+ * their row groups as raw bytes (ParquetFileWriter.appendRowGroups()) - column chunks
+ * are neither decompressed nor decoded, only their offsets in the footer are rewritten,
+ * so compaction runs at the speed of the disk rather than of the codecs.
+ * <p>
+ * Files are merged only with files of the same schema. Row groups smaller than a minimum
+ * size are not worth keeping as they are (each costs a seek and a footer entry per
+ * column to every reader), so those of a schema are first re-encoded together, through
+ * a temporary file, into row groups of up to the target size - which are then copied
+ * like the rest. The outputs are written under hidden in-progress names and renamed into
+ * place once complete; inputs in the output directory are deleted once the files they
+ * were merged into are published.
+ */
+final class ParquetCompactor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParquetCompactor.class.getSimpleName());
+  private static final String IN_PROGRESS_SUFFIX = ".inprogress";
+  static final String USAGE = "compact <input-dir | glob> <output-dir> [target-mb [min-row-group-mb]]";
+  static final long DEFAULT_TARGET_BYTES = 256L * 1024 * 1024;
+  static final long DEFAULT_MIN_ROW_GROUP_BYTES = 16L * 1024 * 1024;
+
+  /**
+   * One row group of one file.
+   */
+  private static final class RowGroup {
+    final Path file;
+    final BlockMetaData block;
+
+    RowGroup(Path file, BlockMetaData block) {
+      this.file = file;
+      this.block = block;
+    }
+  }
+
+  /**
+   * The files sharing a schema, and their row groups in file order.
+   */
+  private static final class SchemaGroup {
+    final MessageType schema;
+    final Map<String, String> keyValues; // those of the first file
+    final List<Path> files = new ArrayList<>();
+    final List<RowGroup> rowGroups = new ArrayList<>();
+
+    SchemaGroup(MessageType schema, Map<String, String> keyValues) {
+      this.schema = schema;
+      this.keyValues = keyValues;
+    }
+  }
+
+  private ParquetCompactor() {}
+
+  /**
+   * Command line entry: input directory or glob (see ParallelScan.resolveFiles()),
+   * output directory, target output file size in MB (default: 256) and the size in MB
+   * below which a row group is re-encoded together with the other small ones (default: 16).
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final long targetBytes = args.length > 2 ? Long.parseUnsignedLong(args[2]) * 1024 * 1024 : DEFAULT_TARGET_BYTES;
+    final long minRowGroupBytes = args.length > 3
+            ? Long.parseUnsignedLong(args[3]) * 1024 * 1024
+            : Math.min(DEFAULT_MIN_ROW_GROUP_BYTES, targetBytes);
+    compact(ParallelScan.resolveFiles(args[0]), Paths.get(args[1]), targetBytes, minRowGroupBytes);
+  }
+
+  /**
+   * @param targetBytes the size to fill output files up to; a row group larger than
+   *                    this gets a file of its own
+   * @param minRowGroupBytes the (compressed) size below which a row group is re-encoded
+   *                         together with the other small row groups of its schema
+   * @return the files written
+   */
+  static List<Path> compact(@Nonnull final List<Path> inputs, @Nonnull final Path outDir, final long targetBytes,
+                            final long minRowGroupBytes) throws IOException
+  {
+    if (targetBytes <= 0 || minRowGroupBytes < 0) {
+      throw new IllegalArgumentException("target size must be positive, minimum row group size not negative");
+    }
+    final long startTime = System.nanoTime();
+    Files.createDirectories(outDir);
+
+    // footers read in parallel, grouped by schema in input order
+    final Map<Path, ParquetMetadata> footers = Collections.synchronizedMap(new HashMap<>());
+    inputs.parallelStream().forEach(file -> {
+      try {
+        footers.put(file, ParquetFooterCache.getFooter(file));
+      } catch (IOException|RuntimeException e) {
+        LOGGER.warn("\"{}\" left out of compaction: {}", file, e.getMessage());
+      }
+    });
+    final Map<MessageType, SchemaGroup> groups = new LinkedHashMap<>();
+    for (final Path file : inputs) {
+      final ParquetMetadata footer = footers.get(file);
+      if (footer == null) continue;
+      final SchemaGroup group = groups.computeIfAbsent(footer.getFileMetaData().getSchema(),
+              schema -> new SchemaGroup(schema, footer.getFileMetaData().getKeyValueMetaData()));
+      group.files.add(file);
+      footer.getBlocks().forEach(block -> group.rowGroups.add(new RowGroup(file, block)));
+    }
+
+    // distinguishes the files of one run from those of an earlier run
+    final String filePrefix = String.format("compacted-%d-", System.currentTimeMillis());
+    final List<Path> outputs = new ArrayList<>();
+    final Map<Path, ParquetMetadata> outputFooters = new LinkedHashMap<>();
+    long copiedBytes = 0;
+    long reencodedBytes = 0;
+    for (final SchemaGroup group : groups.values()) {
+      if (group.files.size() < 2) {
+        LOGGER.info("\"{}\" left as is: no other file has its schema", group.files.get(0));
+        continue;
+      }
+      final List<RowGroup> kept = new ArrayList<>();
+      final List<RowGroup> small = new ArrayList<>();
+      for (final RowGroup rowGroup : group.rowGroups) {
+        (rowGroup.block.getCompressedSize() >= minRowGroupBytes ? kept : small).add(rowGroup);
+      }
+      final Path combinedFile = outDir.resolve("." + filePrefix + "combined" + IN_PROGRESS_SUFFIX);
+      try {
+        if (small.size() > 1) {
+          final ParquetMetadata combined = reencode(combinedFile, group.schema, small, targetBytes);
+          combined.getBlocks().forEach(block -> kept.add(new RowGroup(combinedFile, block)));
+          reencodedBytes += small.stream().mapToLong(rowGroup -> rowGroup.block.getCompressedSize()).sum();
+        } else {
+          kept.addAll(small);
+        }
+        for (final List<RowGroup> outputRowGroups : pack(kept, targetBytes)) {
+          final Path outFile = outDir.resolve(String.format("%s%05d.parquet", filePrefix, outputs.size()));
+          outputFooters.put(outFile, writeOutput(outFile, group.schema, group.keyValues, outputRowGroups));
+          outputs.add(outFile);
+          copiedBytes += outputRowGroups.stream().mapToLong(rowGroup -> rowGroup.block.getCompressedSize()).sum();
+        }
+      } finally {
+        Files.deleteIfExists(combinedFile);
+      }
+      // the inputs merged are only removed from the output directory once their outputs are published
+      for (final Path file : group.files) {
+        if (outDir.toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize().getParent())) {
+          Files.deleteIfExists(file);
+          ParquetFooterCache.invalidate(file);
+        }
+      }
+    }
+    // the outputs merged into an existing summary, which drops the inputs just deleted
+    if (!outputFooters.isEmpty() && DatasetSummary.read(outDir) != null) {
+      DatasetSummary.add(outDir, outputFooters);
+    }
+    final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    LOGGER.info("compacted {} files into {} in \"{}\" in {} ms: {} bytes copied ({} MB/s), {} bytes re-encoded",
+            footers.size(), outputs.size(), outDir, elapsedMillis, copiedBytes,
+            elapsedMillis > 0 ? copiedBytes * 1000 / elapsedMillis / (1024 * 1024) : 0, reencodedBytes);
+    return outputs;
+  }
+
+  /**
+   * Fills outputs with row groups, in order, up to the target size.
+   */
+  private static List<List<RowGroup>> pack(List<RowGroup> rowGroups, long targetBytes) {
+    final List<List<RowGroup>> outputs = new ArrayList<>();
+    List<RowGroup> current = new ArrayList<>();
+    long currentBytes = 0;
+    for (final RowGroup rowGroup : rowGroups) {
+      final long bytes = rowGroup.block.getCompressedSize();
+      if (!current.isEmpty() && currentBytes + bytes > targetBytes) {
+        outputs.add(current);
+        current = new ArrayList<>();
+        currentBytes = 0;
+      }
+      current.add(rowGroup);
+      currentBytes += bytes;
+    }
+    if (!current.isEmpty()) {
+      outputs.add(current);
+    }
+    return outputs;
+  }
+
+  /**
+   * Writes the row groups to a file as raw bytes, each run of them from one file copied
+   * through a single stream.
+   */
+  private static ParquetMetadata writeOutput(Path outFile, MessageType schema, Map<String, String> keyValues,
+                                             List<RowGroup> rowGroups) throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final Path inProgressPath = outFile.resolveSibling("." + outFile.getFileName() + IN_PROGRESS_SUFFIX);
+    final long bytes = rowGroups.stream().mapToLong(rowGroup -> rowGroup.block.getCompressedSize()).sum();
+    final long blockSize = Math.max(bytes, 1);
+    // ParquetFileWriter has no close() of its own; the stream is kept to close it on failure
+    final PositionOutputStream[] out = { null };
+    final org.apache.parquet.io.OutputFile channelFile =
+            nioPathToChannelOutputFile(inProgressPath, blockSize, DEFAULT_CHANNEL_BUF_SIZE,
+                    Durability.FSYNC_ON_CLOSE);
+    final org.apache.parquet.io.OutputFile outputFile = new org.apache.parquet.io.OutputFile() {
+      @Override
+      public PositionOutputStream create(long blockSizeHint) throws IOException {
+        return out[0] = channelFile.create(blockSizeHint);
+      }
+
+      @Override
+      public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+        return out[0] = channelFile.createOrOverwrite(blockSizeHint);
+      }
+
+      @Override
+      public boolean supportsBlockSize() {
+        return channelFile.supportsBlockSize();
+      }
+
+      @Override
+      public long defaultBlockSize() {
+        return channelFile.defaultBlockSize();
+      }
+    };
+    final ParquetFileWriter writer;
+    try {
+      // no padding - the row groups are copied as they are, not aligned to blocks
+      writer = new ParquetFileWriter(outputFile, schema, ParquetFileWriter.Mode.OVERWRITE, blockSize, 0);
+      writer.start();
+      for (int i = 0; i < rowGroups.size(); ) {
+        final Path file = rowGroups.get(i).file;
+        final List<BlockMetaData> blocks = new ArrayList<>();
+        for (; i < rowGroups.size() && rowGroups.get(i).file.equals(file); i++) {
+          blocks.add(rowGroups.get(i).block);
+        }
+        try (final SeekableInputStream in = nioPathToLocalInputFile(file).newStream()) {
+          writer.appendRowGroups(in, blocks, false);
+        }
+      }
+      writer.end(keyValues);
+    } catch (IOException|RuntimeException e) {
+      if (out[0] != null) {
+        try {
+          out[0].close();
+        } catch (IOException|RuntimeException closeError) {
+          e.addSuppressed(closeError);
+        }
+      }
+      Files.deleteIfExists(inProgressPath);
+      throw e;
+    }
+    try {
+      Files.move(inProgressPath, outFile, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(inProgressPath, outFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+    final ParquetMetadata footer = writer.getFooter();
+    LOGGER.info("published \"{}\": {} row groups, {} rows, {} bytes copied in {} ms", outFile,
+            footer.getBlocks().size(), footer.getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum(),
+            bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return footer;
+  }
+
+  /**
+   * Decodes the small row groups and writes their records to a temporary file in row
+   * groups of up to the target size, with the codec of the first of them.
+   */
+  private static ParquetMetadata reencode(Path tempFile, MessageType schema, List<RowGroup> small, long targetBytes)
+          throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final CompressionCodecName codec = small.get(0).block.getColumns().isEmpty()
+            ? CompressionCodecName.UNCOMPRESSED
+            : small.get(0).block.getColumns().get(0).getCodec();
+    final ParquetWriter<Group> writer = ExampleParquetWriter
+            .builder(nioPathToOutputFile(tempFile))
+            .withType(schema)
+            .withRowGroupSize((int) Math.min(targetBytes, Integer.MAX_VALUE))
+            .withPageSize(128 * 1024)
+            .withConf(ParquetFooterCache.newConfiguration())
+            .withCompressionCodec(codec)
+            .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+            .withValidation(false)
+            .withDictionaryEncoding(false)
+            .build();
+    long rows = 0;
+    try {
+      for (int i = 0; i < small.size(); ) {
+        final Path file = small.get(i).file;
+        final List<Long> offsets = new ArrayList<>();
+        for (; i < small.size() && small.get(i).file.equals(file); i++) {
+          offsets.add(small.get(i).block.getStartingPos());
+        }
+        final ParquetReadOptions options = ParquetReadOptions.builder()
+                .withOffsets(offsets.stream().mapToLong(Long::longValue).toArray())
+                .build();
+        try (final ParquetFileReader reader = ParquetFileReader.open(nioPathToLocalInputFile(file), options)) {
+          final MessageColumnIO columnIO = new ColumnIOFactory(reader.getFooter().getFileMetaData().getCreatedBy())
+                  .getColumnIO(schema);
+          PageReadStore rowGroup;
+          while ((rowGroup = reader.readNextRowGroup()) != null) {
+            final RecordReader<Group> records = columnIO.getRecordReader(rowGroup, new GroupRecordConverter(schema));
+            for (long row = rowGroup.getRowCount(); row > 0; row--) {
+              writer.write(records.read());
+            }
+            rows += rowGroup.getRowCount();
+          }
+        }
+      }
+    } finally {
+      writer.close();
+    }
+    final ParquetMetadata footer = writer.getFooter();
+    LOGGER.info("re-encoded {} small row groups ({} rows) into {} in {} ms", small.size(), rows,
+            footer.getBlocks().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return footer;
+  }
+}
@@ -0,0 +1,185 @@
+/* ParquetFooterCache.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import static com.tideworks.data_load.io.InputFile.nioPathToPositionalInputFile;
+
+/**
+ * Process-wide cache of decoded Parquet footers, so opening the same files again (a
+ * repeated scan or query) skips reading and Thrift decoding their footers - which for
+ * wide schemas run to megabytes and dominate the cost of short reads.
+ * <p>
+ * An entry is valid for the length and last-modified time the file had when its footer
+ * was read; a file that has since changed is a miss, and its entry is replaced. The
+ * cache holds at most maxBytes of footers, as measured by their encoded size, evicting
+ * the least recently used; a footer larger than that is not cached at all.
+ * <p>
+ * The cache serves the work that needs only footers: planning the splits of a scan,
+ * pruning the row groups of a query, the _metadata summary and compaction. Readers of
+ * the data itself open a ParquetFileReader over an io.InputFile, which reads its own
+ * footer - ParquetFileReader only takes a decoded one through its Hadoop Path
+ * constructor, which would have the data read through Hadoop's local file system. So
+ * that a footer is decoded once per read of a file, not once per row group, readers
+ * walk all the row groups they need with one ParquetFileReader (see ParallelScan).
+ */
+final class ParquetFooterCache {
+  static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+  // loading the default resources of a Configuration costs milliseconds, copying them does not
+  private static final Configuration DEFAULT_CONFIGURATION = new Configuration();
+
+  static {
+    DEFAULT_CONFIGURATION.size();
+  }
+
+  private static final class Entry {
+    final long length;
+    final long lastModified;
+    final ParquetMetadata footer;
+    final long bytes;
+
+    Entry(long length, long lastModified, ParquetMetadata footer, long bytes) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.footer = footer;
+      this.bytes = bytes;
+    }
+  }
+
+  // access ordered, so iteration starts at the least recently used
+  private static final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private static long maxBytes = DEFAULT_MAX_BYTES;
+  private static long bytes = 0;
+  private static long hits = 0;
+  private static long misses = 0;
+  private static long evictions = 0;
+
+  private ParquetFooterCache() {}
+
+  /**
+   * @return the footer of the file, from the cache if the file is unchanged since it was
+   * cached, else as read from the file (and then cached)
+   */
+  static ParquetMetadata getFooter(@Nonnull Path file) throws IOException {
+    final Path key = file.toAbsolutePath().normalize();
+    final BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    final long length = attributes.size();
+    final long lastModified = attributes.lastModifiedTime().toMillis();
+    synchronized (ParquetFooterCache.class) {
+      final Entry entry = entries.get(key);
+      if (entry != null && entry.length == length && entry.lastModified == lastModified) {
+        hits++;
+        return entry.footer;
+      }
+      misses++;
+    }
+    // decoded outside the lock; concurrent misses on the same file each decode it
+    final byte[] encoded = readEncodedFooter(key, length);
+    final ParquetMetadata footer = new ParquetMetadataConverter()
+            .readParquetMetadata(new ByteArrayInputStream(encoded), ParquetMetadataConverter.NO_FILTER);
+    put(key, new Entry(length, lastModified, footer, encoded.length));
+    return footer;
+  }
+
+  /**
+   * @return a new Configuration for a reader or writer, copied from one with the default resources
+   * already loaded
+   */
+  static Configuration newConfiguration() {
+    synchronized (DEFAULT_CONFIGURATION) {
+      return new Configuration(DEFAULT_CONFIGURATION);
+    }
+  }
+
+  static synchronized void setMaxBytes(long maxBytes) {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("maximum cache size must not be negative: " + maxBytes);
+    }
+    ParquetFooterCache.maxBytes = maxBytes;
+    evict();
+  }
+
+  static synchronized void invalidate(@Nonnull Path file) {
+    final Entry entry = entries.remove(file.toAbsolutePath().normalize());
+    if (entry != null) bytes -= entry.bytes;
+  }
+
+  static synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  static synchronized long getHitCount() {
+    return hits;
+  }
+
+  static synchronized long getMissCount() {
+    return misses;
+  }
+
+  static synchronized String describe() {
+    return String.format("%d footers (%d of %d bytes), %d hits, %d misses, %d evictions", entries.size(), bytes,
+            maxBytes, hits, misses, evictions);
+  }
+
+  private static synchronized void put(Path key, Entry entry) {
+    final Entry replaced = entries.remove(key);
+    if (replaced != null) bytes -= replaced.bytes;
+    if (entry.bytes > maxBytes) return;
+    entries.put(key, entry);
+    bytes += entry.bytes;
+    evict();
+  }
+
+  private static void evict() {
+    for (final Iterator<Entry> lru = entries.values().iterator(); bytes > maxBytes && lru.hasNext(); ) {
+      bytes -= lru.next().bytes;
+      lru.remove();
+      evictions++;
+    }
+  }
+
+  private static byte[] readEncodedFooter(Path file, long length) throws IOException {
+    final int tailLength = 4 + ParquetFileWriter.MAGIC.length;
+    if (length < ParquetFileWriter.MAGIC.length + tailLength) {
+      throw new IOException(String.format("\"%s\" is too short to be a Parquet file: %d bytes", file, length));
+    }
+    try (final SeekableInputStream in = nioPathToPositionalInputFile(file).newStream()) {
+      final byte[] tail = new byte[tailLength];
+      in.seek(length - tailLength);
+      in.readFully(tail);
+      if (!Arrays.equals(ParquetFileWriter.MAGIC, Arrays.copyOfRange(tail, 4, tailLength))) {
+        throw new IOException(String.format("\"%s\" is not a Parquet file: no magic number at its tail", file));
+      }
+      final int footerLength = BytesUtils.readIntLittleEndian(tail, 0);
+      final long footerIndex = length - tailLength - footerLength;
+      if (footerLength < 0 || footerIndex < ParquetFileWriter.MAGIC.length) {
+        throw new IOException(String.format("\"%s\" has a corrupt footer length: %d", file, footerLength));
+      }
+      final byte[] footer = new byte[footerLength];
+      in.seek(footerIndex);
+      in.readFully(footer);
+      return footer;
+    }
+  }
+}
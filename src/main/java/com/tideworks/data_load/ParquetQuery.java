@@ -0,0 +1,152 @@
+/* ParquetQuery.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a Parquet file with a column projection and a predicate pushed down to the
+ * reader: only the column chunks of the projected fields are read, row groups whose
+ * footer statistics (or dictionaries) show that no record can match are skipped
+ * altogether, and the remaining records are filtered as they are assembled.
+ * <p>
+ * Projection is by top-level field. The fields a predicate refers to are always read,
+ * projected or not, as record filtering would otherwise see them as null.
+ */
+final class ParquetQuery {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParquetQuery.class.getSimpleName());
+  static final String USAGE = "query <input.parquet> [columns|* [predicate]]";
+
+  /**
+   * What a query read and what it skipped.
+   */
+  static final class Stats {
+    final int rowGroups;
+    final int rowGroupsRead;
+    final long bytes;
+    final long bytesSkipped;
+    final long recordsMatched;
+
+    private Stats(int rowGroups, int rowGroupsRead, long bytes, long bytesSkipped, long recordsMatched) {
+      this.rowGroups = rowGroups;
+      this.rowGroupsRead = rowGroupsRead;
+      this.bytes = bytes;
+      this.bytesSkipped = bytesSkipped;
+      this.recordsMatched = recordsMatched;
+    }
+  }
+
+  /**
+   * Command line entry: input file, comma separated top-level fields to read (default,
+   * or *: all of them) and a predicate (see FilterPredicateParser). The matching records
+   * are printed to stdout.
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final List<String> columns = args.length > 1 && !args[1].trim().equals("*")
+            ? Arrays.stream(args[1].split(",")).map(String::trim).collect(Collectors.toList())
+            : null;
+    final String predicate = args.length > 2 ? args[2] : null;
+    query(Paths.get(args[0]), columns, predicate, System.out::println);
+  }
+
+  /**
+   * @param columns the top-level fields to read, or null for all of them
+   * @param predicate the records to read, as parsed by FilterPredicateParser, or null for all of them
+   */
+  static Stats query(@Nonnull final Path parquetFile, @Nullable final List<String> columns,
+                     @Nullable final String predicate, @Nonnull final DataLoad.WriteGenericDataRecord consumer)
+          throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final ParquetMetadata footer = ParquetFooterCache.getFooter(parquetFile);
+    final FileMetaData fileMetaData = footer.getFileMetaData();
+    final Set<String> fields = columns != null ? new LinkedHashSet<>(columns) : null;
+    FilterPredicate filter = null;
+    if (predicate != null) {
+      final FilterPredicateParser parser = FilterPredicateParser.parser(predicate, fileMetaData.getSchema());
+      filter = parser.parse();
+      if (fields != null) {
+        parser.getColumns().forEach(column -> fields.add(column.split("\\.")[0]));
+      }
+    }
+    final String avroSchema = fileMetaData.getKeyValueMetaData().get(AvroReadSupport.AVRO_SCHEMA_METADATA_KEY);
+    final Schema fileSchema = avroSchema != null
+            ? new Schema.Parser().parse(avroSchema)
+            : new AvroSchemaConverter().convert(fileMetaData.getSchema());
+    final Schema projection = fields != null ? project(fileSchema, fields) : fileSchema;
+
+    final List<BlockMetaData> blocks = footer.getBlocks();
+    final List<BlockMetaData> blocksRead;
+    long recordsMatched = 0;
+    try (final AvroRecordReader reader = AvroRecordReader.open(parquetFile, projection, filter)) {
+      // the row groups that survive the statistics and dictionary filters
+      blocksRead = reader.getRowGroups();
+      GenericData.Record record;
+      while ((record = reader.read()) != null) {
+        consumer.write(record);
+        recordsMatched++;
+      }
+    }
+
+    final Set<String> fieldNames = projection.getFields().stream().map(Schema.Field::name).collect(Collectors.toSet());
+    long bytes = 0, bytesRead = 0;
+    for (final BlockMetaData block : blocks) {
+      final boolean read = blocksRead.stream().anyMatch(b -> b.getStartingPos() == block.getStartingPos());
+      for (final ColumnChunkMetaData column : block.getColumns()) {
+        bytes += column.getTotalSize();
+        if (read && fieldNames.contains(column.getPath().toArray()[0])) {
+          bytesRead += column.getTotalSize();
+        }
+      }
+    }
+    final Stats stats = new Stats(blocks.size(), blocksRead.size(), bytes, bytes - bytesRead, recordsMatched);
+    LOGGER.info("queried \"{}\": {} records matched; read {} of {} row groups, skipped {} of {} column chunk bytes"
+            + " in {} ms", parquetFile, stats.recordsMatched, stats.rowGroupsRead, stats.rowGroups, stats.bytesSkipped,
+            stats.bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return stats;
+  }
+
+  private static Schema project(Schema schema, Set<String> fieldNames) {
+    final List<Schema.Field> fields = new ArrayList<>(fieldNames.size());
+    for (final String fieldName : fieldNames) {
+      final Schema.Field field = schema.getField(fieldName);
+      if (field == null) {
+        throw new IllegalArgumentException(String.format("%s has no field \"%s\"", schema.getFullName(), fieldName));
+      }
+      fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal(), field.order()));
+    }
+    final Schema projection = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+    projection.setFields(fields);
+    return projection;
+  }
+}
@@ -0,0 +1,260 @@
+/* ParquetWriterPool.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import com.tideworks.data_load.io.RowGroupListener;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.PositionOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.tideworks.data_load.DataLoad.createParquetWriterInstance;
+
+/**
+ * Keeps the row groups that concurrent Parquet writers buffer on the heap within a shared
+ * budget. Each writer of the pool publishes its buffered size every CHECK_INTERVAL
+ * records; whenever the total exceeds the budget, the largest writers are asked to end
+ * their row groups early, until what remains buffered fits. A writer so asked flushes
+ * its row group on its next write, on its own thread - a writer that is idle holds on to
+ * its buffer until it writes again or is closed.
+ * <p>
+ * The writer of this Parquet version has no call to end a row group; it checks its
+ * buffered size against the row group size every so many records (at most 10000). Early
+ * flushes are forced by moving that check, and the size it checks against, forward (by
+ * reflection). Should those fields not be found, the pool only tracks usage.
+ */
+final class ParquetWriterPool {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParquetWriterPool.class.getSimpleName());
+  static final long DEFAULT_BUDGET_BYTES = Runtime.getRuntime().maxMemory() / 2;
+  private static final int CHECK_INTERVAL = 128; // records between publishing of the buffered size
+  private static final ParquetWriterPool SHARED = new ParquetWriterPool(DEFAULT_BUDGET_BYTES);
+  private static final Field PARQUET_WRITER_FIELD;
+  private static final Field NEXT_ROW_GROUP_SIZE_FIELD;
+  private static final Field NEXT_MEM_CHECK_FIELD;
+
+  static {
+    Field writer = null;
+    Field nextRowGroupSize = null;
+    Field nextMemCheck = null;
+    try {
+      writer = ParquetWriter.class.getDeclaredField("writer");
+      writer.setAccessible(true);
+      final Class<?> internalWriterClass = writer.getType();
+      nextRowGroupSize = internalWriterClass.getDeclaredField("nextRowGroupSize");
+      nextRowGroupSize.setAccessible(true);
+      nextMemCheck = internalWriterClass.getDeclaredField("recordCountForNextMemCheck");
+      nextMemCheck.setAccessible(true);
+    } catch (ReflectiveOperationException|RuntimeException e) {
+      LOGGER.warn("early row group flushes unavailable - memory use is tracked only: {}", e.toString());
+      writer = null;
+    }
+    PARQUET_WRITER_FIELD = writer;
+    NEXT_ROW_GROUP_SIZE_FIELD = nextRowGroupSize;
+    NEXT_MEM_CHECK_FIELD = nextMemCheck;
+  }
+
+  private final List<PooledWriter> writers = new ArrayList<>();
+  private long budgetBytes;
+  private long forcedFlushes = 0;
+
+  ParquetWriterPool(long budgetBytes) {
+    setBudgetBytes(budgetBytes);
+  }
+
+  /**
+   * @return the pool of the process, which the writers of all modes draw on
+   */
+  static ParquetWriterPool shared() {
+    return SHARED;
+  }
+
+  /**
+   * Opens a writer with the given settings whose buffered row group counts against the
+   * budget of the pool until it is closed. The new file is written through a FileChannel
+   * and forced to disk as --durability says (see DataLoad.channelOutputFile()).
+   */
+  PooledWriter open(@Nonnull Schema schema, @Nonnull Path file, @Nonnull WriterSettings settings) throws IOException {
+    return open(schema, DataLoad.channelOutputFile(file), file.toString(), settings);
+  }
+
+  /**
+   * As above, writing to outputFile - e.g. a stream - which name describes in messages.
+   */
+  PooledWriter open(@Nonnull Schema schema, @Nonnull org.apache.parquet.io.OutputFile outputFile,
+                    @Nonnull String name, @Nonnull WriterSettings settings) throws IOException
+  {
+    final PooledWriter writer = new PooledWriter(schema, outputFile, name, settings);
+    synchronized (this) {
+      writers.add(writer);
+    }
+    return writer;
+  }
+
+  synchronized void setBudgetBytes(long budgetBytes) {
+    if (budgetBytes <= 0) {
+      throw new IllegalArgumentException("memory budget must be positive: " + budgetBytes);
+    }
+    this.budgetBytes = budgetBytes;
+  }
+
+  synchronized long getBudgetBytes() {
+    return budgetBytes;
+  }
+
+  /**
+   * @return the bytes buffered by the open writers, as last published by them
+   */
+  synchronized long getBufferedBytes() {
+    return writers.stream().mapToLong(writer -> writer.bufferedBytes).sum();
+  }
+
+  synchronized int getWriterCount() {
+    return writers.size();
+  }
+
+  synchronized long getForcedFlushCount() {
+    return forcedFlushes;
+  }
+
+  synchronized String describe() {
+    return String.format("%d writers buffering %d of %d bytes, %d forced row group flushes", writers.size(),
+            getBufferedBytes(), budgetBytes, forcedFlushes);
+  }
+
+  private synchronized void rebalance() {
+    long buffered = getBufferedBytes();
+    if (buffered <= budgetBytes || PARQUET_WRITER_FIELD == null) return;
+    final List<PooledWriter> largestFirst = new ArrayList<>(writers);
+    largestFirst.sort(Comparator.comparingLong((PooledWriter writer) -> writer.bufferedBytes).reversed());
+    for (final PooledWriter writer : largestFirst) {
+      if (buffered <= budgetBytes) break;
+      if (!writer.flushRequested) {
+        writer.flushRequested = true;
+        forcedFlushes++;
+        LOGGER.debug("{} bytes buffered over a budget of {}: flushing the {} bytes of \"{}\"", buffered,
+                budgetBytes, writer.bufferedBytes, writer.name);
+      }
+      buffered -= writer.bufferedBytes;
+    }
+  }
+
+  private synchronized void remove(PooledWriter writer) {
+    writers.remove(writer);
+  }
+
+  /**
+   * A Parquet writer of Avro records drawing on the budget of the pool. Not thread-safe,
+   * as a ParquetWriter is not.
+   */
+  final class PooledWriter implements Closeable {
+    private final String name;
+    private final ParquetWriter<GenericData.Record> writer;
+    private PositionOutputStream out;
+    private long records = 0;
+    private boolean closed = false;
+    private volatile long bufferedBytes = 0;
+    private volatile boolean flushRequested = false;
+
+    private PooledWriter(Schema schema, org.apache.parquet.io.OutputFile outputFile, String name,
+                         WriterSettings settings) throws IOException
+    {
+      this.name = name;
+      // the stream is kept, as its position less the writer's data size is what is still buffered
+      this.writer = createParquetWriterInstance(schema, new org.apache.parquet.io.OutputFile() {
+        @Override
+        public PositionOutputStream create(long blockSizeHint) throws IOException {
+          return out = outputFile.create(blockSizeHint);
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+          return out = outputFile.createOrOverwrite(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+          return outputFile.supportsBlockSize();
+        }
+
+        @Override
+        public long defaultBlockSize() {
+          return outputFile.defaultBlockSize();
+        }
+      }, settings);
+    }
+
+    void write(@Nonnull GenericData.Record record) throws IOException {
+      if (flushRequested) {
+        flushRequested = false;
+        endRowGroupOnNextWrite();
+      }
+      final long startTime = PipelineMetrics.startTime();
+      // a write that puts bytes to the stream has flushed a row group - all of it
+      final long pos = out.getPos();
+      writer.write(record);
+      if (out.getPos() != pos) {
+        if (out instanceof RowGroupListener) ((RowGroupListener) out).rowGroupEnded();
+        if (startTime != 0) PipelineMetrics.rowGroupFlushed(startTime);
+      }
+      if (startTime != 0) PipelineMetrics.recordWritten();
+      if (++records % CHECK_INTERVAL == 0) {
+        bufferedBytes = Math.max(writer.getDataSize() - out.getPos(), 0);
+        rebalance();
+      }
+    }
+
+    /**
+     * @return the bytes written to the file so far plus those still buffered
+     */
+    long getDataSize() {
+      return writer.getDataSize();
+    }
+
+    ParquetMetadata getFooter() {
+      return writer.getFooter();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) return;
+      closed = true;
+      try {
+        final long startTime = PipelineMetrics.startTime();
+        writer.close();
+        PipelineMetrics.rowGroupFlushed(startTime);
+        PipelineMetrics.fileWritten(writer.getFooter());
+      } finally {
+        bufferedBytes = 0;
+        remove(this);
+      }
+    }
+
+    // the next write checks the size of the row group against zero, and so ends it; the
+    // next row group size is then worked out afresh from the (unchanged) threshold
+    private void endRowGroupOnNextWrite() {
+      try {
+        final Object internalWriter = PARQUET_WRITER_FIELD.get(writer);
+        NEXT_ROW_GROUP_SIZE_FIELD.setLong(internalWriter, 0);
+        NEXT_MEM_CHECK_FIELD.setLong(internalWriter, 0);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("cannot end the row group of " + name, e);
+      }
+    }
+  }
+}
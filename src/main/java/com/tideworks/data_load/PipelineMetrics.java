@@ -0,0 +1,390 @@
+/* PipelineMetrics.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import com.tideworks.data_load.io.IoStatistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Process-wide metrics of the write and read paths: records written and read, the file
+ * I/O beneath them (see IoStatistics), the latency of row group flushes, the compression
+ * ratio of each column written, the depths of the queues between pipeline stages and
+ * the memory held by the ParquetWriterPool. Published as an MXBean (see
+ * PipelineMetricsMXBean) and, every so many seconds, logged along with the rates over
+ * the interval.
+ * <p>
+ * Disabled by default, in which case each instrumented call costs a check of a flag.
+ * <p>
+ * A row group flush is timed as the write that caused it (or the close of the writer,
+ * which flushes the last one and writes the footer); this Parquet version does not
+ * expose when the pages within a row group are compressed, so pages are not timed.
+ */
+final class PipelineMetrics implements PipelineMetricsMXBean {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipelineMetrics.class.getSimpleName());
+  static final String OBJECT_NAME = "com.tideworks.data_load:type=PipelineMetrics";
+  static final int DEFAULT_REPORT_SECONDS = 10;
+  private static final PipelineMetrics INSTANCE = new PipelineMetrics();
+  private static volatile boolean enabled = false;
+
+  private final LongAdder recordsWritten = new LongAdder();
+  private final LongAdder recordsRead = new LongAdder();
+  private final LatencyHistogram rowGroupFlushes = new LatencyHistogram();
+  private final Map<String, ColumnSizes> columns = new ConcurrentHashMap<>();
+  private final Map<String, IntSupplier> queues = new ConcurrentHashMap<>();
+  private volatile long enabledNanos;
+
+  /**
+   * Turns the metrics on, registers the MXBean and, if reportSeconds is positive, logs
+   * a report at that interval and once more on exit. Only the first call has effect.
+   */
+  static synchronized void enable(int reportSeconds) {
+    if (enabled) return;
+    INSTANCE.enabledNanos = System.nanoTime();
+    IoStatistics.setEnabled(true);
+    enabled = true;
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+    } catch (JMException e) {
+      LOGGER.warn("metrics are not published over JMX: {}", e.toString());
+    }
+    if (reportSeconds > 0) {
+      final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+        final Thread thread = new Thread(task, "metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+      });
+      final Reporter report = INSTANCE.new Reporter();
+      reporter.scheduleAtFixedRate(report::log, reportSeconds, reportSeconds, TimeUnit.SECONDS);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        reporter.shutdownNow();
+        report.log();
+        report.logColumns();
+      }, "metrics-final-report"));
+    }
+    LOGGER.debug("metrics enabled, reported every {} seconds", reportSeconds);
+  }
+
+  static boolean isEnabled() {
+    return enabled;
+  }
+
+  static void recordWritten() {
+    if (enabled) INSTANCE.recordsWritten.increment();
+  }
+
+  static void recordsRead(long count) {
+    if (enabled) INSTANCE.recordsRead.add(count);
+  }
+
+  /**
+   * @return the time to pass to rowGroupFlushed(), or 0 when disabled
+   */
+  static long startTime() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  static void rowGroupFlushed(long startTime) {
+    if (startTime != 0) INSTANCE.rowGroupFlushes.record(System.nanoTime() - startTime);
+  }
+
+  /**
+   * Adds the sizes of the column chunks of a file just written to the per column totals.
+   */
+  static void fileWritten(@Nonnull ParquetMetadata footer) {
+    if (!enabled) return;
+    for (final BlockMetaData block : footer.getBlocks()) {
+      for (final ColumnChunkMetaData column : block.getColumns()) {
+        final ColumnSizes sizes = INSTANCE.columns.computeIfAbsent(column.getPath().toDotString(),
+                path -> new ColumnSizes());
+        sizes.compressed.add(column.getTotalSize());
+        sizes.uncompressed.add(column.getTotalUncompressedSize());
+      }
+    }
+  }
+
+  /**
+   * Reports the depth of a queue, under a name unique among those registered, until it
+   * is unregistered.
+   */
+  static void registerQueue(@Nonnull String name, @Nonnull IntSupplier depth) {
+    if (enabled) INSTANCE.queues.put(name, depth);
+  }
+
+  static void unregisterQueue(@Nonnull String name) {
+    INSTANCE.queues.remove(name);
+  }
+
+  private static final class ColumnSizes {
+    final LongAdder compressed = new LongAdder();
+    final LongAdder uncompressed = new LongAdder();
+
+    double ratio() {
+      final long compressedSize = compressed.sum();
+      return compressedSize > 0 ? (double) uncompressed.sum() / compressedSize : 0;
+    }
+  }
+
+  /**
+   * Counts of latencies in power of two buckets of microseconds: bucket i holds those
+   * of less than 2^i microseconds (and at least 2^(i-1)).
+   */
+  static final class LatencyHistogram {
+    private static final int BUCKETS = 40;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+      final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+      buckets.incrementAndGet(Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1));
+      count.increment();
+      maxNanos.accumulate(nanos);
+    }
+
+    long count() {
+      return count.sum();
+    }
+
+    long maxMicros() {
+      return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+    }
+
+    /**
+     * @return the upper bound of the bucket holding the given fraction of latencies
+     */
+    long percentileMicros(double fraction) {
+      long remaining = (long) Math.ceil(count() * fraction);
+      if (remaining == 0) return 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        remaining -= buckets.get(i);
+        if (remaining <= 0) return Math.min(upperBoundMicros(i), maxMicros());
+      }
+      return maxMicros();
+    }
+
+    Map<String, Long> toMap() {
+      final Map<String, Long> map = new LinkedHashMap<>();
+      for (int i = 0; i < BUCKETS; i++) {
+        final long bucketCount = buckets.get(i);
+        if (bucketCount > 0) {
+          map.put("<=" + upperBoundMicros(i) + "us", bucketCount);
+        }
+      }
+      return map;
+    }
+
+    private static long upperBoundMicros(int bucket) {
+      return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+  }
+
+  /**
+   * Logs the counts along with their rates since the previous report.
+   */
+  private final class Reporter {
+    private long lastNanos = enabledNanos;
+    private long lastRecordsWritten = 0;
+    private long lastRecordsRead = 0;
+    private long lastBytesWritten = 0;
+    private long lastBytesRead = 0;
+
+    synchronized void log() {
+      final long now = System.nanoTime();
+      final double seconds = Math.max(now - lastNanos, 1) / 1e9;
+      final long written = getRecordsWritten();
+      final long read = getRecordsRead();
+      final long bytesWritten = getBytesWritten();
+      final long bytesRead = getBytesRead();
+      LOGGER.info("records written {} ({}/s), read {} ({}/s); file bytes written {} ({} MB/s) in {} calls, "
+                      + "read {} ({} MB/s) in {} calls plus {} mapped, {} fsyncs in {} ms",
+              written, perSecond(written - lastRecordsWritten, seconds),
+              read, perSecond(read - lastRecordsRead, seconds),
+              bytesWritten, megabytesPerSecond(bytesWritten - lastBytesWritten, seconds), getWriteCalls(),
+              bytesRead, megabytesPerSecond(bytesRead - lastBytesRead, seconds), getReadCalls(),
+              getMappedBytesRead(), getForceCalls(), getForceMillis());
+      LOGGER.info("row group flushes {} (p50 {} us, p99 {} us, max {} us); queues {}; writer pool: {}",
+              getRowGroupFlushCount(), getRowGroupFlushP50Micros(), getRowGroupFlushP99Micros(),
+              getRowGroupFlushMaxMicros(), getQueueDepths(), ParquetWriterPool.shared().describe());
+      lastNanos = now;
+      lastRecordsWritten = written;
+      lastRecordsRead = read;
+      lastBytesWritten = bytesWritten;
+      lastBytesRead = bytesRead;
+    }
+
+    void logColumns() {
+      getCompressionRatioByColumn().forEach((column, ratio) ->
+              LOGGER.info("column \"{}\": compression ratio {}", column, String.format("%.2f", ratio)));
+    }
+  }
+
+  private static String perSecond(long count, double seconds) {
+    return String.format("%.0f", count / seconds);
+  }
+
+  private static String megabytesPerSecond(long bytes, double seconds) {
+    return String.format("%.1f", bytes / seconds / (1024 * 1024));
+  }
+
+  private double secondsEnabled() {
+    return Math.max(System.nanoTime() - enabledNanos, 1) / 1e9;
+  }
+
+  @Override
+  public long getUptimeSeconds() {
+    return (long) secondsEnabled();
+  }
+
+  @Override
+  public long getRecordsWritten() {
+    return recordsWritten.sum();
+  }
+
+  @Override
+  public long getRecordsRead() {
+    return recordsRead.sum();
+  }
+
+  @Override
+  public double getRecordsWrittenPerSecond() {
+    return getRecordsWritten() / secondsEnabled();
+  }
+
+  @Override
+  public double getRecordsReadPerSecond() {
+    return getRecordsRead() / secondsEnabled();
+  }
+
+  @Override
+  public long getBytesWritten() {
+    return IoStatistics.getBytesWritten();
+  }
+
+  @Override
+  public long getBytesRead() {
+    return IoStatistics.getBytesRead();
+  }
+
+  @Override
+  public long getMappedBytesRead() {
+    return IoStatistics.getMappedBytesRead();
+  }
+
+  @Override
+  public double getBytesWrittenPerSecond() {
+    return getBytesWritten() / secondsEnabled();
+  }
+
+  @Override
+  public double getBytesReadPerSecond() {
+    return (getBytesRead() + getMappedBytesRead()) / secondsEnabled();
+  }
+
+  @Override
+  public long getWriteCalls() {
+    return IoStatistics.getWriteCalls();
+  }
+
+  @Override
+  public long getReadCalls() {
+    return IoStatistics.getReadCalls();
+  }
+
+  @Override
+  public long getForceCalls() {
+    return IoStatistics.getForceCalls();
+  }
+
+  @Override
+  public long getWriteMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(IoStatistics.getWriteNanos());
+  }
+
+  @Override
+  public long getReadMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(IoStatistics.getReadNanos());
+  }
+
+  @Override
+  public long getForceMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(IoStatistics.getForceNanos());
+  }
+
+  @Override
+  public long getRowGroupFlushCount() {
+    return rowGroupFlushes.count();
+  }
+
+  @Override
+  public long getRowGroupFlushP50Micros() {
+    return rowGroupFlushes.percentileMicros(0.5);
+  }
+
+  @Override
+  public long getRowGroupFlushP99Micros() {
+    return rowGroupFlushes.percentileMicros(0.99);
+  }
+
+  @Override
+  public long getRowGroupFlushMaxMicros() {
+    return rowGroupFlushes.maxMicros();
+  }
+
+  @Override
+  public Map<String, Long> getRowGroupFlushHistogram() {
+    return rowGroupFlushes.toMap();
+  }
+
+  @Override
+  public Map<String, Double> getCompressionRatioByColumn() {
+    return columns.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().ratio(), (a, b) -> a, TreeMap::new));
+  }
+
+  @Override
+  public Map<String, Integer> getQueueDepths() {
+    return queues.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getAsInt(), (a, b) -> a,
+                    TreeMap::new));
+  }
+
+  @Override
+  public int getOpenWriterCount() {
+    return ParquetWriterPool.shared().getWriterCount();
+  }
+
+  @Override
+  public long getWriterBufferedBytes() {
+    return ParquetWriterPool.shared().getBufferedBytes();
+  }
+
+  @Override
+  public long getForcedRowGroupFlushCount() {
+    return ParquetWriterPool.shared().getForcedFlushCount();
+  }
+}
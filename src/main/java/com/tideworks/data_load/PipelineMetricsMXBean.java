@@ -0,0 +1,52 @@
+/* PipelineMetricsMXBean.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import java.util.Map;
+
+/**
+ * The management interface of PipelineMetrics, registered on the platform MBean server
+ * as com.tideworks.data_load:type=PipelineMetrics. Counts are totals since the metrics
+ * were enabled; rates are averaged over that same span.
+ */
+public interface PipelineMetricsMXBean {
+  long getUptimeSeconds();
+
+  long getRecordsWritten();
+  long getRecordsRead();
+  double getRecordsWrittenPerSecond();
+  double getRecordsReadPerSecond();
+
+  long getBytesWritten();
+  long getBytesRead();
+  long getMappedBytesRead();
+  double getBytesWrittenPerSecond();
+  double getBytesReadPerSecond();
+  long getWriteCalls();
+  long getReadCalls();
+  long getForceCalls();
+  long getWriteMillis();
+  long getReadMillis();
+  long getForceMillis();
+
+  long getRowGroupFlushCount();
+  long getRowGroupFlushP50Micros();
+  long getRowGroupFlushP99Micros();
+  long getRowGroupFlushMaxMicros();
+  /** row group flushes by upper bound of their latency, e.g. "<=16383us" */
+  Map<String, Long> getRowGroupFlushHistogram();
+
+  /** uncompressed over compressed size of each column written, by column path */
+  Map<String, Double> getCompressionRatioByColumn();
+
+  /** the current depth of each queue between pipeline stages */
+  Map<String, Integer> getQueueDepths();
+
+  int getOpenWriterCount();
+  long getWriterBufferedBytes();
+  long getForcedRowGroupFlushCount();
+}
@@ -0,0 +1,258 @@
+/* RollingParquetWriter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a stream of records as a sequence of Parquet files, closing the current file
+ * and starting the next one whenever it reaches a target byte size, record count or
+ * age. Each file is written under a hidden in-progress name (leading '.', which Parquet
+ * readers skip) and is renamed to its final name only once complete, so readers can
+ * pick up finished files while ingestion carries on.
+ * <p>
+ * The age limit is checked as records are written and by rollIfDue(), which
+ * writeToParquet() calls on a timer, so that a file is published on time even when the
+ * input goes idle. Records are written from one thread; rollIfDue() may be called from
+ * any.
+ */
+final class RollingParquetWriter implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RollingParquetWriter.class.getSimpleName());
+  static final String IN_PROGRESS_SUFFIX = ".inprogress";
+  private static final int SIZE_CHECK_INTERVAL = 128; // records between (non-trivial) data size checks
+  private static final long MIN_AGE_CHECK_MILLIS = 100;
+  private static final AtomicInteger timerCount = new AtomicInteger(0);
+  private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+    final Thread thread = new Thread(task, "roll-timer-" + timerCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * When to roll over to a new file; any limit left at zero does not apply.
+   */
+  static final class Policy {
+    private long maxBytes = 0;
+    private long maxRecords = 0;
+    private long maxAgeMillis = 0;
+
+    Policy bySize(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    Policy byRecordCount(long maxRecords) {
+      this.maxRecords = maxRecords;
+      return this;
+    }
+
+    Policy byInterval(long interval, @Nonnull TimeUnit unit) {
+      this.maxAgeMillis = unit.toMillis(interval);
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("roll at %d bytes, %d records, %d ms (0: no limit)", maxBytes, maxRecords, maxAgeMillis);
+    }
+  }
+
+  /**
+   * Notified as each file is published under its final name - on the writing thread, or
+   * on the one calling rollIfDue().
+   */
+  @FunctionalInterface
+  interface PublishListener {
+    void published(Path file, ParquetMetadata footer) throws IOException;
+  }
+
+  private final Schema schema;
+  private final Path outDir;
+  private final String filePrefix;
+  private final Policy policy;
+  private final WriterSettings settings;
+  private final PublishListener listener;
+  private ParquetWriterPool.PooledWriter writer;
+  private Path inProgressPath;
+  private Path finalPath;
+  private long fileRecords;
+  private long fileOpenedAt;
+  private int fileSeqNo = 0;
+  private IOException rollFailure = null; // of a timed roll, rethrown to the writing thread
+
+  RollingParquetWriter(@Nonnull Schema schema, @Nonnull Path outDir, @Nonnull String baseName,
+                       @Nonnull Policy policy, @Nonnull WriterSettings settings, PublishListener listener)
+          throws IOException
+  {
+    this.schema = schema;
+    this.outDir = Files.createDirectories(outDir);
+    // distinguishes the files of one run from those of an earlier run with the same base name
+    this.filePrefix = String.format("%s-%d-", baseName, System.currentTimeMillis());
+    this.policy = policy;
+    this.settings = settings;
+    this.listener = listener;
+  }
+
+  /**
+   * Writes the records produced by sink to as many files in outDir as the policy calls
+   * for, each merged into the _metadata summary of outDir (see DatasetSummary) as it is
+   * published. Given an age limit, a file is rolled on time while sink waits on input.
+   */
+  static void writeToParquet(@Nonnull final Schema schema,
+                             @Nonnull final Path outDir,
+                             @Nonnull final String baseName,
+                             @Nonnull final Policy policy,
+                             @Nonnull final WriterSettings settings,
+                             @Nonnull final DataLoad.GenericDataRecordSink sink) throws IOException
+  {
+    try (final RollingParquetWriter writer = new RollingParquetWriter(schema, outDir, baseName, policy, settings,
+            DatasetSummary::add))
+    {
+      final ScheduledFuture<?> ageChecks = policy.maxAgeMillis > 0
+              ? timer.scheduleWithFixedDelay(writer::rollIfDueOrKeepFailure, policy.maxAgeMillis,
+                      Math.max(policy.maxAgeMillis / 4, MIN_AGE_CHECK_MILLIS), TimeUnit.MILLISECONDS)
+              : null;
+      try {
+        //noinspection StatementWithEmptyBody
+        do ; while(sink.accept(writer::write));
+      } finally {
+        if (ageChecks != null) ageChecks.cancel(false);
+      }
+    }
+  }
+
+  synchronized void write(@Nonnull GenericData.Record record) throws IOException {
+    if (rollFailure != null) {
+      throw rollFailure; // the caller's close() then discards the file being written
+    }
+    if (writer == null) {
+      openNext();
+    }
+    writer.write(record);
+    fileRecords++;
+    if (limitReached()) {
+      publish();
+    }
+  }
+
+  /**
+   * Publishes the current file if it has outlived the age limit; for use when no
+   * records have arrived for a while.
+   */
+  synchronized void rollIfDue() throws IOException {
+    if (writer != null && ageLimitReached()) {
+      publish();
+    }
+  }
+
+  /**
+   * Publishes the current file, if any records have been written to it - unless a timed
+   * roll has failed, in which case the file is closed and deleted and the failure thrown.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (rollFailure == null) {
+      if (writer != null) {
+        publish();
+      }
+      return;
+    }
+    // a new exception, as rollFailure may be what write() threw into a try-with-resources
+    // that is closing this, and an exception cannot be suppressed by itself
+    final IOException failure = new IOException("a timed roll over to a new file failed", rollFailure);
+    if (writer != null) {
+      final ParquetWriterPool.PooledWriter abandoned = writer;
+      writer = null;
+      try {
+        abandoned.close(); // returns its buffers and its share of the writer pool's budget
+      } catch (IOException|RuntimeException e) {
+        failure.addSuppressed(e);
+      } finally {
+        try {
+          Files.deleteIfExists(inProgressPath);
+        } catch (IOException e) {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    throw failure;
+  }
+
+  private synchronized void rollIfDueOrKeepFailure() {
+    if (rollFailure != null) return;
+    try {
+      rollIfDue();
+    } catch (IOException e) {
+      rollFailure = e;
+    } catch (RuntimeException e) {
+      rollFailure = new IOException("rolling over to a new file failed", e);
+    }
+  }
+
+  private boolean limitReached() {
+    if (policy.maxRecords > 0 && fileRecords >= policy.maxRecords) return true;
+    // the estimate is of compressed pages plus the still uncompressed current page of
+    // each column, so it runs ahead of the final file size by up to a page per column
+    if (policy.maxBytes > 0 && fileRecords % SIZE_CHECK_INTERVAL == 0 && writer.getDataSize() >= policy.maxBytes) {
+      return true;
+    }
+    return ageLimitReached();
+  }
+
+  private boolean ageLimitReached() {
+    return policy.maxAgeMillis > 0 && System.currentTimeMillis() - fileOpenedAt >= policy.maxAgeMillis;
+  }
+
+  private void openNext() throws IOException {
+    final String fileName = String.format("%s%05d.parquet", filePrefix, fileSeqNo++);
+    finalPath = outDir.resolve(fileName);
+    inProgressPath = outDir.resolve("." + fileName + IN_PROGRESS_SUFFIX);
+    Files.deleteIfExists(inProgressPath);
+    writer = ParquetWriterPool.shared().open(schema, inProgressPath, settings);
+    fileRecords = 0;
+    fileOpenedAt = System.currentTimeMillis();
+  }
+
+  private void publish() throws IOException {
+    final ParquetWriterPool.PooledWriter closing = writer;
+    writer = null;
+    try {
+      closing.close();
+    } catch (IOException|RuntimeException e) {
+      Files.deleteIfExists(inProgressPath);
+      throw e;
+    }
+    try {
+      Files.move(inProgressPath, finalPath, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      // same directory, so this only happens on file systems with no atomic rename at all
+      Files.move(inProgressPath, finalPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+    final long fileSize = Files.size(finalPath);
+    LOGGER.info("published \"{}\": {} records, {} bytes", finalPath, fileRecords, fileSize);
+    if (listener != null) {
+      listener.published(finalPath, closing.getFooter());
+    }
+  }
+}
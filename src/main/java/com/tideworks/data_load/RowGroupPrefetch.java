@@ -0,0 +1,74 @@
+/* RowGroupPrefetch.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import com.tideworks.data_load.io.PrefetchingInputFile;
+import com.tideworks.data_load.io.ReadAhead;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tideworks.data_load.io.InputFile.nioPathToLocalInputFile;
+import static com.tideworks.data_load.io.InputFile.nioPathToPrefetchingInputFile;
+
+/**
+ * Reads the column chunks a ParquetFileReader is going to decode ahead of time, so that
+ * decoding a row group does not wait on reading it. Readers open their file through
+ * inputFile(), a prefetching io.InputFile when enabled, and hand it the chunks to read
+ * with start() once open: the byte ranges of the chunks of the requested columns, in the
+ * row groups left after filtering, are taken from the reader's footer, merged where close
+ * together and read in the background (see io.ReadAhead). Off unless enabled.
+ */
+final class RowGroupPrefetch {
+  private static volatile ReadAhead readAhead = null;
+
+  /**
+   * Has readers opened from here on keep up to depth reads of up to 8 MB ahead, all of
+   * them together within maxBytes; a depth of 0 turns prefetching off.
+   */
+  static void enable(int depth, long maxBytes) {
+    readAhead = depth > 0 ? new ReadAhead(depth, maxBytes, ReadAhead.DEFAULT_GAP_BYTES) : null;
+  }
+
+  /**
+   * @return the InputFile to open a reader of file on: one that prefetches, if enabled,
+   * else the local InputFile
+   */
+  static InputFile inputFile(@Nonnull Path file) throws IOException {
+    final ReadAhead settings = readAhead;
+    return settings != null ? nioPathToPrefetchingInputFile(file, settings) : nioPathToLocalInputFile(file);
+  }
+
+  /**
+   * Starts reading the chunks of the requestedSchema columns of the row groups reader
+   * has left to read, if it was opened on a prefetching input. Call once the requested
+   * schema is set and before the first row group is read.
+   */
+  static void start(@Nonnull InputFile input, @Nonnull ParquetFileReader reader, @Nonnull MessageType requestedSchema)
+          throws IOException
+  {
+    if (!(input instanceof PrefetchingInputFile)) return;
+    final List<ReadAhead.Range> ranges = new ArrayList<>();
+    for (final BlockMetaData rowGroup : reader.getRowGroups()) {
+      for (final ColumnChunkMetaData column : rowGroup.getColumns()) {
+        if (requestedSchema.containsPath(column.getPath().toArray())) {
+          // the same range ParquetFileReader reads: the dictionary page, if any, then the data pages
+          ranges.add(new ReadAhead.Range(column.getStartingPos(), column.getTotalSize()));
+        }
+      }
+    }
+    ((PrefetchingInputFile) input).prefetch(ranges);
+  }
+}
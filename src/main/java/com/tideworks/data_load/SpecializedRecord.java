@@ -0,0 +1,106 @@
+/* SpecializedRecord.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * A reusable record of a flat Avro schema with a primitive-typed API, as the faster
+ * alternative to GenericData.Record for writing Parquet. The concrete class for a schema
+ * is generated (see SpecializedRecordGenerator): each field is held in a field of its
+ * primitive type, and writing the record to Parquet is an unrolled sequence of direct
+ * RecordConsumer calls - no boxing, no map lookups, no walking of the schema and no
+ * allocation per record.
+ * <p>
+ * Look up field positions once with fieldIndex(), then set the fields of each record and
+ * write it; the writer copies the values, so the same instance is refilled for the next
+ * record. A field left unset (or setNull()) is written as null, which is an error for a
+ * field that is not a union with null. Strings, bytes, enums and fixed values are all
+ * set as Binary - for strings, Binary.fromString() or, better still, a Binary over
+ * reused UTF-8 bytes.
+ */
+abstract class SpecializedRecord {
+  private final Schema schema;
+  protected final boolean[] present;
+
+  protected SpecializedRecord(@Nonnull Schema schema) {
+    this.schema = schema;
+    this.present = new boolean[schema.getFields().size()];
+  }
+
+  /**
+   * @return a new record of the class generated for the schema
+   */
+  static SpecializedRecord newInstance(@Nonnull Schema schema) {
+    try {
+      return SpecializedRecordGenerator.recordClass(schema).getDeclaredConstructor(Schema.class).newInstance(schema);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("cannot instantiate record class generated for " + schema.getFullName(), e);
+    }
+  }
+
+  Schema getSchema() {
+    return schema;
+  }
+
+  int fieldIndex(@Nonnull String fieldName) {
+    final Schema.Field field = schema.getField(fieldName);
+    if (field == null) {
+      throw new IllegalArgumentException(String.format("%s has no field \"%s\"", schema.getFullName(), fieldName));
+    }
+    return field.pos();
+  }
+
+  public abstract void setInt(int field, int value);
+
+  public abstract void setLong(int field, long value);
+
+  public abstract void setFloat(int field, float value);
+
+  public abstract void setDouble(int field, double value);
+
+  public abstract void setBoolean(int field, boolean value);
+
+  public abstract void setBinary(int field, Binary value);
+
+  void setNull(int field) {
+    present[field] = false;
+  }
+
+  /**
+   * Sets every field to null.
+   */
+  void clear() {
+    Arrays.fill(present, false);
+  }
+
+  /**
+   * Writes the fields, between the startMessage() and endMessage() of the caller.
+   */
+  protected abstract void writeTo(RecordConsumer consumer);
+
+  // the failures of generated code
+
+  protected IllegalArgumentException wrongType(int field, String setter) {
+    if (field < 0 || field >= present.length) {
+      return new IllegalArgumentException(String.format("%s has no field %d", schema.getFullName(), field));
+    }
+    final Schema.Field f = schema.getFields().get(field);
+    return new IllegalArgumentException(String.format("%s(): field \"%s\" of %s is of type %s", setter, f.name(),
+            schema.getFullName(), f.schema()));
+  }
+
+  protected IllegalStateException missingValue(int field) {
+    return new IllegalStateException(String.format("no value for non-null field \"%s\" of %s",
+            schema.getFields().get(field).name(), schema.getFullName()));
+  }
+}
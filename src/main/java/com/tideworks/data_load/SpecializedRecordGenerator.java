@@ -0,0 +1,320 @@
+/* SpecializedRecordGenerator.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.ClassVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.InstrumentedType;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassVisitor;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import org.apache.avro.Schema;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Generates, once per Avro schema, the SpecializedRecord subclass of the schema: a field
+ * v&lt;n&gt; of the primitive type of each schema field, setters that switch on the field
+ * position straight to the putfield, and a writeTo() that is the unrolled sequence of
+ * RecordConsumer calls for every field. Only flat schemas are supported - fields of a
+ * primitive, enum or fixed type, or their union with null.
+ */
+final class SpecializedRecordGenerator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpecializedRecordGenerator.class.getSimpleName());
+  private static final ConcurrentMap<Schema, Class<? extends SpecializedRecord>> recordClasses =
+          new ConcurrentHashMap<>();
+  private static final AtomicInteger classCount = new AtomicInteger();
+  private static final String BASE = Type.getInternalName(SpecializedRecord.class);
+  private static final String CONSUMER = Type.getInternalName(RecordConsumer.class);
+
+  /**
+   * How a field is held and written - one per setter of SpecializedRecord.
+   */
+  private enum Slot {
+    INT(int.class, Opcodes.ILOAD, "setInt", "addInteger"),
+    LONG(long.class, Opcodes.LLOAD, "setLong", "addLong"),
+    FLOAT(float.class, Opcodes.FLOAD, "setFloat", "addFloat"),
+    DOUBLE(double.class, Opcodes.DLOAD, "setDouble", "addDouble"),
+    BOOLEAN(boolean.class, Opcodes.ILOAD, "setBoolean", "addBoolean"),
+    BINARY(Binary.class, Opcodes.ALOAD, "setBinary", "addBinary");
+
+    final Class<?> type;
+    final String descriptor;
+    final int loadOpcode;
+    final String setter;
+    final String consumerMethod;
+
+    Slot(Class<?> type, int loadOpcode, String setter, String consumerMethod) {
+      this.type = type;
+      this.descriptor = Type.getDescriptor(type);
+      this.loadOpcode = loadOpcode;
+      this.setter = setter;
+      this.consumerMethod = consumerMethod;
+    }
+  }
+
+  private static final class FieldSlot {
+    final int pos;
+    final String name;
+    final Slot slot;
+    final boolean nullable;
+
+    FieldSlot(int pos, String name, Slot slot, boolean nullable) {
+      this.pos = pos;
+      this.name = name;
+      this.slot = slot;
+      this.nullable = nullable;
+    }
+  }
+
+  private SpecializedRecordGenerator() {}
+
+  static Class<? extends SpecializedRecord> recordClass(@Nonnull Schema schema) {
+    return recordClasses.computeIfAbsent(schema, SpecializedRecordGenerator::generate);
+  }
+
+  private static Class<? extends SpecializedRecord> generate(Schema schema) {
+    if (schema.getType() != Schema.Type.RECORD) {
+      throw new IllegalArgumentException("schema must be a record, not " + schema.getType());
+    }
+    final List<FieldSlot> fields = new ArrayList<>();
+    for (final Schema.Field field : schema.getFields()) {
+      fields.add(toFieldSlot(schema, field));
+    }
+    final String className = String.format("%s$$%s$%d", SpecializedRecord.class.getName(),
+            schema.getName().replaceAll("[^A-Za-z0-9_]", "_"), classCount.incrementAndGet());
+    DynamicType.Builder<SpecializedRecord> builder = new ByteBuddy()
+            .withClassVisitor(COMPUTE_FRAMES)
+            .subclass(SpecializedRecord.class)
+            .name(className);
+    for (final FieldSlot field : fields) {
+      builder = builder.defineField(fieldName(field), field.slot.type, Visibility.PRIVATE);
+    }
+    for (final Slot slot : Slot.values()) {
+      builder = builder.method(named(slot.setter))
+              .intercept(new Generated(target -> new SetterAppender(target, slot, fields)));
+    }
+    builder = builder.method(named("writeTo")).intercept(new Generated(target -> new WriteToAppender(target, fields)));
+    final Class<? extends SpecializedRecord> recordClass = builder.make()
+            .load(SpecializedRecord.class.getClassLoader(), ClassLoadingStrategy.Default.INJECTION)
+            .getLoaded();
+    LOGGER.debug("generated {} for schema {}", recordClass.getName(), schema.getFullName());
+    return recordClass;
+  }
+
+  private static FieldSlot toFieldSlot(Schema schema, Schema.Field field) {
+    Schema type = field.schema();
+    boolean nullable = false;
+    if (type.getType() == Schema.Type.UNION) {
+      final List<Schema> types = type.getTypes();
+      if (types.size() == 2 && types.get(0).getType() == Schema.Type.NULL) {
+        type = types.get(1);
+        nullable = true;
+      } else if (types.size() == 2 && types.get(1).getType() == Schema.Type.NULL) {
+        type = types.get(0);
+        nullable = true;
+      }
+    }
+    final Slot slot;
+    switch (type.getType()) {
+      case INT:     slot = Slot.INT; break;
+      case LONG:    slot = Slot.LONG; break;
+      case FLOAT:   slot = Slot.FLOAT; break;
+      case DOUBLE:  slot = Slot.DOUBLE; break;
+      case BOOLEAN: slot = Slot.BOOLEAN; break;
+      case STRING:
+      case BYTES:
+      case ENUM:
+      case FIXED:   slot = Slot.BINARY; break;
+      default:
+        throw new UnsupportedOperationException(String.format(
+                "field \"%s\" of %s: %s is not supported by SpecializedRecord; write GenericData.Record instead",
+                field.name(), schema.getFullName(), field.schema()));
+    }
+    return new FieldSlot(field.pos(), field.name(), slot, nullable);
+  }
+
+  private static String fieldName(FieldSlot field) {
+    return "v" + field.pos;
+  }
+
+  private static void pushInt(MethodVisitor mv, int value) {
+    if (value <= 5) {
+      mv.visitInsn(Opcodes.ICONST_0 + value);
+    } else if (value <= Byte.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.BIPUSH, value);
+    } else if (value <= Short.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.SIPUSH, value);
+    } else {
+      mv.visitLdcInsn(value);
+    }
+  }
+
+  // the generated code only branches with an empty stack and unchanged locals, so ASM can
+  // compute the stack map frames without resolving any types
+  private static final ClassVisitorWrapper COMPUTE_FRAMES = new ClassVisitorWrapper() {
+    @Override
+    public int mergeWriter(int flags) {
+      return flags | ClassWriter.COMPUTE_FRAMES;
+    }
+
+    @Override
+    public int mergeReader(int flags) {
+      return flags;
+    }
+
+    @Override
+    public ClassVisitor wrap(ClassVisitor classVisitor) {
+      return classVisitor;
+    }
+  };
+
+  @FunctionalInterface
+  private interface AppenderFactory {
+    ByteCodeAppender create(Implementation.Target target);
+  }
+
+  private static final class Generated implements Implementation {
+    private final AppenderFactory appenderFactory;
+
+    Generated(AppenderFactory appenderFactory) {
+      this.appenderFactory = appenderFactory;
+    }
+
+    @Override
+    public InstrumentedType prepare(InstrumentedType instrumentedType) {
+      return instrumentedType;
+    }
+
+    @Override
+    public ByteCodeAppender appender(Target target) {
+      return appenderFactory.create(target);
+    }
+  }
+
+  /**
+   * set&lt;Type&gt;(int field, &lt;type&gt; value): a switch over the positions of the
+   * fields held in this slot to the putfield, then marks the field present.
+   */
+  private static final class SetterAppender implements ByteCodeAppender {
+    private final String owner;
+    private final Slot slot;
+    private final List<FieldSlot> fields = new ArrayList<>();
+
+    SetterAppender(Implementation.Target target, Slot slot, List<FieldSlot> allFields) {
+      this.owner = target.getTypeDescription().getInternalName();
+      this.slot = slot;
+      allFields.stream().filter(field -> field.slot == slot).forEach(fields::add); // in position order
+    }
+
+    @Override
+    public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+      final Label wrongType = new Label();
+      final int[] keys = new int[fields.size()];
+      final Label[] labels = new Label[fields.size()];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = fields.get(i).pos;
+        labels[i] = new Label();
+      }
+      mv.visitVarInsn(Opcodes.ILOAD, 1);
+      mv.visitLookupSwitchInsn(wrongType, keys, labels);
+      for (int i = 0; i < keys.length; i++) {
+        mv.visitLabel(labels[i]);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(slot.loadOpcode, 2);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, owner, fieldName(fields.get(i)), slot.descriptor);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, BASE, "present", "[Z");
+        mv.visitVarInsn(Opcodes.ILOAD, 1);
+        mv.visitInsn(Opcodes.ICONST_1);
+        mv.visitInsn(Opcodes.BASTORE);
+        mv.visitInsn(Opcodes.RETURN);
+      }
+      mv.visitLabel(wrongType);
+      mv.visitVarInsn(Opcodes.ALOAD, 0);
+      mv.visitVarInsn(Opcodes.ILOAD, 1);
+      mv.visitLdcInsn(slot.setter);
+      mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE, "wrongType",
+              "(ILjava/lang/String;)Ljava/lang/IllegalArgumentException;", false);
+      mv.visitInsn(Opcodes.ATHROW);
+      return new Size(4, method.getStackSize());
+    }
+  }
+
+  /**
+   * writeTo(RecordConsumer consumer): for each field in turn, skips it if null (or fails
+   * if it is not nullable), else startField(), add&lt;Type&gt;(v&lt;n&gt;), endField().
+   */
+  private static final class WriteToAppender implements ByteCodeAppender {
+    private final String owner;
+    private final List<FieldSlot> fields;
+
+    WriteToAppender(Implementation.Target target, List<FieldSlot> fields) {
+      this.owner = target.getTypeDescription().getInternalName();
+      this.fields = fields;
+    }
+
+    @Override
+    public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+      for (final FieldSlot field : fields) {
+        final Label next = new Label();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, BASE, "present", "[Z");
+        pushInt(mv, field.pos);
+        mv.visitInsn(Opcodes.BALOAD);
+        if (field.nullable) {
+          mv.visitJumpInsn(Opcodes.IFEQ, next);
+        } else {
+          final Label present = new Label();
+          mv.visitJumpInsn(Opcodes.IFNE, present);
+          mv.visitVarInsn(Opcodes.ALOAD, 0);
+          pushInt(mv, field.pos);
+          mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE, "missingValue", "(I)Ljava/lang/IllegalStateException;",
+                  false);
+          mv.visitInsn(Opcodes.ATHROW);
+          mv.visitLabel(present);
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitLdcInsn(field.name);
+        pushInt(mv, field.pos);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CONSUMER, "startField", "(Ljava/lang/String;I)V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, owner, fieldName(field), field.slot.descriptor);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CONSUMER, field.slot.consumerMethod,
+                "(" + field.slot.descriptor + ")V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitLdcInsn(field.name);
+        pushInt(mv, field.pos);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CONSUMER, "endField", "(Ljava/lang/String;I)V", false);
+        mv.visitLabel(next);
+      }
+      mv.visitInsn(Opcodes.RETURN);
+      return new Size(4, method.getStackSize());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/* SpecializedWriteSupport.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.RecordConsumer;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parquet WriteSupport for SpecializedRecord: each record writes itself to the
+ * RecordConsumer (see SpecializedRecordGenerator). The Parquet schema and footer
+ * metadata are those AvroWriteSupport produces for the same Avro schema, so the files
+ * read back with AvroParquetReader like any others.
+ */
+final class SpecializedWriteSupport extends WriteSupport<SpecializedRecord> {
+  private static final String MODEL_NAME = "avro"; // as AvroWriteSupport records it
+
+  private final Schema schema;
+  private RecordConsumer consumer;
+
+  SpecializedWriteSupport(@Nonnull Schema schema) {
+    this.schema = schema;
+  }
+
+  static Builder builder(@Nonnull OutputFile file, @Nonnull Schema schema) {
+    return new Builder(file, schema);
+  }
+
+  @Override
+  public String getName() {
+    return MODEL_NAME;
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    final Map<String, String> extraMetaData = new HashMap<>();
+    // under the key AvroReadSupport looks the Avro schema up by
+    extraMetaData.put(AvroReadSupport.AVRO_SCHEMA_METADATA_KEY, schema.toString());
+    return new WriteContext(new AvroSchemaConverter(configuration).convert(schema), extraMetaData);
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    this.consumer = recordConsumer;
+  }
+
+  @Override
+  public void write(SpecializedRecord record) {
+    consumer.startMessage();
+    record.writeTo(consumer);
+    consumer.endMessage();
+  }
+
+  static final class Builder extends ParquetWriter.Builder<SpecializedRecord, Builder> {
+    private final Schema schema;
+
+    private Builder(OutputFile file, Schema schema) {
+      super(file);
+      this.schema = schema;
+    }
+
+    @Override
+    protected Builder self() {
+      return this;
+    }
+
+    @Override
+    protected WriteSupport<SpecializedRecord> getWriteSupport(Configuration configuration) {
+      return new SpecializedWriteSupport(schema);
+    }
+  }
+}
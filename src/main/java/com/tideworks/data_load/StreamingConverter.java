@@ -0,0 +1,138 @@
+/* StreamingConverter.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.tideworks.data_load.DataLoad.writeRecordsToParquet;
+import static com.tideworks.data_load.io.OutputFile.channelToStreamOutputFile;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Converts an .avro, .json/.jsonl/.ndjson or .csv file to Parquet and streams the result
+ * straight to a downstream consumer - stdout, a TCP socket, or a named pipe (or plain
+ * file) - rather than to a local file that then has to be copied. The Parquet writer
+ * never seeks, so a stream of the bytes in order is all it needs; the footer, with the
+ * offsets of the row groups, comes last.
+ * <p>
+ * Streaming to stdout sends the console log to stderr. Sort order, adaptive encoding
+ * and metrics apply as for the other modes; writer threads and checkpoints do not, as
+ * there is one stream.
+ */
+final class StreamingConverter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingConverter.class.getSimpleName());
+  static final String USAGE =
+          "stream <input.avro | input.jsonl | input.csv> <- | host:port | output-path> [decode-threads [csv-schema]]";
+  private static final Pattern HOST_PORT = Pattern.compile("([^/\\\\]+):(\\d+)");
+
+  /**
+   * Command line entry: input file, destination ('-' for stdout, host:port for a TCP
+   * connection, else a path), decode thread count (default: available processors) and
+   * the schema of a .csv input - an .avsc file, else a resource as loaded by
+   * DataLoad.loadSchema() (default: the sample schema).
+   */
+  static void run(@Nonnull String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    if (DataLoad.isCheckpointing() || DataLoad.isRolling()) {
+      // a stream is one Parquet file, not a directory of them
+      throw new IllegalArgumentException("--checkpoint-mb and --roll-* options do not apply to stream mode");
+    }
+    final Path inputFile = Paths.get(args[0]);
+    if (IngestionService.formatOf(inputFile) == null) {
+      throw new IllegalArgumentException("usage: " + USAGE);
+    }
+    final int decodeThreads = args.length > 2
+            ? Integer.parseUnsignedInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+    final Schema csvSchema = DataLoad.loadSchema(args.length > 3 ? args[3] : DataLoad.SCHEMA_FILE_NAME);
+    try (final WritableByteChannel channel = openDestination(args[1])) {
+      convert(inputFile, channel, args[1], decodeThreads, csvSchema);
+    }
+  }
+
+  /**
+   * Opens '-' (stdout), host:port (a TCP connection) or a path (e.g. a named pipe).
+   */
+  static WritableByteChannel openDestination(@Nonnull String destination) throws IOException {
+    if (destination.equals("-")) {
+      // the console log appender writes to System.out - which from here on is stderr
+      System.setOut(System.err);
+      return new FileOutputStream(FileDescriptor.out).getChannel();
+    }
+    final Matcher hostPort = HOST_PORT.matcher(destination);
+    if (hostPort.matches()) {
+      return SocketChannel.open(new InetSocketAddress(hostPort.group(1), Integer.parseInt(hostPort.group(2))));
+    }
+    return FileChannel.open(Paths.get(destination), CREATE, WRITE, TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Writes inputFile as Parquet to channel, which name describes in messages, and closes it.
+   *
+   * @return the number of records converted
+   */
+  static long convert(@Nonnull final Path inputFile, @Nonnull final WritableByteChannel channel,
+                      @Nonnull final String name, final int decodeThreads, @Nonnull final Schema csvSchema)
+          throws IOException
+  {
+    final long startTime = System.nanoTime();
+    final String fileName = inputFile.getFileName().toString();
+    final String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+    final org.apache.parquet.io.OutputFile outputFile = channelToStreamOutputFile(channel);
+    final long records;
+    switch (IngestionService.formatOf(inputFile)) {
+      case "avro":
+        try (final AvroContainerReader reader = AvroContainerReader.open(inputFile, decodeThreads)) {
+          final Schema schema = reader.getSchema();
+          if (schema.getType() != Schema.Type.RECORD) {
+            throw new IOException(String.format("%s: top level schema must be a record, not %s", inputFile,
+                    schema.getType()));
+          }
+          writeRecordsToParquet(schema, outputFile, name, reader);
+          records = reader.getRecordCount();
+        }
+        break;
+      case "json":
+        final Schema jsonSchema = JsonSchemaInference.inferSchema(inputFile, baseName,
+                JsonSchemaInference.DEFAULT_SAMPLE_SIZE);
+        try (final JsonLinesReader reader = JsonLinesReader.open(inputFile, jsonSchema, decodeThreads)) {
+          writeRecordsToParquet(jsonSchema, outputFile, name, reader);
+          records = reader.getRecordCount();
+        }
+        break;
+      default:
+        try (final CsvReader reader = CsvReader.open(inputFile, csvSchema, decodeThreads, true)) {
+          writeRecordsToParquet(csvSchema, outputFile, name, reader);
+          records = reader.getRecordCount();
+        }
+        break;
+    }
+    LOGGER.info("streamed {} records from \"{}\" to \"{}\" in {} ms", records, inputFile, name,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return records;
+  }
+}
@@ -0,0 +1,43 @@
+/* WriterSettings.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The encoding settings of a Parquet writer that vary by dataset: compression codec,
+ * dictionary encoding, row group size and page size. The writer of this Parquet version
+ * applies dictionary encoding to all columns of a file or to none.
+ */
+final class WriterSettings {
+  static final WriterSettings DEFAULT =
+          new WriterSettings(CompressionCodecName.GZIP, false, 256 * 1024 * 1024, 128 * 1024);
+
+  final CompressionCodecName codec;
+  final boolean dictionaryEncoding;
+  final int rowGroupSize;
+  final int pageSize;
+
+  WriterSettings(@Nonnull CompressionCodecName codec, boolean dictionaryEncoding, int rowGroupSize, int pageSize) {
+    this.codec = codec;
+    this.dictionaryEncoding = dictionaryEncoding;
+    this.rowGroupSize = rowGroupSize;
+    this.pageSize = pageSize;
+  }
+
+  WriterSettings withEncoding(@Nonnull CompressionCodecName codec, boolean dictionaryEncoding) {
+    return new WriterSettings(codec, dictionaryEncoding, rowGroupSize, pageSize);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s, dictionary %s, row groups of %d bytes, pages of %d bytes", codec,
+            dictionaryEncoding ? "on" : "off", rowGroupSize, pageSize);
+  }
+}
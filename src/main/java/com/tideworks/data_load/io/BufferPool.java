@@ -0,0 +1,76 @@
+/** BufferPool.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Direct buffers in power of two sizes from 64 KB to 8 MB, allocated on demand up to a
+ * total of maxBytes and then reused. Buffers released to the pool are kept for reuse;
+ * a free buffer of another size is freed to make room for one that is needed.
+ */
+final class BufferPool {
+  private static final int MIN_SIZE_SHIFT = 16; // 64 KB
+  private static final int SIZE_CLASSES = 8;    // up to 8 MB
+
+  private final long maxBytes;
+  private final ArrayDeque<ByteBuffer>[] free;
+  private long allocatedBytes = 0;
+
+  @SuppressWarnings("unchecked")
+  BufferPool(long maxBytes) {
+    this.maxBytes = maxBytes;
+    this.free = new ArrayDeque[SIZE_CLASSES];
+    for (int i = 0; i < SIZE_CLASSES; i++) {
+      free[i] = new ArrayDeque<>();
+    }
+  }
+
+  /**
+   * @return a buffer with its limit set to size, or null if the pool is at its limit
+   */
+  synchronized ByteBuffer acquire(int size) {
+    final int sizeClass = sizeClass(size);
+    ByteBuffer buffer = free[sizeClass].pollFirst();
+    if (buffer == null) {
+      final int capacity = 1 << (MIN_SIZE_SHIFT + sizeClass);
+      while (allocatedBytes + capacity > maxBytes) {
+        if (!freeOne()) return null;
+      }
+      allocatedBytes += capacity;
+      buffer = ByteBuffer.allocateDirect(capacity);
+    }
+    buffer.clear();
+    buffer.limit(size);
+    return buffer;
+  }
+
+  synchronized void release(ByteBuffer buffer) {
+    free[sizeClass(buffer.capacity())].addFirst(buffer);
+  }
+
+  // frees the largest free buffer
+  private boolean freeOne() {
+    for (int i = SIZE_CLASSES - 1; i >= 0; i--) {
+      final ByteBuffer buffer = free[i].pollLast();
+      if (buffer != null) {
+        allocatedBytes -= buffer.capacity();
+        DirectBuffers.release(buffer);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int sizeClass(int size) {
+    if (size <= 0 || size > 1 << (MIN_SIZE_SHIFT + SIZE_CLASSES - 1)) {
+      throw new IllegalArgumentException("no pooled buffer of " + size + " bytes");
+    }
+    return Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT);
+  }
+}
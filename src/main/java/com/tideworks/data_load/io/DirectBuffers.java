@@ -0,0 +1,67 @@
+/** DirectBuffers.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Explicit release of direct and memory mapped buffers. Left to the garbage collector
+ * their native memory (or mapping) lingers until the buffer object is collected, which
+ * for large, long-lived buffers can be a very long time.
+ */
+final class DirectBuffers {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DirectBuffers.class.getSimpleName());
+  private static final Releaser releaser = makeReleaser();
+
+  @FunctionalInterface
+  private interface Releaser {
+    void release(ByteBuffer buffer) throws Exception;
+  }
+
+  /**
+   * Frees the native memory of a direct buffer, or unmaps a mapped one. The buffer, and
+   * every duplicate or slice of it, must not be touched afterwards.
+   */
+  static void release(ByteBuffer buffer) {
+    if (releaser == null || buffer == null || !buffer.isDirect()) return; // left to the garbage collector
+    try {
+      releaser.release(buffer);
+    } catch (Exception e) {
+      LOGGER.warn("failed to release direct buffer - leaving it to the garbage collector:", e);
+    }
+  }
+
+  private static Releaser makeReleaser() {
+    try {
+      // Java 9 and later
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      final Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (ReflectiveOperationException|RuntimeException ignored) {
+      // fall through to the Java 8 approach
+    }
+    try {
+      final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        final Object bufCleaner = cleaner.invoke(buffer);
+        if (bufCleaner != null) clean.invoke(bufCleaner);
+      };
+    } catch (ReflectiveOperationException|RuntimeException e) {
+      LOGGER.warn("explicit release of direct buffers not supported on this JVM:", e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,19 @@
+/** Durability.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+/**
+ * When a channel backed Parquet output stream forces its data to stable storage.
+ */
+public enum Durability {
+  /** never fsync - leave it to the operating system */
+  NONE,
+  /** fsync data and metadata once, when the stream is closed */
+  FSYNC_ON_CLOSE,
+  /** fsync each row group once written (see RowGroupListener), and on close */
+  FSYNC_PER_ROW_GROUP
+}
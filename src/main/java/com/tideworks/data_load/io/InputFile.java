@@ -14,16 +14,20 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 public final class InputFile {
-  private static final int COPY_BUFFER_SIZE = 8192;
+  public static final int DEFAULT_READ_BUFFER_SIZE = 64 * 1024;
+  public static final long DEFAULT_MMAP_THRESHOLD = 64L * 1024 * 1024;
 
   public static org.apache.parquet.io.InputFile nioPathToInputFile(@Nonnull Path file) throws FileNotFoundException {
     //noinspection ConstantConditions
     assert file != null;
 
     final RandomAccessFile input = new RandomAccessFile(file.toFile(), "r");
+    final FileChannel channel = input.getChannel();
 
     return new org.apache.parquet.io.InputFile() {
       @Override
@@ -34,24 +38,29 @@ public final class InputFile {
       @Override
       public SeekableInputStream newStream() throws IOException {
         return new SeekableInputStream() {
-          private final byte[] tmpBuf = new byte[COPY_BUFFER_SIZE];
           private long markPos = 0;
 
           @Override
           public int read() throws IOException {
-            return input.read();
+            final long startTime = IoStatistics.startTime();
+            final int b = input.read();
+            IoStatistics.read(b < 0 ? 0 : 1, startTime);
+            return b;
           }
 
           @SuppressWarnings("NullableProblems")
           @Override
           public int read(byte[] b) throws IOException {
-            return input.read(b);
+            return read(b, 0, b.length);
           }
 
           @SuppressWarnings("NullableProblems")
           @Override
           public int read(byte[] b, int off, int len) throws IOException {
-            return input.read(b, off, len);
+            final long startTime = IoStatistics.startTime();
+            final int bytesRead = input.read(b, off, len);
+            IoStatistics.read(bytesRead, startTime);
+            return bytesRead;
           }
 
           @Override
@@ -111,68 +120,106 @@ public final class InputFile {
 
           @Override
           public void readFully(byte[] bytes) throws IOException {
-            input.readFully(bytes);
+            readFully(bytes, 0, bytes.length);
           }
 
           @Override
           public void readFully(byte[] bytes, int i, int i1) throws IOException {
+            final long startTime = IoStatistics.startTime();
             input.readFully(bytes, i, i1);
+            IoStatistics.read(i1, startTime);
           }
 
+          // the channel shares the file pointer of input, so these reads fill the
+          // ByteBuffer (heap or direct) straight from the file with no bounce buffer
+
           @Override
           public int read(ByteBuffer byteBuffer) throws IOException {
-            return readDirectBuffer(byteBuffer, tmpBuf, input::read);
+            final long startTime = IoStatistics.startTime();
+            final int bytesRead = channel.read(byteBuffer);
+            IoStatistics.read(bytesRead, startTime);
+            return bytesRead;
           }
 
           @Override
           public void readFully(ByteBuffer byteBuffer) throws IOException {
-            readFullyDirectBuffer(byteBuffer, tmpBuf, input::read);
+            while (byteBuffer.hasRemaining()) {
+              if (read(byteBuffer) < 0) {
+                throw new EOFException("Reached the end of stream with " + byteBuffer.remaining() + " bytes left to read");
+              }
+            }
           }
         };
       }
     };
   }
 
-  @FunctionalInterface
-  private interface ByteBufReader {
-    int read(byte[] b, int off, int len) throws IOException;
+  /**
+   * Returns an InputFile whose streams each keep their own position and read through a
+   * shared, reference counted FileChannel using positional reads. Unlike
+   * nioPathToInputFile(), any number of streams may be open at once, on any threads.
+   */
+  public static org.apache.parquet.io.InputFile nioPathToPositionalInputFile(@Nonnull Path file) throws IOException {
+    return nioPathToPositionalInputFile(file, DEFAULT_READ_BUFFER_SIZE);
   }
 
-  private static int readDirectBuffer(ByteBuffer byteBufr, byte[] tmpBuf, ByteBufReader rdr) throws IOException {
-    // copy all the bytes that return immediately, stopping at the first
-    // read that doesn't return a full buffer.
-    int nextReadLength = Math.min(byteBufr.remaining(), tmpBuf.length);
-    int totalBytesRead = 0;
-    int bytesRead;
-
-    while ((bytesRead = rdr.read(tmpBuf, 0, nextReadLength)) == tmpBuf.length) {
-      byteBufr.put(tmpBuf);
-      totalBytesRead += bytesRead;
-      nextReadLength = Math.min(byteBufr.remaining(), tmpBuf.length);
+  /**
+   * As nioPathToPositionalInputFile(Path), with the size of the per-stream buffer that
+   * serves small reads (such as the byte-at-a-time Thrift decoding of the footer).
+   * Reads of readBufSize bytes or more bypass the buffer and go straight into the
+   * caller's array or ByteBuffer in a single channel read.
+   */
+  public static org.apache.parquet.io.InputFile nioPathToPositionalInputFile(@Nonnull Path file, int readBufSize)
+          throws IOException
+  {
+    //noinspection ConstantConditions
+    assert file != null;
+    if (readBufSize <= 0) {
+      throw new IllegalArgumentException("read buffer size must be positive: " + readBufSize);
     }
+    return new PositionalInputFile(file, readBufSize);
+  }
 
-    if (bytesRead < 0) {
-      // return -1 if nothing was read
-      return totalBytesRead == 0 ? -1 : totalBytesRead;
-    } else {
-      // copy the last partial buffer
-      byteBufr.put(tmpBuf, 0, bytesRead);
-      totalBytesRead += bytesRead;
-      return totalBytesRead;
-    }
+  /**
+   * Returns an InputFile that serves reads from a memory mapping of the file. Files over
+   * 2 GB are mapped in 1 GB segments. The mapping is shared by all open streams and is
+   * explicitly unmapped when the last of them is closed.
+   */
+  public static org.apache.parquet.io.InputFile nioPathToMappedInputFile(@Nonnull Path file) throws IOException {
+    //noinspection ConstantConditions
+    assert file != null;
+    return new MappedInputFile(file);
   }
 
-  private static void readFullyDirectBuffer(ByteBuffer byteBufr, byte[] tmpBuf, ByteBufReader rdr) throws IOException {
-    int nextReadLength = Math.min(byteBufr.remaining(), tmpBuf.length);
-    int bytesRead = 0;
+  /**
+   * Picks the local read strategy by file size: files of at least mmapThreshold bytes
+   * are memory mapped, smaller ones use positional reads, where the cost of setting up
+   * (and tearing down) a mapping is not recouped.
+   */
+  public static org.apache.parquet.io.InputFile nioPathToLocalInputFile(@Nonnull Path file, long mmapThreshold)
+          throws IOException
+  {
+    //noinspection ConstantConditions
+    assert file != null;
+    return Files.size(file) >= mmapThreshold
+            ? nioPathToMappedInputFile(file)
+            : nioPathToPositionalInputFile(file);
+  }
 
-    while (nextReadLength > 0 && (bytesRead = rdr.read(tmpBuf, 0, nextReadLength)) >= 0) {
-      byteBufr.put(tmpBuf, 0, bytesRead);
-      nextReadLength = Math.min(byteBufr.remaining(), tmpBuf.length);
-    }
+  public static org.apache.parquet.io.InputFile nioPathToLocalInputFile(@Nonnull Path file) throws IOException {
+    return nioPathToLocalInputFile(file, DEFAULT_MMAP_THRESHOLD);
+  }
 
-    if (bytesRead < 0 && byteBufr.remaining() > 0) {
-      throw new EOFException("Reached the end of stream with " + byteBufr.remaining() + " bytes left to read");
-    }
+  /**
+   * Returns an InputFile whose streams read the byte ranges passed to its prefetch()
+   * ahead of their use, on background threads, as set by readAhead (whose buffer pool
+   * they share with all other streams of it). Other reads are positional reads.
+   */
+  public static PrefetchingInputFile nioPathToPrefetchingInputFile(@Nonnull Path file, @Nonnull ReadAhead readAhead)
+          throws IOException
+  {
+    //noinspection ConstantConditions
+    assert file != null && readAhead != null;
+    return new PrefetchingInputFile(file, readAhead);
   }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+/** IoStatistics.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import javax.annotation.Nonnull;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counts of the bytes, calls and time spent in the file reads, writes and
+ * forces (fsyncs) of the InputFile and OutputFile adapters. Each call into the file
+ * system counts as one call, so the counts are those of the system calls made. Reads
+ * of a memory mapping make no calls and are counted apart, as mapped bytes read.
+ * <p>
+ * Disabled by default, in which case the adapters only pay for a check of a flag.
+ * Streams opened while disabled are not counted even if it is later enabled.
+ */
+public final class IoStatistics {
+  private static volatile boolean enabled = false;
+
+  private static final LongAdder bytesRead = new LongAdder();
+  private static final LongAdder readCalls = new LongAdder();
+  private static final LongAdder readNanos = new LongAdder();
+  private static final LongAdder mappedBytesRead = new LongAdder();
+  private static final LongAdder bytesWritten = new LongAdder();
+  private static final LongAdder writeCalls = new LongAdder();
+  private static final LongAdder writeNanos = new LongAdder();
+  private static final LongAdder forceCalls = new LongAdder();
+  private static final LongAdder forceNanos = new LongAdder();
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static long getBytesRead() { return bytesRead.sum(); }
+  public static long getReadCalls() { return readCalls.sum(); }
+  public static long getReadNanos() { return readNanos.sum(); }
+  public static long getMappedBytesRead() { return mappedBytesRead.sum(); }
+  public static long getBytesWritten() { return bytesWritten.sum(); }
+  public static long getWriteCalls() { return writeCalls.sum(); }
+  public static long getWriteNanos() { return writeNanos.sum(); }
+  public static long getForceCalls() { return forceCalls.sum(); }
+  public static long getForceNanos() { return forceNanos.sum(); }
+
+  /**
+   * @return the time to pass to the recording of the call about to be made, or 0 when
+   * disabled (so nothing is recorded)
+   */
+  static long startTime() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  static void read(long bytes, long startTime) {
+    if (startTime == 0) return;
+    readNanos.add(System.nanoTime() - startTime);
+    readCalls.increment();
+    if (bytes > 0) bytesRead.add(bytes);
+  }
+
+  static void mappedRead(long bytes) {
+    if (enabled) mappedBytesRead.add(bytes);
+  }
+
+  static void write(long bytes, long startTime) {
+    if (startTime == 0) return;
+    writeNanos.add(System.nanoTime() - startTime);
+    writeCalls.increment();
+    bytesWritten.add(bytes);
+  }
+
+  static void force(long startTime) {
+    if (startTime == 0) return;
+    forceNanos.add(System.nanoTime() - startTime);
+    forceCalls.increment();
+  }
+
+  /**
+   * Wraps the stream of a file, below any buffering, to count its writes when enabled.
+   */
+  static OutputStream counting(@Nonnull OutputStream out) {
+    return !enabled ? out : new FilterOutputStream(out) {
+      @Override
+      public void write(int b) throws IOException {
+        final long startTime = startTime();
+        out.write(b);
+        IoStatistics.write(1, startTime);
+      }
+
+      @Override
+      public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+        final long startTime = startTime();
+        out.write(b, off, len); // not the byte-at-a-time write of FilterOutputStream
+        IoStatistics.write(len, startTime);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        out.flush();
+      }
+    };
+  }
+}
@@ -0,0 +1,204 @@
+/** MappedInputFile.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.tideworks.data_load.io.SharedMappedFile.SEGMENT_MASK;
+import static com.tideworks.data_load.io.SharedMappedFile.SEGMENT_SHIFT;
+
+/**
+ * InputFile whose streams read from a memory mapping of the whole file, so that reads
+ * of pages already in the page cache involve no system calls at all. As with
+ * PositionalInputFile, every stream has its own position and the mapping is shared and
+ * reference counted - it is unmapped when the last stream is closed.
+ */
+final class MappedInputFile implements org.apache.parquet.io.InputFile {
+  private final Path file;
+  private final long length;
+  private SharedMappedFile shared;
+
+  MappedInputFile(@Nonnull Path file) throws IOException {
+    this.file = file;
+    this.length = Files.size(file); // Parquet files are immutable once written
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new MappedInputStream(acquire(), length);
+  }
+
+  private synchronized SharedMappedFile acquire() throws IOException {
+    if (shared == null || !shared.retain()) {
+      shared = SharedMappedFile.map(file, length);
+    }
+    return shared;
+  }
+
+  @Override
+  public String toString() {
+    return file.toString();
+  }
+
+  private static final class MappedInputStream extends SeekableInputStream {
+    private final SharedMappedFile shared;
+    private final long length;
+    private ByteBuffer[] views;
+    private long position = 0;
+    private long markPos = 0;
+
+    MappedInputStream(@Nonnull SharedMappedFile shared, long length) {
+      this.shared = shared;
+      this.views = shared.newViews();
+      this.length = length;
+    }
+
+    private ByteBuffer segmentAt(long pos) throws IOException {
+      if (views == null) {
+        throw new IOException("Stream is closed");
+      }
+      return views[(int) (pos >>> SEGMENT_SHIFT)];
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position >= length) return -1;
+      final int b = segmentAt(position).get((int) (position & SEGMENT_MASK)) & 0xff;
+      position++;
+      return b;
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) return 0;
+      if (position >= length) return -1;
+      final int toRead = (int) Math.min(len, length - position);
+      copyTo(toRead, (view, count) -> view.get(b, off + toRead - count, view.remaining()));
+      return toRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) return 0;
+      n = Math.min(n, length - position);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(Math.max(length - position, 0), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (views != null) {
+        views = null;
+        shared.release();
+      }
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+      markPos = position;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+      position = markPos;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return true;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+      return position;
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      if (newPos < 0) {
+        throw new EOFException("Cannot seek to a negative position: " + newPos);
+      }
+      position = newPos;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int off, int len) throws IOException {
+      checkFullyAvailable(len);
+      copyTo(len, (view, count) -> view.get(bytes, off + len - count, view.remaining()));
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException {
+      if (!byteBuffer.hasRemaining()) return 0;
+      if (position >= length) return -1;
+      final int len = (int) Math.min(byteBuffer.remaining(), length - position);
+      copyTo(len, (view, count) -> byteBuffer.put(view));
+      return len;
+    }
+
+    @Override
+    public void readFully(ByteBuffer byteBuffer) throws IOException {
+      checkFullyAvailable(byteBuffer.remaining());
+      copyTo(byteBuffer.remaining(), (view, count) -> byteBuffer.put(view));
+    }
+
+    private void checkFullyAvailable(int len) throws EOFException {
+      final long remaining = Math.max(length - position, 0);
+      if (len > remaining) {
+        throw new EOFException("Reached the end of stream with " + (len - remaining) + " bytes left to read");
+      }
+    }
+
+    @FunctionalInterface
+    private interface SliceConsumer {
+      /**
+       * @param view  segment view positioned and limited to the next slice to consume
+       * @param count bytes still to be copied, including this slice
+       */
+      void accept(ByteBuffer view, int count);
+    }
+
+    // hands the consumer successive slices of the mapped segments covering len bytes
+    private void copyTo(int len, SliceConsumer consumer) throws IOException {
+      IoStatistics.mappedRead(len);
+      int count = len;
+      while (count > 0) {
+        final ByteBuffer view = segmentAt(position);
+        final int offset = (int) (position & SEGMENT_MASK);
+        final int sliceLen = Math.min(count, view.capacity() - offset);
+        view.limit(offset + sliceLen).position(offset);
+        consumer.accept(view, count);
+        view.clear();
+        position += sliceLen;
+        count -= sliceLen;
+      }
+    }
+  }
+}
@@ -10,17 +10,27 @@ import org.apache.parquet.io.PositionOutputStream;
 
 import javax.annotation.Nonnull;
 import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.nio.file.StandardOpenOption.APPEND;
 import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 public final class OutputFile {
   private static final int IO_BUF_SIZE = 16 * 1024;
+  public static final int DEFAULT_CHANNEL_BUF_SIZE = 4 * 1024 * 1024;
+  public static final long DEFAULT_BLOCK_SIZE = 256L * 1024 * 1024;
 
   public static org.apache.parquet.io.OutputFile nioPathToOutputFile(@Nonnull Path file) {
     //noinspection ConstantConditions
@@ -48,11 +58,123 @@ public final class OutputFile {
     };
   }
 
+  /**
+   * Returns an OutputFile that writes through a FileChannel with two direct buffers of
+   * ioBufSize bytes, one being filled by the caller while the other is written out on
+   * a background thread, and forces data to disk per the durability policy (row groups
+   * are only known to the stream through RowGroupListener). blockSize is reported to the
+   * Parquet writer as the file's block size, to which a writer built with a max padding
+   * size over 0 pads its row groups; the writers of this project are built with 0 - a
+   * local file has no blocks to align to - so for them it has no effect.
+   */
+  public static org.apache.parquet.io.OutputFile nioPathToChannelOutputFile(@Nonnull Path file,
+                                                                          long blockSize,
+                                                                          int ioBufSize,
+                                                                          @Nonnull Durability durability)
+  {
+    //noinspection ConstantConditions
+    assert file != null && durability != null;
+    if (ioBufSize <= 0 || blockSize <= 0) {
+      throw new IllegalArgumentException("buffer and block sizes must be positive");
+    }
+    return new org.apache.parquet.io.OutputFile() {
+      @Override
+      public PositionOutputStream create(long blockSizeHint) throws IOException {
+        return new WriteBehindOutputStream(FileChannel.open(file, CREATE_NEW, WRITE), ioBufSize, durability);
+      }
+
+      @Override
+      public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+        return new WriteBehindOutputStream(FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING), ioBufSize,
+                durability);
+      }
+
+      @Override
+      public boolean supportsBlockSize() {
+        return true;
+      }
+
+      @Override
+      public long defaultBlockSize() {
+        return blockSize;
+      }
+    };
+  }
+
+  public static org.apache.parquet.io.OutputFile nioPathToChannelOutputFile(@Nonnull Path file,
+                                                                          @Nonnull Durability durability)
+  {
+    return nioPathToChannelOutputFile(file, DEFAULT_BLOCK_SIZE, DEFAULT_CHANNEL_BUF_SIZE, durability);
+  }
+
+  /**
+   * Returns an OutputFile that streams to a channel that cannot seek - a pipe, a socket,
+   * stdout - through the same pair of direct buffers of ioBufSize bytes as
+   * nioPathToChannelOutputFile(), one written out on a background thread while the other
+   * is filled. The Parquet writer only ever appends, so nothing is lost by not seeking.
+   * The channel must be in blocking mode. It is closed with the stream, and as it can
+   * only be written once, so can the OutputFile.
+   */
+  public static org.apache.parquet.io.OutputFile channelToStreamOutputFile(@Nonnull WritableByteChannel channel,
+                                                                         int ioBufSize)
+  {
+    //noinspection ConstantConditions
+    assert channel != null;
+    if (ioBufSize <= 0) {
+      throw new IllegalArgumentException("buffer size must be positive: " + ioBufSize);
+    }
+    if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+      throw new IllegalArgumentException("channel must be in blocking mode");
+    }
+    final AtomicBoolean created = new AtomicBoolean();
+    return new org.apache.parquet.io.OutputFile() {
+      @Override
+      public PositionOutputStream create(long blockSizeHint) throws IOException {
+        if (created.getAndSet(true)) {
+          throw new IOException("a stream can only be written once: " + channel);
+        }
+        return new WriteBehindOutputStream(channel, ioBufSize, Durability.NONE);
+      }
+
+      @Override
+      public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+        return create(blockSizeHint);
+      }
+
+      @Override
+      public boolean supportsBlockSize() {
+        return false;
+      }
+
+      @Override
+      public long defaultBlockSize() {
+        return 0;
+      }
+    };
+  }
+
+  public static org.apache.parquet.io.OutputFile channelToStreamOutputFile(@Nonnull WritableByteChannel channel) {
+    return channelToStreamOutputFile(channel, DEFAULT_CHANNEL_BUF_SIZE);
+  }
+
+  /**
+   * As channelToStreamOutputFile(), for an OutputStream. A FileOutputStream (such as one
+   * over FileDescriptor.out) is written through its channel; any other stream through a
+   * channel that copies each buffer into it.
+   */
+  public static org.apache.parquet.io.OutputFile outputStreamToStreamOutputFile(@Nonnull OutputStream out) {
+    //noinspection ConstantConditions
+    assert out != null;
+    return channelToStreamOutputFile(out instanceof FileOutputStream
+            ? ((FileOutputStream) out).getChannel()
+            : Channels.newChannel(out));
+  }
+
   private static PositionOutputStream makePositionOutputStream(@Nonnull Path file, int ioBufSize, boolean trunc)
           throws IOException
   {
     final OutputStream output = new BufferedOutputStream(
-            Files.newOutputStream(file, CREATE, trunc ? TRUNCATE_EXISTING : APPEND), ioBufSize);
+            IoStatistics.counting(Files.newOutputStream(file, CREATE, trunc ? TRUNCATE_EXISTING : APPEND)), ioBufSize);
 
     return new PositionOutputStream() {
       private long position = 0;
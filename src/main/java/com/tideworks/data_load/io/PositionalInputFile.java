@@ -0,0 +1,231 @@
+/** PositionalInputFile.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * InputFile over a FileChannel that is shared by all of the streams it hands out. Each
+ * stream keeps its own position and reads via positional reads (pread), so the streams
+ * never disturb one another and may be used from different threads concurrently. An
+ * individual stream is not itself thread-safe.
+ * <p>
+ * The channel is opened by the first newStream() call and closed when the last stream
+ * referencing it is closed; a later newStream() call will reopen it.
+ * <p>
+ * Small reads are served from a per-stream buffer of readBufSize bytes; larger reads
+ * fill the caller's array or ByteBuffer directly from the channel.
+ */
+final class PositionalInputFile implements org.apache.parquet.io.InputFile {
+  private final Path file;
+  private final long length;
+  private final int readBufSize;
+  private SharedFileChannel shared;
+
+  PositionalInputFile(@Nonnull Path file, int readBufSize) throws IOException {
+    this.file = file;
+    this.readBufSize = readBufSize;
+    this.length = Files.size(file); // Parquet files are immutable once written
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new PositionalInputStream(acquire(), length, readBufSize);
+  }
+
+  private synchronized SharedFileChannel acquire() throws IOException {
+    if (shared == null || !shared.retain()) {
+      shared = SharedFileChannel.open(file);
+    }
+    return shared;
+  }
+
+  @Override
+  public String toString() {
+    return file.toString();
+  }
+
+  private static final class PositionalInputStream extends SeekableInputStream {
+    private final SharedFileChannel shared;
+    private final FileChannel channel;
+    private final long length;
+    private final int readBufSize;
+    private ByteBuffer buffer;    // holds file bytes [bufferPos, bufferPos + buffer.limit())
+    private long bufferPos = 0;
+    private long position = 0;
+    private long markPos = 0;
+    private boolean closed = false;
+
+    PositionalInputStream(@Nonnull SharedFileChannel shared, long length, int readBufSize) {
+      this.shared = shared;
+      this.channel = shared.channel();
+      this.length = length;
+      this.readBufSize = readBufSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (bufferedAtPosition() <= 0 && fillBuffer() <= 0) return -1;
+      return buffer.get((int) (position++ - bufferPos)) & 0xff;
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) return 0;
+      return read(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) return 0;
+      n = Math.min(n, length - position);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(Math.max(length - position, 0), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        buffer = null;
+        shared.release();
+      }
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+      markPos = position;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+      position = markPos;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return true;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+      return position;
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      if (newPos < 0) {
+        throw new EOFException("Cannot seek to a negative position: " + newPos);
+      }
+      position = newPos; // the buffer stays valid for whatever range it holds
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int off, int len) throws IOException {
+      readFully(ByteBuffer.wrap(bytes, off, len));
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException {
+      if (!byteBuffer.hasRemaining()) return 0;
+      final int copied = copyFromBuffer(byteBuffer);
+      if (!byteBuffer.hasRemaining()) return copied;
+      final int bytesRead;
+      if (byteBuffer.remaining() >= readBufSize) {
+        bytesRead = readFromChannel(byteBuffer);
+      } else {
+        bytesRead = fillBuffer() < 0 ? -1 : copyFromBuffer(byteBuffer);
+      }
+      if (bytesRead < 0) {
+        return copied == 0 ? -1 : copied;
+      }
+      return copied + bytesRead;
+    }
+
+    @Override
+    public void readFully(ByteBuffer byteBuffer) throws IOException {
+      copyFromBuffer(byteBuffer);
+      while (byteBuffer.hasRemaining()) {
+        final int bytesRead;
+        if (byteBuffer.remaining() >= readBufSize) {
+          bytesRead = readFromChannel(byteBuffer);
+        } else {
+          bytesRead = fillBuffer() < 0 ? -1 : copyFromBuffer(byteBuffer);
+        }
+        if (bytesRead < 0) {
+          throw new EOFException("Reached the end of stream with " + byteBuffer.remaining() + " bytes left to read");
+        }
+      }
+    }
+
+    // large reads go straight from the channel into the caller's buffer - heap or direct
+    private int readFromChannel(ByteBuffer byteBuffer) throws IOException {
+      final long startTime = IoStatistics.startTime();
+      final int bytesRead = channel.read(byteBuffer, position);
+      IoStatistics.read(bytesRead, startTime);
+      if (bytesRead > 0) {
+        position += bytesRead;
+      }
+      return bytesRead;
+    }
+
+    private int bufferedAtPosition() {
+      if (buffer == null) return 0;
+      final long offset = position - bufferPos;
+      return offset >= 0 && offset < buffer.limit() ? (int) (buffer.limit() - offset) : 0;
+    }
+
+    private int copyFromBuffer(ByteBuffer byteBuffer) {
+      final int count = Math.min(bufferedAtPosition(), byteBuffer.remaining());
+      if (count <= 0) return 0;
+      final int savedLimit = buffer.limit();
+      final int offset = (int) (position - bufferPos);
+      buffer.limit(offset + count).position(offset);
+      byteBuffer.put(buffer);
+      buffer.limit(savedLimit);
+      position += count;
+      return count;
+    }
+
+    private int fillBuffer() throws IOException {
+      if (buffer == null) {
+        buffer = ByteBuffer.allocate(readBufSize);
+      }
+      buffer.clear();
+      bufferPos = position;
+      final long startTime = IoStatistics.startTime();
+      final int bytesRead = channel.read(buffer, position);
+      IoStatistics.read(bytesRead, startTime);
+      buffer.flip();
+      return bytesRead;
+    }
+  }
+}
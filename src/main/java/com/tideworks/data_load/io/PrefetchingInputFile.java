@@ -0,0 +1,77 @@
+/** PrefetchingInputFile.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * InputFile whose streams read byte ranges of the file ahead of their use, on background
+ * threads, once told which by prefetch(). Until then - and outside of the ranges - they
+ * read as positional streams do. The ranges are given after the reader has opened, so
+ * that its own reads of the footer (and of dictionaries, when filtering row groups by
+ * them) are over and the ranges can be those of the row groups it kept.
+ */
+public final class PrefetchingInputFile implements org.apache.parquet.io.InputFile {
+  private final Path file;
+  private final long length;
+  private final ReadAhead readAhead;
+  private final List<ReadAheadInputStream> streams = new ArrayList<>();
+  private List<ReadAhead.Range> pieces = Collections.emptyList();
+
+  PrefetchingInputFile(@Nonnull Path file, @Nonnull ReadAhead readAhead) throws IOException {
+    this.file = file;
+    this.length = Files.size(file); // Parquet files are immutable once written
+    this.readAhead = readAhead;
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public synchronized SeekableInputStream newStream() throws IOException {
+    final ReadAheadInputStream stream = new ReadAheadInputStream(file, length, readAhead.depth, readAhead.pool());
+    try {
+      if (!pieces.isEmpty()) {
+        stream.prefetch(pieces);
+      }
+    } catch (IOException|RuntimeException e) {
+      stream.close();
+      throw e;
+    }
+    streams.add(stream);
+    return stream;
+  }
+
+  /**
+   * Has the open streams, and those opened from here on, read ranges (in any order,
+   * overlapping or not) ahead in file order, in place of any ranges given before.
+   */
+  public synchronized void prefetch(@Nonnull List<ReadAhead.Range> ranges) throws IOException {
+    //noinspection ConstantConditions
+    assert ranges != null;
+    pieces = readAhead.piecesOf(ranges);
+    streams.removeIf(ReadAheadInputStream::isClosed);
+    for (final ReadAheadInputStream stream : streams) {
+      stream.prefetch(pieces);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return file.toString();
+  }
+}
@@ -0,0 +1,120 @@
+/** ReadAhead.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Settings for reading byte ranges of a file that are known in advance - such as the
+ * column chunks of the row groups a Parquet reader is about to decode - on background
+ * threads ahead of their use (see InputFile.nioPathToPrefetchingInputFile()). Ranges
+ * separated by no more than gapBytes are merged into one read (the bytes of the gap are
+ * read and discarded, which costs less than another seek), and the merged ranges are
+ * read in pieces of at most 8 MB into pooled direct buffers.
+ * <p>
+ * Each stream keeps up to depth pieces in flight or waiting to be consumed; all streams
+ * of one ReadAhead share its buffer pool and so stay within maxBytes between them.
+ * When the pool is exhausted, reads simply go to the file as they arrive.
+ */
+public final class ReadAhead {
+  public static final int DEFAULT_DEPTH = 4;
+  public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+  public static final long DEFAULT_GAP_BYTES = 1024 * 1024;
+  static final int MAX_READ_BYTES = 8 * 1024 * 1024;
+
+  public final int depth;
+  public final long maxBytes;
+  public final long gapBytes;
+  private final BufferPool pool;
+
+  /**
+   * A byte range of a file.
+   */
+  public static final class Range {
+    public final long offset;
+    public final long length;
+
+    public Range(long offset, long length) {
+      if (offset < 0 || length < 0) {
+        throw new IllegalArgumentException(String.format("invalid range: %d bytes at %d", length, offset));
+      }
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public long end() {
+      return offset + length;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("[%d, %d)", offset, end());
+    }
+  }
+
+  public ReadAhead(int depth, long maxBytes, long gapBytes) {
+    if (depth <= 0) {
+      throw new IllegalArgumentException("read-ahead depth must be positive: " + depth);
+    }
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("read-ahead memory must be positive: " + maxBytes);
+    }
+    if (gapBytes < 0) {
+      throw new IllegalArgumentException("read-ahead gap must not be negative: " + gapBytes);
+    }
+    this.depth = depth;
+    this.maxBytes = maxBytes;
+    this.gapBytes = gapBytes;
+    this.pool = new BufferPool(maxBytes);
+  }
+
+  BufferPool pool() {
+    return pool;
+  }
+
+  // ranges in any order, overlapping or not, as the pieces to read in file order
+  List<Range> piecesOf(@Nonnull List<Range> ranges) {
+    return split(coalesce(ranges, gapBytes), MAX_READ_BYTES);
+  }
+
+  /**
+   * Sorts ranges by offset and merges those that overlap or lie within gapBytes of one
+   * another.
+   */
+  public static List<Range> coalesce(@Nonnull List<Range> ranges, long gapBytes) {
+    final List<Range> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingLong(range -> range.offset));
+    final List<Range> merged = new ArrayList<>(sorted.size());
+    Range current = null;
+    for (final Range range : sorted) {
+      if (range.length == 0) continue;
+      if (current != null && range.offset - current.end() <= gapBytes) {
+        current = new Range(current.offset, Math.max(current.end(), range.end()) - current.offset);
+      } else {
+        if (current != null) merged.add(current);
+        current = range;
+      }
+    }
+    if (current != null) merged.add(current);
+    return merged;
+  }
+
+  // so that a piece fits a pooled buffer, and the first bytes of a long range are
+  // available before the whole of it has been read
+  static List<Range> split(@Nonnull List<Range> ranges, int maxReadBytes) {
+    final List<Range> pieces = new ArrayList<>(ranges.size());
+    for (final Range range : ranges) {
+      for (long offset = range.offset; offset < range.end(); offset += maxReadBytes) {
+        pieces.add(new Range(offset, Math.min(maxReadBytes, range.end() - offset)));
+      }
+    }
+    return pieces;
+  }
+}
@@ -0,0 +1,300 @@
+/** ReadAheadInputStream.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * SeekableInputStream that, once given the pieces of the file to read (see prefetch()),
+ * reads them in order ahead of the position on background threads (see ReadAhead). A
+ * read at a position covered by the first piece ahead waits for that piece, if need be,
+ * and is served from its buffer; pieces the position has moved beyond go back to the
+ * pool and the next ones are started. Any other read - all of them until prefetch() is
+ * called, and those outside the span of the pieces, such as of the footer - goes to the
+ * file through a positional stream without disturbing the reads ahead.
+ */
+final class ReadAheadInputStream extends SeekableInputStream {
+  private static final AtomicInteger readerCount = new AtomicInteger(0);
+  private static final ExecutorService readers = Executors.newCachedThreadPool(task -> {
+    final Thread thread = new Thread(task, "read-ahead-" + readerCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static final class Piece {
+    final ReadAhead.Range range;
+    final ByteBuffer buffer;
+    Future<?> read;
+
+    Piece(ReadAhead.Range range, ByteBuffer buffer) {
+      this.range = range;
+      this.buffer = buffer;
+    }
+  }
+
+  private final FileChannel channel;
+  private final SeekableInputStream direct;
+  private final long length;
+  private List<ReadAhead.Range> pieces = Collections.emptyList();
+  private long piecesEnd = 0;
+  private final int depth;
+  private final BufferPool pool;
+  private final ArrayDeque<Piece> ahead = new ArrayDeque<>();
+  private final byte[] singleByte = new byte[1];
+  private int next = 0; // the next of pieces to be started
+  private long position = 0;
+  private long markPos = 0;
+  private boolean closed = false;
+
+  ReadAheadInputStream(@Nonnull Path file, long length, int depth, @Nonnull BufferPool pool) throws IOException {
+    this.channel = FileChannel.open(file, READ);
+    try {
+      this.direct = new PositionalInputFile(file, InputFile.DEFAULT_READ_BUFFER_SIZE).newStream();
+    } catch (IOException|RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    this.length = length;
+    this.depth = depth;
+    this.pool = pool;
+  }
+
+  /**
+   * Starts reading pieces - in file order, not overlapping - ahead, replacing any given
+   * before.
+   */
+  void prefetch(@Nonnull List<ReadAhead.Range> pieces) throws IOException {
+    if (closed) {
+      throw new IOException("stream is closed");
+    }
+    for (final Piece piece : ahead) {
+      retire(piece);
+    }
+    ahead.clear();
+    this.pieces = pieces;
+    this.piecesEnd = pieces.isEmpty() ? 0 : pieces.get(pieces.size() - 1).end();
+    this.next = 0;
+    startReads();
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return read(singleByte, 0, 1) < 0 ? -1 : singleByte[0] & 0xff;
+  }
+
+  @SuppressWarnings("NullableProblems")
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) return 0;
+    return read(ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    if (n <= 0) return 0;
+    n = Math.min(n, length - position);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return (int) Math.min(Math.max(length - position, 0), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        // the buffers of reads still under way are only returned once they are done
+        for (final Piece piece : ahead) {
+          retire(piece);
+        }
+        ahead.clear();
+      } finally {
+        try {
+          direct.close();
+        } finally {
+          channel.close();
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    markPos = position;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    position = markPos;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return position;
+  }
+
+  @Override
+  public void seek(long newPos) throws IOException {
+    if (newPos < 0) {
+      throw new EOFException("Cannot seek to a negative position: " + newPos);
+    }
+    position = newPos;
+  }
+
+  @Override
+  public void readFully(byte[] bytes) throws IOException {
+    readFully(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public void readFully(byte[] bytes, int off, int len) throws IOException {
+    readFully(ByteBuffer.wrap(bytes, off, len));
+  }
+
+  @Override
+  public int read(ByteBuffer byteBuffer) throws IOException {
+    if (!byteBuffer.hasRemaining()) return 0;
+    final ByteBuffer data = dataAtPosition();
+    if (data == null) {
+      direct.seek(position);
+      final int bytesRead = direct.read(byteBuffer);
+      if (bytesRead > 0) {
+        position += bytesRead;
+      }
+      return bytesRead;
+    }
+    final int offset = (int) (position - ahead.peekFirst().range.offset);
+    final int count = Math.min(data.limit() - offset, byteBuffer.remaining());
+    final ByteBuffer source = data.duplicate();
+    source.limit(offset + count).position(offset);
+    byteBuffer.put(source);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public void readFully(ByteBuffer byteBuffer) throws IOException {
+    while (byteBuffer.hasRemaining()) {
+      if (read(byteBuffer) < 0) {
+        throw new EOFException("Reached the end of stream with " + byteBuffer.remaining() + " bytes left to read");
+      }
+    }
+  }
+
+  // the data of the first piece ahead if it holds the byte at the position, else null
+  private ByteBuffer dataAtPosition() throws IOException {
+    if (closed) {
+      throw new IOException("stream is closed");
+    }
+    if (pieces.isEmpty() || position < pieces.get(0).offset || position >= piecesEnd) return null;
+    while (!ahead.isEmpty() && ahead.peekFirst().range.end() <= position) {
+      retire(ahead.pollFirst());
+    }
+    if (ahead.isEmpty()) {
+      // pieces the position has passed before they could be started are not read at all
+      while (next < pieces.size() && pieces.get(next).end() <= position) {
+        next++;
+      }
+    }
+    startReads();
+    final Piece piece = ahead.peekFirst();
+    if (piece == null || piece.range.offset > position) return null;
+    final ByteBuffer data = await(piece);
+    // short only should the file be shorter than the footer made out
+    return position - piece.range.offset < data.limit() ? data : null;
+  }
+
+  private void startReads() {
+    while (next < pieces.size() && ahead.size() < depth) {
+      final ReadAhead.Range range = pieces.get(next);
+      final ByteBuffer buffer = pool.acquire((int) range.length);
+      if (buffer == null) break; // at the memory limit - tried again on the next read
+      next++;
+      final Piece piece = new Piece(range, buffer);
+      piece.read = readers.submit(() -> readPiece(piece));
+      ahead.addLast(piece);
+    }
+  }
+
+  private Void readPiece(Piece piece) throws IOException {
+    final ByteBuffer buffer = piece.buffer;
+    final long startTime = IoStatistics.startTime();
+    try {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, piece.range.offset + buffer.position()) < 0) break;
+      }
+    } finally {
+      IoStatistics.read(buffer.position(), startTime);
+      buffer.flip();
+    }
+    return null;
+  }
+
+  private static ByteBuffer await(Piece piece) throws IOException {
+    try {
+      piece.read.get();
+      return piece.buffer;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting on read ahead of " + piece.range);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) throw (IOException) cause;
+      throw new IOException("read ahead of " + piece.range + " failed", cause);
+    }
+  }
+
+  // the buffer cannot go back to the pool while a read may still be filling it
+  private void retire(Piece piece) {
+    boolean interrupted = false;
+    for (;;) {
+      try {
+        piece.read.get();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        break;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    pool.release(piece.buffer);
+  }
+}
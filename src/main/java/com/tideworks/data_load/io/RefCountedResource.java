@@ -0,0 +1,41 @@
+/** RefCountedResource.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base for a resource shared by several streams. It starts out with a count of one on
+ * behalf of its first holder and is disposed of when the last holder releases it.
+ */
+abstract class RefCountedResource {
+  private final AtomicInteger refCount = new AtomicInteger(1);
+
+  /**
+   * Adds a holder unless the resource has already been released by its last holder.
+   *
+   * @return false if the resource is (or is about to be) disposed and must be reopened
+   */
+  boolean retain() {
+    for(;;) {
+      final int count = refCount.get();
+      if (count <= 0 || !isOpen()) return false;
+      if (refCount.compareAndSet(count, count + 1)) return true;
+    }
+  }
+
+  void release() throws IOException {
+    if (refCount.decrementAndGet() == 0) {
+      dispose();
+    }
+  }
+
+  abstract boolean isOpen();
+
+  abstract void dispose() throws IOException;
+}
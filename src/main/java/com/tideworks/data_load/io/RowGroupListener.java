@@ -0,0 +1,21 @@
+/** RowGroupListener.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import java.io.IOException;
+
+/**
+ * Implemented by the streams of the OutputFiles here that act on row group boundaries.
+ * The Parquet writer does not tell its stream where a row group ends, so whoever drives
+ * the writer calls rowGroupEnded() once it has seen the writer write one out.
+ */
+public interface RowGroupListener {
+  /**
+   * Called after all the bytes of a row group have been written to the stream.
+   */
+  void rowGroupEnded() throws IOException;
+}
@@ -0,0 +1,41 @@
+/** SharedFileChannel.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reference counted read-only FileChannel; closed when the last holder releases it.
+ */
+final class SharedFileChannel extends RefCountedResource {
+  private final FileChannel channel;
+
+  private SharedFileChannel(@Nonnull FileChannel channel) {
+    this.channel = channel;
+  }
+
+  static SharedFileChannel open(@Nonnull Path file) throws IOException {
+    return new SharedFileChannel(FileChannel.open(file, READ));
+  }
+
+  FileChannel channel() { return channel; }
+
+  @Override
+  boolean isOpen() {
+    return channel.isOpen();
+  }
+
+  @Override
+  void dispose() throws IOException {
+    channel.close();
+  }
+}
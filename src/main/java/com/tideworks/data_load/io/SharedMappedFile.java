@@ -0,0 +1,77 @@
+/** SharedMappedFile.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reference counted read-only memory mapping of an entire file. A single MappedByteBuffer
+ * can address at most 2 GB, so the file is mapped as consecutive segments of
+ * SEGMENT_SIZE bytes. The segments are explicitly unmapped when the last holder releases
+ * the mapping rather than whenever the garbage collector gets around to it.
+ */
+final class SharedMappedFile extends RefCountedResource {
+  static final int SEGMENT_SHIFT = 30;
+  static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+  static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private final MappedByteBuffer[] segments;
+  private volatile boolean mapped = true;
+
+  private SharedMappedFile(@Nonnull MappedByteBuffer[] segments) {
+    this.segments = segments;
+  }
+
+  static SharedMappedFile map(@Nonnull Path file, long length) throws IOException {
+    final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+    // the mappings remain valid after the channel that created them is closed
+    try (final FileChannel channel = FileChannel.open(file, READ)) {
+      for (int i = 0; i < segments.length; i++) {
+        final long offset = (long) i << SEGMENT_SHIFT;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, length - offset));
+      }
+    } catch (IOException|RuntimeException e) {
+      for (final MappedByteBuffer segment : segments) {
+        if (segment != null) DirectBuffers.release(segment);
+      }
+      throw e;
+    }
+    return new SharedMappedFile(segments);
+  }
+
+  /**
+   * @return per-caller views of the segments; each holder needs its own because buffer
+   *         position and limit are not thread-safe
+   */
+  ByteBuffer[] newViews() {
+    final ByteBuffer[] views = new ByteBuffer[segments.length];
+    for (int i = 0; i < segments.length; i++) {
+      views[i] = segments[i].duplicate();
+    }
+    return views;
+  }
+
+  @Override
+  boolean isOpen() {
+    return mapped;
+  }
+
+  @Override
+  void dispose() {
+    mapped = false;
+    for (final MappedByteBuffer segment : segments) {
+      DirectBuffers.release(segment);
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/** WriteBehindOutputStream.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load.io;
+
+import org.apache.parquet.io.PositionOutputStream;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PositionOutputStream over a channel - a FileChannel, or any other blocking channel such
+ * as a pipe or socket - with a pair of large direct buffers. While the caller (the
+ * Parquet encoder) fills one buffer, the other is drained to the channel on a background
+ * flusher thread, so encoding and I/O overlap. At most one buffer is ever in flight per
+ * stream, which keeps the writes in order. The position is counted, never sought, so
+ * the channel need not be seekable; only a FileChannel can be forced to disk, though.
+ * <p>
+ * An I/O error raised by the flusher is rethrown to the caller by the next write that
+ * has to wait for it, or at the latest by close().
+ * <p>
+ * With FSYNC_PER_ROW_GROUP, rowGroupEnded() hands off what is buffered and has the
+ * flusher force it to disk once written, without the caller waiting for either.
+ */
+final class WriteBehindOutputStream extends PositionOutputStream implements RowGroupListener {
+  private static final AtomicInteger flusherCount = new AtomicInteger();
+  private static final ExecutorService flushers = Executors.newCachedThreadPool(task -> {
+    final Thread thread = new Thread(task, "write-behind-flusher-" + flusherCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final WritableByteChannel channel;
+  private final Durability durability;
+  private ByteBuffer current;
+  private ByteBuffer spare;
+  private Future<?> pending;
+  private long position = 0;
+  private boolean closed = false;
+
+  WriteBehindOutputStream(@Nonnull WritableByteChannel channel, int ioBufSize, @Nonnull Durability durability) {
+    if (durability != Durability.NONE && !(channel instanceof FileChannel)) {
+      throw new IllegalArgumentException("only a file channel can be forced to disk, not " + channel);
+    }
+    this.channel = channel;
+    this.durability = durability;
+    this.current = ByteBuffer.allocateDirect(ioBufSize);
+    this.spare = ByteBuffer.allocateDirect(ioBufSize);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    current.put((byte) b);
+    position++;
+    if (!current.hasRemaining()) {
+      handOff(false);
+    }
+  }
+
+  @Override
+  public void write(@Nonnull byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      final int count = Math.min(len, current.remaining());
+      current.put(b, off, count);
+      position += count;
+      off += count;
+      len -= count;
+      if (!current.hasRemaining()) {
+        handOff(false);
+      }
+    }
+  }
+
+  /**
+   * Hands the buffered bytes to the flusher and waits for them to reach the channel
+   * (the operating system) - it does not fsync.
+   */
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    if (current.position() > 0) {
+      handOff(false);
+    }
+    awaitPending();
+  }
+
+  @Override
+  public void rowGroupEnded() throws IOException {
+    ensureOpen();
+    if (durability == Durability.FSYNC_PER_ROW_GROUP) {
+      handOff(true); // even with nothing buffered, what was handed off before is yet to be forced
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) return;
+    try {
+      flush();
+      if (durability != Durability.NONE) {
+        final long startTime = IoStatistics.startTime();
+        ((FileChannel) channel).force(true);
+        IoStatistics.force(startTime);
+      }
+    } finally {
+      closed = true;
+      awaitPendingUninterruptibly(); // never free a buffer the flusher may still be draining
+      try {
+        channel.close();
+      } finally {
+        DirectBuffers.release(current);
+        DirectBuffers.release(spare);
+        current = spare = null;
+      }
+    }
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return position;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed");
+    }
+  }
+
+  private void handOff(final boolean sync) throws IOException {
+    awaitPending(); // the spare buffer is free again once the previous write is done
+    final ByteBuffer filled = current;
+    filled.flip();
+    current = spare;
+    current.clear();
+    spare = filled;
+
+    pending = flushers.submit(() -> {
+      while (filled.hasRemaining()) {
+        final long startTime = IoStatistics.startTime();
+        final int bytesWritten = channel.write(filled);
+        IoStatistics.write(bytesWritten, startTime);
+      }
+      if (sync) {
+        final long startTime = IoStatistics.startTime();
+        ((FileChannel) channel).force(false);
+        IoStatistics.force(startTime);
+      }
+      return null;
+    });
+  }
+
+  private void awaitPending() throws IOException {
+    if (pending == null) return;
+    try {
+      pending.get();
+      pending = null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting on write-behind flush");
+    } catch (ExecutionException e) {
+      pending = null;
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) throw (IOException) cause;
+      throw new IOException("write-behind flush failed", cause);
+    }
+  }
+
+  private void awaitPendingUninterruptibly() {
+    boolean interrupted = false;
+    while (pending != null) {
+      try {
+        pending.get();
+        pending = null;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        pending = null; // already reported, or superseded by the exception being thrown
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/* StreamingConverterTest.java
+ *
+ * Copyright October 2026 Tideworks Technology
+ * Author: Roger D. Voss
+ * MIT License
+ */
+package com.tideworks.data_load;
+
+import org.apache.avro.generic.GenericData;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.tideworks.data_load.io.InputFile.nioPathToLocalInputFile;
+import static com.tideworks.data_load.io.OutputFile.channelToStreamOutputFile;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Streams conversions to a socket on the loopback interface, as the stream mode does to
+ * a downstream loader, and reads back what arrived as a Parquet file.
+ */
+public class StreamingConverterTest {
+  private static final int RECORDS = 10_000;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void streamsParquetToSocket() throws Exception {
+    final Path input = folder.getRoot().toPath().resolve("input.jsonl");
+    final List<String> lines = new ArrayList<>(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      lines.add(String.format("{\"id\": %d, \"name\": \"name-%d\"}", i, i));
+    }
+    Files.write(input, lines, StandardCharsets.UTF_8);
+    final Path received = folder.getRoot().toPath().resolve("received.parquet");
+
+    final ExecutorService receiver = Executors.newSingleThreadExecutor();
+    try (final ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      // the loader's side: accept and copy whatever arrives to a file, until the sender closes
+      final Future<Long> bytesReceived = receiver.submit(() -> {
+        try (final SocketChannel connection = server.accept();
+             final FileChannel out = FileChannel.open(received, CREATE_NEW, WRITE))
+        {
+          long bytes = 0;
+          for (long count; (count = out.transferFrom(connection, bytes, 1024 * 1024)) > 0; ) {
+            bytes += count;
+          }
+          return bytes;
+        }
+      });
+      final long records;
+      try (final SocketChannel channel = SocketChannel.open(server.getLocalAddress())) {
+        records = StreamingConverter.convert(input, channel, "loopback", 2,
+                DataLoad.loadSchema(DataLoad.SCHEMA_FILE_NAME));
+      }
+      assertEquals(RECORDS, records);
+      // the sender is done once its bytes are in the socket buffer, not once they are received
+      final long bytes = bytesReceived.get(1, TimeUnit.MINUTES);
+      assertEquals(bytes, Files.size(received));
+    } finally {
+      receiver.shutdownNow();
+    }
+
+    try (final ParquetFileReader reader = ParquetFileReader.open(nioPathToLocalInputFile(received))) {
+      assertEquals(RECORDS, reader.getRecordCount());
+    }
+    try (final AvroRecordReader reader = AvroRecordReader.open(received)) {
+      for (int i = 0; i < RECORDS; i++) {
+        final GenericData.Record record = reader.read();
+        assertEquals((long) i, record.get("id"));
+        assertEquals("name-" + i, record.get("name").toString());
+      }
+      assertNull(reader.read());
+    }
+  }
+
+  @Test
+  public void streamIsCreatedOnlyOnce() throws IOException {
+    final OutputFile outputFile = channelToStreamOutputFile(Channels.newChannel(new ByteArrayOutputStream()));
+    try (final PositionOutputStream out = outputFile.create(0)) {
+      out.write(1);
+    }
+    try {
+      outputFile.create(0).close();
+      fail("a second stream was created");
+    } catch (IOException expected) {
+      // a stream cannot be rewound to be written again
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonBlockingChannelIsRejected() throws IOException {
+    final Pipe pipe = Pipe.open();
+    try {
+      pipe.sink().configureBlocking(false);
+      channelToStreamOutputFile(pipe.sink());
+    } finally {
+      pipe.sink().close();
+      pipe.source().close();
+    }
+  }
+}